@@ -437,6 +437,7 @@ public class Editor extends ApplicationAdapter implements EventListener {
 					projectMC.add(new ProjectSettingsIOModule());
 					projectMC.add(new SupportModule());
 					projectMC.add(new SceneMetadataModule());
+					projectMC.add(new AssetsUsageIndexModule());
 					projectMC.add(new AssetsAnalyzerModule());
 
 					projectMC.add(new ExportersManagerModule());
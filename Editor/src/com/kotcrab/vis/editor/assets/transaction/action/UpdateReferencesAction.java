@@ -18,11 +18,15 @@ package com.kotcrab.vis.editor.assets.transaction.action;
 
 import com.artemis.Component;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.kotcrab.vis.editor.assets.AssetDescriptorProvider;
 import com.kotcrab.vis.editor.assets.transaction.AssetProviderResult;
 import com.kotcrab.vis.editor.entity.EntityScheme;
 import com.kotcrab.vis.editor.module.InjectModule;
 import com.kotcrab.vis.editor.module.ModuleInjector;
+import com.kotcrab.vis.editor.module.project.AssetsUsageIndexModule;
 import com.kotcrab.vis.editor.module.project.FileAccessModule;
 import com.kotcrab.vis.editor.module.project.SceneCacheModule;
 import com.kotcrab.vis.editor.scene.EditorScene;
@@ -37,11 +41,15 @@ import com.kotcrab.vis.runtime.component.AssetComponent;
 public class UpdateReferencesAction implements UndoableAction {
 	@InjectModule private SceneCacheModule sceneCache;
 	@InjectModule private FileAccessModule fileAccess;
+	@InjectModule private AssetsUsageIndexModule usageIndex;
 
 	private AssetDescriptorProvider assetProvider;
 	private VisAssetDescriptor source;
 	private VisAssetDescriptor target;
 
+	/** Scenes updated by {@link #execute()} */
+	private Array<FileHandle> updatedScenes = new Array<>();
+
 	public UpdateReferencesAction (ModuleInjector injector, AssetProviderResult providerResult, VisAssetDescriptor target) {
 		injector.injectModules(this);
 		this.assetProvider = providerResult.provider;
@@ -51,16 +59,25 @@ public class UpdateReferencesAction implements UndoableAction {
 
 	@Override
 	public void execute () {
-		swapAssets(source, target);
+		updatedScenes.clear();
+		ObjectMap<String, IntArray> usages = usageIndex.findUsages(source);
+
+		for (FileHandle sceneFile : fileAccess.getSceneFiles()) {
+			//scene modified in cache may reference source even if saved scene doesn't
+			if (usages.containsKey(fileAccess.relativizeToAssetsFolder(sceneFile)) || sceneCache.isModified(sceneFile))
+				updatedScenes.add(sceneFile);
+		}
+
+		swapAssets(updatedScenes, source, target);
 	}
 
 	@Override
 	public void undo () {
-		swapAssets(target, source);
+		swapAssets(updatedScenes, target, source);
 	}
 
-	private void swapAssets (VisAssetDescriptor asset1, VisAssetDescriptor asset2) {
-		for (FileHandle sceneFile : fileAccess.getSceneFiles()) {
+	private void swapAssets (Array<FileHandle> sceneFiles, VisAssetDescriptor asset1, VisAssetDescriptor asset2) {
+		for (FileHandle sceneFile : sceneFiles) {
 			EditorScene scene = sceneCache.get(sceneFile);
 
 			for (EntityScheme scheme : scene.getSchemes()) {
@@ -69,6 +86,7 @@ public class UpdateReferencesAction implements UndoableAction {
 						AssetComponent assetComponent = (AssetComponent) component;
 						if (assetComponent.asset.compare(asset1)) {
 							assetComponent.asset = assetProvider.parametrize(asset2, assetComponent.asset);
+							sceneCache.markModified(sceneFile);
 						}
 					}
 				}
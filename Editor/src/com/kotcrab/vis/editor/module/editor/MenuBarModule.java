@@ -97,7 +97,7 @@ public class MenuBarModule extends EditorModule {
 		menu.addSeparator();
 
 		menu.addItem(createMenuItem(ControllerPolicy.PROJECT, "Export", Icons.EXPORT, () -> projectContainer.get(ExportersManagerModule.class).export(false)));
-		//menu.addItem(createMenuItem(ControllerPolicy.PROJECT, "Quick Export", () -> projectContainer.get(ExportModule.class).export(true))); //TODO quick export
+		menu.addItem(createMenuItem(ControllerPolicy.PROJECT, "Quick Export", () -> projectContainer.get(ExportersManagerModule.class).export(true)));
 		menu.addSeparator();
 
 		menu.addItem(createMenuItem("Settings...", Icons.SETTINGS, editor::showSettingsWindow));
@@ -19,6 +19,8 @@ package com.kotcrab.vis.editor.module.project;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.kotcrab.vis.editor.Editor;
 import com.kotcrab.vis.editor.assets.*;
 import com.kotcrab.vis.editor.assets.transaction.AssetProviderResult;
@@ -32,7 +34,6 @@ import com.kotcrab.vis.editor.module.editor.TabsModule;
 import com.kotcrab.vis.editor.module.editor.ToastModule;
 import com.kotcrab.vis.editor.module.project.AssetsUsages.SceneUsages;
 import com.kotcrab.vis.editor.module.scene.AssetsUsageAnalyzerSystem;
-import com.kotcrab.vis.editor.module.scene.SceneModuleContainer;
 import com.kotcrab.vis.editor.plugin.EditorEntitySupport;
 import com.kotcrab.vis.editor.scene.EditorScene;
 import com.kotcrab.vis.editor.ui.dialog.UnsavedResourcesDialog;
@@ -40,7 +41,6 @@ import com.kotcrab.vis.editor.ui.scene.SceneTab;
 import com.kotcrab.vis.editor.ui.tab.CloseTabWhenMovingResources;
 import com.kotcrab.vis.runtime.assets.VisAssetDescriptor;
 import com.kotcrab.vis.runtime.util.EntityEngine;
-import com.kotcrab.vis.runtime.util.EntityEngineConfiguration;
 import com.kotcrab.vis.ui.util.dialog.DialogUtils;
 import com.kotcrab.vis.ui.widget.tabbedpane.Tab;
 
@@ -58,6 +58,7 @@ public class AssetsAnalyzerModule extends ProjectModule {
 	@InjectModule private SceneTabsModule sceneTabsModule;
 	@InjectModule private QuickAccessModule quickAccessModule;
 	@InjectModule private SceneCacheModule sceneCache;
+	@InjectModule private AssetsUsageIndexModule usageIndex;
 
 	private Array<AssetDescriptorProvider> providers = new Array<>();
 	private Array<AssetTransactionGenerator> transactionsGens = new Array<>();
@@ -120,25 +121,27 @@ public class AssetsAnalyzerModule extends ProjectModule {
 		VisAssetDescriptor searchFor = provideDescriptor(file, path).descriptor;
 		AssetsUsages usages = new AssetsUsages(file);
 
+		ObjectMap<String, IntArray> indexedUsages = usageIndex.findUsages(searchFor);
+
 		for (FileHandle sceneFile : fileAccess.getSceneFiles()) {
-			EditorScene scene = sceneCache.get(sceneFile);
-			SceneTab sceneTab = sceneTabsModule.getTabByScene(scene);
-
-			EntityEngine engine;
-
-			//TODO: analyze only current opened tabs
-			if (sceneTab == null) {
-				//scene is not loaded, manually prepare engine and populate it
-				EntityEngineConfiguration config = new EntityEngineConfiguration();
-				SceneModuleContainer.createEssentialsSystems(config, scene.pixelsPerUnit);
-				engine = new EntityEngine(config);
-				SceneModuleContainer.populateEngine(engine, scene);
+			String scenePath = fileAccess.relativizeToAssetsFolder(sceneFile);
+			EditorScene openedScene = sceneTabsModule.getSceneByPath(scenePath);
+			SceneUsages sceneUsages;
+
+			if (openedScene == null) {
+				//index ids are the same as ids of entities after opening scene
+				IntArray ids = indexedUsages.get(scenePath);
+				if (ids == null) continue;
+
+				sceneUsages = new SceneUsages(sceneCache.get(sceneFile));
+				sceneUsages.ids.addAll(ids);
 			} else {
-				engine = sceneTab.getSceneMC().getEntityEngine();
+				//scenes opened in editor may be modified, index describes saved scene file
+				EntityEngine engine = sceneTabsModule.getTabByScene(openedScene).getSceneMC().getEntityEngine();
+				sceneUsages = new SceneUsages(openedScene);
+				engine.getSystem(AssetsUsageAnalyzerSystem.class).collectUsages(sceneUsages.ids, searchFor);
 			}
 
-			SceneUsages sceneUsages = new SceneUsages(scene);
-			engine.getSystem(AssetsUsageAnalyzerSystem.class).collectUsages(sceneUsages.ids, searchFor);
 			if (sceneUsages.ids.size > 0) usages.list.add(sceneUsages);
 		}
 
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.editor.module.project;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.kotcrab.vis.editor.module.InjectModule;
+import com.kotcrab.vis.editor.scene.SceneHeader;
+import com.kotcrab.vis.editor.util.DirectoryWatcher.WatchListener;
+import com.kotcrab.vis.runtime.assets.VisAssetDescriptor;
+
+/**
+ * Project wide index of assets used by scenes. Index stores {@link SceneHeader} of every scene along with modification time
+ * and length of scene file, it is saved in project module folder and reused when project is opened again. Scenes that
+ * were changed are reindexed from their headers on next query, so scene entities are decoded only if scene header is
+ * outdated as well.
+ * <p>
+ * Index describes saved scene files, scenes opened in editor may be different until they are saved.
+ * @author Kotcrab
+ */
+public class AssetsUsageIndexModule extends ProjectModule implements WatchListener {
+	@InjectModule private FileAccessModule fileAccess;
+	@InjectModule private SceneIOModule sceneIO;
+	@InjectModule private SceneCacheModule sceneCache;
+	@InjectModule private AssetsWatcherModule assetsWatcher;
+
+	private FileHandle indexFile;
+
+	/** Scene records by scene path relative to assets folder, null until index is loaded */
+	private ObjectMap<String, SceneRecord> records;
+	private boolean dirty;
+
+	@Override
+	public void init () {
+		indexFile = fileAccess.getModuleFolder(".assetsUsageIndex").child("index");
+		assetsWatcher.addListener(this);
+	}
+
+	@Override
+	public void dispose () {
+		assetsWatcher.removeListener(this);
+		saveIndex();
+	}
+
+	/**
+	 * Finds entities using given asset in all scenes of project, assets are compared using
+	 * {@link VisAssetDescriptor#compare(VisAssetDescriptor)}.
+	 * @return map of scene paths relative to assets folder and indexes of entity schemes using asset in that scene, see
+	 * {@link SceneHeader#getEntities(VisAssetDescriptor)}. Returned arrays must not be modified.
+	 */
+	public ObjectMap<String, IntArray> findUsages (VisAssetDescriptor asset) {
+		update();
+
+		ObjectMap<String, IntArray> usages = new ObjectMap<>();
+
+		for (SceneRecord record : records.values()) {
+			IntArray entities = record.header.getEntities(asset);
+			if (entities != null) usages.put(record.header.getPath(), entities);
+		}
+
+		return usages;
+	}
+
+	/** Reindexes scenes that were changed and removes scenes that no longer exist */
+	private void update () {
+		if (records == null) loadIndex();
+
+		ObjectSet<String> existingScenes = new ObjectSet<>();
+
+		for (FileHandle sceneFile : fileAccess.getSceneFiles()) {
+			String path = fileAccess.relativizeToAssetsFolder(sceneFile);
+			existingScenes.add(path);
+
+			SceneRecord record = records.get(path);
+			if (record != null && record.isValid(sceneFile)) continue;
+
+			record = new SceneRecord();
+			record.header = sceneCache.getHeader(sceneFile);
+			record.lastModified = sceneFile.lastModified();
+			record.length = sceneFile.length();
+			records.put(path, record);
+			dirty = true;
+		}
+
+		ObjectMap.Keys<String> keys = records.keys();
+		while (keys.hasNext()) {
+			if (existingScenes.contains(keys.next()) == false) {
+				keys.remove();
+				dirty = true;
+			}
+		}
+
+		saveIndex();
+	}
+
+	private void loadIndex () {
+		records = new ObjectMap<>();
+
+		Array<SceneRecord> savedRecords = sceneIO.loadObject(indexFile, Array.class);
+		if (savedRecords == null) return;
+
+		for (SceneRecord record : savedRecords) {
+			records.put(record.header.getPath(), record);
+		}
+	}
+
+	private void saveIndex () {
+		if (records == null || dirty == false) return;
+
+		sceneIO.saveObject(indexFile, records.values().toArray());
+		dirty = false;
+	}
+
+	@Override
+	public void fileChanged (FileHandle file) {
+		invalidate(file);
+	}
+
+	@Override
+	public void fileDeleted (FileHandle file) {
+		invalidate(file);
+	}
+
+	@Override
+	public void fileCreated (FileHandle file) {
+		invalidate(file);
+	}
+
+	private void invalidate (FileHandle file) {
+		if (records == null || file.extension().equals("scene") == false) return;
+		if (records.remove(fileAccess.relativizeToAssetsFolder(file)) != null) dirty = true;
+	}
+
+	/** Indexed scene header, serialized by Kryo */
+	public static class SceneRecord {
+		SceneHeader header;
+		long lastModified;
+		long length;
+
+		boolean isValid (FileHandle sceneFile) {
+			return lastModified == sceneFile.lastModified() && length == sceneFile.length();
+		}
+	}
+}
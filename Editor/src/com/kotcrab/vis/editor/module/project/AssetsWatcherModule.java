@@ -32,6 +32,8 @@ public class AssetsWatcherModule extends ProjectModule {
 		FileHandle assetsFolder = fileAccess.getAssetsFolder();
 
 		watcher = new DirectoryWatcher(assetsFolder.file().toPath());
+		//temporary files of saved scenes are moved over scene files right after they are written
+		watcher.setIgnoreFilter(SceneIOModule::isTemporarySceneFile);
 		watcher.start();
 	}
 
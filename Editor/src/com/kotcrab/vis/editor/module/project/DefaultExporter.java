@@ -19,14 +19,18 @@ package com.kotcrab.vis.editor.module.project;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.tools.texturepacker.TexturePacker;
 import com.badlogic.gdx.tools.texturepacker.TexturePacker.Settings;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.ObjectMap.Entry;
+import com.badlogic.gdx.utils.SerializationException;
 import com.kotcrab.vis.editor.Editor;
 import com.kotcrab.vis.editor.Log;
 import com.kotcrab.vis.editor.module.InjectModule;
 import com.kotcrab.vis.editor.module.editor.EditorSettingsIOModule;
 import com.kotcrab.vis.editor.module.editor.StatusBarModule;
 import com.kotcrab.vis.editor.module.editor.TabsModule;
+import com.kotcrab.vis.editor.module.project.ExportManifest.FileRecord;
 import com.kotcrab.vis.editor.plugin.ExporterPlugin;
 import com.kotcrab.vis.editor.scene.EditorScene;
 import com.kotcrab.vis.editor.scene.Layer;
@@ -34,22 +38,40 @@ import com.kotcrab.vis.editor.ui.dialog.AsyncTaskProgressDialog;
 import com.kotcrab.vis.editor.ui.dialog.DefaultExporterSettingsDialog;
 import com.kotcrab.vis.editor.ui.dialog.UnsavedResourcesDialog;
 import com.kotcrab.vis.editor.util.AsyncTask;
+import com.kotcrab.vis.runtime.data.ChunkData;
 import com.kotcrab.vis.runtime.data.LayerData;
 import com.kotcrab.vis.runtime.data.SceneData;
+import com.kotcrab.vis.runtime.scene.BinarySceneWriter;
+import com.kotcrab.vis.runtime.scene.SceneChunker;
 import com.kotcrab.vis.runtime.scene.SceneLoader;
-import org.apache.commons.io.FileUtils;
 
-import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Default VisEditor exporter, exports scenes to JSON format.
+ * Default VisEditor exporter, exports scenes to JSON or binary format. Textures packing, copying of assets directories and
+ * conversion of every scene are executed in parallel on exporter thread pool.
+ * <p>
+ * Quick export uses {@link ExportManifest} of previous export, textures are packed only if any texture was changed, only
+ * changed assets are copied and only changed scenes are exported. Outputs of removed files are deleted. Normal export
+ * deletes old output directory and exports everything.
  * @author Kotcrab
  */
 public class DefaultExporter implements ExporterPlugin {
 	public static final String SETTINGS_FILE_NAME = "defaultExporterSettings";
 	public static final String EXPORTER_UUID = "b8bd183c-1dc6-4ac5-9bbe-a4ba86a61b95";
 
+	/** Changed when output of exporter changes, forces normal export when quick export is requested */
+	private static final int MANIFEST_VERSION = 1;
+
+	/** Count of scenes loaded in single OpenGL thread round trip */
+	private static final int SCENE_LOAD_BATCH_SIZE = 8;
+
 	private Project project;
 	private DefaultExporterSettings settings;
 
@@ -61,12 +83,9 @@ public class DefaultExporter implements ExporterPlugin {
 	@InjectModule private SceneCacheModule sceneCache;
 
 	private FileHandle visAssetsDir;
-
+	private FileHandle manifestFile;
 
 	private Settings texturePackerSettings;
-	private boolean firstExportDone;
-
-	private Json json;
 
 	@Override
 	public void init (Project project) {
@@ -74,13 +93,12 @@ public class DefaultExporter implements ExporterPlugin {
 		settings = settingsIO.load(SETTINGS_FILE_NAME, DefaultExporterSettings.class);
 
 		visAssetsDir = fileAccess.getAssetsFolder();
+		manifestFile = fileAccess.getModuleFolder(".defaultExporter").child("manifest.json");
 
 		texturePackerSettings = new Settings();
 		texturePackerSettings.combineSubdirectories = true;
 		texturePackerSettings.silent = true;
 		texturePackerSettings.useIndexes = false;
-
-		json = SceneLoader.getJson();
 	}
 
 	@Override
@@ -95,7 +113,7 @@ public class DefaultExporter implements ExporterPlugin {
 
 	@Override
 	public boolean isQuickExportSupported () {
-		return false;
+		return true;
 	}
 
 	@Override
@@ -117,150 +135,411 @@ public class DefaultExporter implements ExporterPlugin {
 	}
 
 	private void beforeExport (boolean quick) {
-		json.setUsePrototypes(settings.skipDefaultValues);
+		if (project instanceof ProjectLibGDX || project instanceof ProjectGeneric) {
+			exportProject(quick);
+			return;
+		}
 
-		if (firstExportDone == false && quick)
-			Log.info("Requested quick export but normal export hasn't been done since editor launch, performing normal export.");
+		throw new UnsupportedOperationException("Not supported project type: " + project.getClass());
+	}
 
-		if (firstExportDone == false || quick == false)
-			doExport();
-		else
-			doExport(); //TODO do quick export
+	private void exportProject (boolean quick) {
+		ExportManifest previousManifest = null;
+
+		if (quick) {
+			previousManifest = loadManifest();
+
+			if (previousManifest == null)
+				Log.info("Requested quick export but previous export is missing or was done using different settings, performing normal export.");
+		}
 
-		firstExportDone = true;
+		ExportAsyncTask exportTask = new ExportAsyncTask(previousManifest);
+		Editor.instance.getStage().addActor(new AsyncTaskProgressDialog("Exporting", exportTask).fadeIn());
 	}
 
-	private void doExport () {
-		if (project instanceof ProjectLibGDX || project instanceof ProjectGeneric) {
-			exportProject();
-			return;
+	/** @return manifest of previous export or null if it does not exist or quick export can't be based on it */
+	private ExportManifest loadManifest () {
+		if (manifestFile.exists() == false) return null;
+
+		ExportManifest manifest;
+		try {
+			manifest = new Json().fromJson(ExportManifest.class, manifestFile);
+		} catch (SerializationException e) {
+			Log.exception(e);
+			return null;
 		}
 
-		throw new UnsupportedOperationException("Not supported project type: " + project.getClass());
+		if (getSettingsFingerprint().equals(manifest.settings) == false) return null;
+		if (project.getAssetOutputDirectory().path().equals(manifest.outputDirectory) == false) return null;
+		return manifest;
 	}
 
-	private void exportProject () {
-		ExportAsyncTask exportTask = new ExportAsyncTask();
-		Editor.instance.getStage().addActor(new AsyncTaskProgressDialog("Exporting", exportTask).fadeIn());
+	/** @return string describing all settings that affect export output */
+	private String getSettingsFingerprint () {
+		return "version=" + MANIFEST_VERSION
+				+ ";skipDefaultValues=" + settings.skipDefaultValues
+				+ ";binaryScenes=" + settings.binaryScenes
+				+ ";usePrefabs=" + settings.usePrefabs
+				+ ";chunkSize=" + settings.chunkSize
+				+ ";combineSubdirectories=" + texturePackerSettings.combineSubdirectories
+				+ ";useIndexes=" + texturePackerSettings.useIndexes;
 	}
 
 	private class ExportAsyncTask extends AsyncTask {
-		int step;
+		AtomicInteger step = new AtomicInteger();
 		int totalSteps;
 
 		FileHandle outAssetsDir;
 
-		EditorScene scene;
+		/** Manifest of previous export, empty if normal export is performed */
+		final ExportManifest previous;
+		final boolean quick;
+		/** Manifest of this export, modified by exporter threads only inside synchronized block */
+		ExportManifest manifest;
 
-		public ExportAsyncTask () {
+		Array<String> timings = new Array<>();
+
+		/** Json, writer and prefab extractor are not thread safe, every exporter thread uses it's own converter */
+		ThreadLocal<SceneConverter> sceneConverters = ThreadLocal.withInitial(SceneConverter::new);
+
+		/** @param previous manifest of previous export, if null normal export is performed */
+		public ExportAsyncTask (ExportManifest previous) {
 			super("ProjectExporter");
+			this.quick = previous != null;
+			this.previous = quick ? previous : new ExportManifest();
 		}
 
 		@Override
 		public void execute () {
 			setMessage("Preparing for export...");
-			totalSteps = calculateSteps();
+			long exportStart = System.nanoTime();
+
+			outAssetsDir = project.getAssetOutputDirectory();
+			manifest = new ExportManifest(getSettingsFingerprint(), outAssetsDir.path());
+			manifestFile.delete(); //if export fails output is in unknown state and next quick export can't be based on old manifest
 
-			cleanOldAssets();
-			packageTextures();
-			copyAssets();
-			exportScenes(this, visAssetsDir.child("scene"), outAssetsDir.child("scene"));
+			Array<FileHandle> assetsDirs = getAssetsDirectories();
+			Array<FileHandle> sceneFiles = new Array<>();
+			collectScenes(visAssetsDir.child("scene"), sceneFiles);
+
+			totalSteps = 5 + assetsDirs.size + sceneFiles.size;
+
+			if (quick)
+				nextStep();
+			else
+				runStep("Cleaning old assets", this::cleanOldAssets);
 
+			Array<FileHandle> changedSceneFiles = new Array<>();
+			runStep("Finding changed scenes", () -> findChangedFiles(sceneFiles, changedSceneFiles));
+
+			ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "ProjectExporter-Worker");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			Array<Future<?>> futures = new Array<>();
+			futures.add(executor.submit(() -> runStep("Packaging textures", this::packageTextures)));
+
+			for (FileHandle dir : assetsDirs) {
+				futures.add(executor.submit(() -> runStep("Copying assets directory: " + dir.name(), () -> copyAssetsDirectory(dir))));
+			}
+
+			for (int i = changedSceneFiles.size; i < sceneFiles.size; i++)
+				nextStep(); //unchanged scenes
+
+			try {
+				exportScenes(changedSceneFiles, executor);
+
+				for (Future<?> future : futures)
+					future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Export was interrupted", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Export failed: " + e.getCause().getMessage(), e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+
+			runStep("Removing outdated files", this::removeOutdatedOutputs);
+			new Json().toJson(manifest, manifestFile);
+
+			long exportTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - exportStart);
+			timings.forEach(Log::info);
+			Log.info((quick ? "Quick export" : "Export") + " finished in " + exportTime + " ms");
+			statusBar.setText((quick ? "Quick export" : "Export") + " finished in " + exportTime + " ms");
+		}
+
+		/**
+		 * Loads scenes on OpenGL thread in batches of {@link #SCENE_LOAD_BATCH_SIZE} and converts them on exporter threads. Next
+		 * batch is loaded while previous one is converted, exporter references at most two batches at once so scenes are
+		 * released after they were converted.
+		 */
+		private void exportScenes (Array<FileHandle> sceneFiles, ExecutorService executor) throws InterruptedException, ExecutionException {
+			Array<Future<?>> convertedBatch = new Array<>();
+			long loadTime = 0;
+
+			for (int start = 0; start < sceneFiles.size; start += SCENE_LOAD_BATCH_SIZE) {
+				int from = start;
+				int to = Math.min(start + SCENE_LOAD_BATCH_SIZE, sceneFiles.size);
+				Array<EditorScene> batch = new Array<>(to - from);
+
+				setMessage("Loading scenes");
+				long loadStart = System.nanoTime();
+				executeOnOpenGL(() -> {
+					for (int i = from; i < to; i++)
+						batch.add(sceneCache.get(sceneFiles.get(i)));
+				});
+				loadTime += System.nanoTime() - loadStart;
+
+				waitFor(convertedBatch);
+
+				for (EditorScene scene : batch) {
+					convertedBatch.add(executor.submit(() -> runStep("Exporting scene: " + scene.path, () -> exportScene(scene))));
+				}
+			}
+
+			waitFor(convertedBatch);
+			recordTime("Loading scenes", loadTime);
 			nextStep();
-			statusBar.setText("Export finished");
+		}
+
+		/** Waits until all futures are done and clears array */
+		private void waitFor (Array<Future<?>> futures) throws InterruptedException, ExecutionException {
+			for (Future<?> future : futures)
+				future.get();
+
+			futures.clear();
+		}
+
+		/** Executes step on calling thread and records it's time */
+		private void runStep (String name, Runnable runnable) {
+			setMessage(name);
+			long start = System.nanoTime();
+			runnable.run();
+			recordTime(name, System.nanoTime() - start);
+			nextStep();
+		}
+
+		private void recordTime (String name, long nanoTime) {
+			long time = TimeUnit.NANOSECONDS.toMillis(nanoTime);
+
+			synchronized (timings) {
+				timings.add(name + " took " + time + " ms");
+			}
 		}
 
 		private void nextStep () {
-			setProgressPercent(++step * 100 / totalSteps);
+			setProgressPercent(step.incrementAndGet() * 100 / totalSteps);
+		}
+
+		/** @return directories that are copied to output, gfx and scene dirs and empty folders are excluded */
+		private Array<FileHandle> getAssetsDirectories () {
+			Array<FileHandle> dirs = new Array<>();
+
+			for (FileHandle file : visAssetsDir.list()) {
+				if (file.isDirectory() == false) continue;
+				if (file.list().length == 0) continue;
+				if (file.name().equals("gfx") || file.name().equals("scene")) continue;
+
+				dirs.add(file);
+			}
+
+			return dirs;
+		}
+
+		private void collectScenes (FileHandle sceneDir, Array<FileHandle> sceneFiles) {
+			for (FileHandle file : sceneDir.list()) {
+				if (file.isDirectory())
+					collectScenes(file, sceneFiles);
+				else if (file.extension().equals("scene"))
+					sceneFiles.add(file);
+				else if (SceneIOModule.isTemporarySceneFile(file.file().toPath()) == false)
+					Log.warn("Unknown file in 'scene' directory: " + file.path());
+			}
 		}
 
-		private int calculateSteps () {
-			int steps = 0;
-			steps++; //clean old assets, new dirs
-			steps++; //package textures
+		private void collectFiles (FileHandle dir, Array<FileHandle> files) {
+			for (FileHandle file : dir.list()) {
+				if (file.isDirectory())
+					collectFiles(file, files);
+				else
+					files.add(file);
+			}
+		}
+
+		/**
+		 * Creates manifest records of files. Files that were changed since previous export or which outputs are missing are
+		 * added to changed array, records of unchanged files keep outputs from previous export.
+		 * @return true if any file was changed
+		 */
+		private boolean findChangedFiles (Array<FileHandle> files, Array<FileHandle> changed) {
+			boolean anyChanged = false;
+
+			for (FileHandle file : files) {
+				String path = fileAccess.relativizeToAssetsFolder(file);
+				FileRecord previousRecord = previous.files.get(path);
+				FileRecord record = ExportManifest.createRecord(file, previousRecord);
+
+				if (record.isSameContent(previousRecord) && outputsExist(previousRecord.outputs))
+					record.outputs.addAll(previousRecord.outputs);
+				else {
+					changed.add(file);
+					anyChanged = true;
+				}
+
+				synchronized (manifest) {
+					manifest.files.put(path, record);
+				}
+			}
 
-			int assetsDirCounter = visAssetsDir.list(file -> {
-				//exclude gfx and scene dir, exclude empty folders
-				return file.isDirectory() && file.list().length > 0 && !(file.getName().equals("gfx") || file.getName().equals("scene"));
-			}).length;
-			steps += assetsDirCounter;
+			return anyChanged;
+		}
 
-			String[] ext = {"scene"};
-			int sceneCounter = FileUtils.listFiles(visAssetsDir.child("scene").file(), ext, true).size();
-			steps += sceneCounter;
+		private boolean outputsExist (Array<String> outputs) {
+			for (String output : outputs) {
+				if (outAssetsDir.child(output).exists() == false) return false;
+			}
 
-			return steps;
+			return true;
 		}
 
 		private void cleanOldAssets () {
-			setMessage("Cleaning old assets");
-			outAssetsDir = project.getAssetOutputDirectory();
-
 			outAssetsDir.deleteDirectory();
 			outAssetsDir.mkdirs();
 
 			outAssetsDir.child("gfx").mkdirs();
 			outAssetsDir.child("scene").mkdirs();
-			nextStep();
 		}
 
 		private void packageTextures () {
-			setMessage("Packaging textures");
-			TexturePacker.process(texturePackerSettings, visAssetsDir.child("gfx").path(), outAssetsDir.child("gfx").path(), "textures");
-			nextStep();
+			FileHandle gfxDir = visAssetsDir.child("gfx");
+			FileHandle outGfxDir = outAssetsDir.child("gfx");
+
+			Array<FileHandle> textures = new Array<>();
+			collectFiles(gfxDir, textures);
+
+			boolean changed = findChangedFiles(textures, new Array<>());
+			if (quick && changed == false && textures.size == countPreviousFiles("gfx/") && outputsExist(previous.textureOutputs)) {
+				manifest.textureOutputs.addAll(previous.textureOutputs);
+				return;
+			}
+
+			for (String output : previous.textureOutputs)
+				outAssetsDir.child(output).delete();
+
+			TexturePacker.process(texturePackerSettings, gfxDir.path(), outGfxDir.path(), "textures");
+
+			Array<FileHandle> outputs = new Array<>();
+			collectFiles(outGfxDir, outputs);
+			for (FileHandle output : outputs)
+				manifest.textureOutputs.add(relativizeToOutput(output));
 		}
 
-		private void copyAssets () {
-			for (FileHandle file : visAssetsDir.list()) {
-				if (file.isDirectory() == false) continue;
-				if (file.list().length == 0) continue;
-				if (file.name().equals("gfx") || file.name().equals("scene")) continue;
+		private int countPreviousFiles (String pathPrefix) {
+			int count = 0;
+
+			for (String path : previous.files.keys()) {
+				if (path.startsWith(pathPrefix)) count++;
+			}
 
-				setMessage("Copying assets directory: " + file.name());
+			return count;
+		}
+
+		private void copyAssetsDirectory (FileHandle dir) {
+			Array<FileHandle> files = new Array<>();
+			collectFiles(dir, files);
+
+			Array<FileHandle> changed = new Array<>();
+			findChangedFiles(files, changed);
+
+			for (FileHandle file : changed) {
+				String path = fileAccess.relativizeToAssetsFolder(file);
+				file.copyTo(outAssetsDir.child(path));
 
-				try {
-					FileUtils.copyDirectory(file.file(), outAssetsDir.child(file.name()).file());
-				} catch (IOException e) {
-					Log.exception(e);
+				synchronized (manifest) {
+					manifest.files.get(path).outputs.add(path);
 				}
-				nextStep();
 			}
 		}
 
-		private void exportScenes (ExportAsyncTask task, FileHandle sceneDir, FileHandle outDir) {
-			outDir.mkdirs();
+		private void exportScene (EditorScene scene) {
+			FileHandle outFile = outAssetsDir.child(scene.path);
+			outFile.parent().mkdirs();
 
-			scene = null;
+			Array<FileHandle> outputs = sceneConverters.get().export(scene, outFile);
 
-			for (final FileHandle file : sceneDir.list()) {
-				if (file.isDirectory()) exportScenes(task, file, outDir.child(file.name()));
+			synchronized (manifest) {
+				FileRecord record = manifest.files.get(scene.path);
+				for (FileHandle output : outputs)
+					record.outputs.add(relativizeToOutput(output));
+			}
+		}
 
-				if (file.extension().equals("scene")) {
-					task.setMessage("Exporting scene: " + file.name());
+		/** Deletes outputs of previous export that were not created by this export */
+		private void removeOutdatedOutputs () {
+			for (Entry<String, FileRecord> entry : previous.files) {
+				FileRecord record = manifest.files.get(entry.key);
 
-					executeOnOpenGL(() -> scene = sceneCache.get(file));
+				for (String output : entry.value.outputs) {
+					if (record == null || record.outputs.contains(output, false) == false)
+						outAssetsDir.child(output).delete();
+				}
+			}
+		}
 
-					SceneData sceneData = new SceneData();
+		private String relativizeToOutput (FileHandle file) {
+			return outAssetsDir.file().toPath().relativize(file.file().toPath()).toString().replace('\\', '/');
+		}
+	}
 
-					sceneData.viewport = scene.viewport;
-					sceneData.width = scene.width;
-					sceneData.height = scene.height;
-					sceneData.pixelsPerUnit = scene.pixelsPerUnit;
+	private class SceneConverter {
+		final Json json;
+		final BinarySceneWriter binaryWriter;
+		final PrefabExtractor prefabExtractor;
 
-					sceneData.groupIds = new IntMap<>(scene.getGroups());
+		SceneConverter () {
+			json = SceneLoader.getJson();
+			json.setUsePrototypes(settings.skipDefaultValues);
+			binaryWriter = new BinarySceneWriter(json);
+			prefabExtractor = new PrefabExtractor(json);
+		}
 
-					for (Layer layer : scene.getLayers()) {
-						sceneData.layers.add(new LayerData(layer.cordsSystem, layer.name, layer.id));
-					}
+		/** @return files written by converter */
+		Array<FileHandle> export (EditorScene scene, FileHandle outFile) {
+			Array<FileHandle> outputs = new Array<>();
+			SceneData sceneData = new SceneData();
 
-					scene.getSchemes().forEach(scheme -> sceneData.entities.add(scheme.toData()));
+			sceneData.viewport = scene.viewport;
+			sceneData.width = scene.width;
+			sceneData.height = scene.height;
+			sceneData.pixelsPerUnit = scene.pixelsPerUnit;
 
-					json.toJson(sceneData, outDir.child(file.name()));
-					task.nextStep();
+			sceneData.groupIds = new IntMap<>(scene.getGroups());
 
-				} else
-					Log.warn("Unknown file in 'scene' directory: " + file.path());
+			for (Layer layer : scene.getLayers()) {
+				sceneData.layers.add(new LayerData(layer.cordsSystem, layer.name, layer.id));
 			}
+
+			scene.getSchemes().forEach(scheme -> sceneData.entities.add(scheme.toData()));
+			if (settings.usePrefabs) prefabExtractor.extract(sceneData);
+
+			if (settings.chunkSize > 0) {
+				for (ChunkData chunk : SceneChunker.split(sceneData, settings.chunkSize)) {
+					FileHandle chunkFile = outFile.sibling(SceneChunker.getChunkPath(outFile.name(), chunk.x, chunk.y));
+					json.toJson(chunk, chunkFile);
+					outputs.add(chunkFile);
+				}
+			}
+
+			if (settings.binaryScenes)
+				binaryWriter.write(sceneData, outFile);
+			else
+				json.toJson(sceneData, outFile);
+
+			outputs.add(outFile);
+			return outputs;
 		}
 	}
 }
@@ -21,4 +21,8 @@ import com.esotericsoftware.kryo.serializers.TaggedFieldSerializer.Tag;
 /** @author Kotcrab */
 public class DefaultExporterSettings {
 	@Tag(0) public boolean skipDefaultValues = true;
+	@Tag(1) public boolean binaryScenes = false;
+	@Tag(2) public boolean usePrefabs = true;
+	/** Size of streaming chunks in world units, 0 if scenes shouldn't be split into chunks */
+	@Tag(3) public float chunkSize = 0;
 }
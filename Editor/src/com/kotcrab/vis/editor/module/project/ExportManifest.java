@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.editor.module.project;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Describes output of last export, used by {@link DefaultExporter} for quick export. For every exported source file manifest
+ * stores it's modification time, length, content hash and output files. Content is hashed only if modification time or
+ * length changed, so touched but not modified files are not exported again. Serialized by Json.
+ * @author Kotcrab
+ */
+class ExportManifest {
+	/** Exporter and texture packer settings used for export, if they are different full export is required */
+	String settings;
+	String outputDirectory;
+
+	/** Records of source files by path relative to assets folder */
+	ObjectMap<String, FileRecord> files = new ObjectMap<>();
+	/** Files created by texture packer, relative to output directory */
+	Array<String> textureOutputs = new Array<>();
+
+	ExportManifest () {
+	}
+
+	ExportManifest (String settings, String outputDirectory) {
+		this.settings = settings;
+		this.outputDirectory = outputDirectory;
+	}
+
+	/**
+	 * Creates record of source file, hash from previous record is reused if file modification time and length didn't change.
+	 * @param previous record of file from previous export, may be null
+	 */
+	static FileRecord createRecord (FileHandle file, FileRecord previous) {
+		FileRecord record = new FileRecord();
+		record.lastModified = file.lastModified();
+		record.length = file.length();
+
+		if (previous != null && previous.lastModified == record.lastModified && previous.length == record.length)
+			record.hash = previous.hash;
+		else
+			record.hash = hash(file);
+
+		return record;
+	}
+
+	private static String hash (FileHandle file) {
+		try (InputStream input = file.read()) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			byte[] buffer = new byte[8192];
+
+			int read;
+			while ((read = input.read(buffer)) != -1)
+				digest.update(buffer, 0, read);
+
+			StringBuilder builder = new StringBuilder();
+			for (byte b : digest.digest())
+				builder.append(String.format("%02x", b));
+
+			return builder.toString();
+		} catch (IOException | NoSuchAlgorithmException e) {
+			throw new GdxRuntimeException("Error computing hash of file: " + file.path(), e);
+		}
+	}
+
+	static class FileRecord {
+		long lastModified;
+		long length;
+		String hash;
+		/** Files created from this source, relative to output directory */
+		Array<String> outputs = new Array<>();
+
+		/** @return true if content of source file is the same as when previous record was created */
+		boolean isSameContent (FileRecord previous) {
+			return previous != null && hash.equals(previous.hash);
+		}
+	}
+}
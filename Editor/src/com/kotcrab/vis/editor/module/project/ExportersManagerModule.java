@@ -47,6 +47,7 @@ public class ExportersManagerModule extends ProjectModule {
 	}
 
 	public void export (boolean quickExport) {
-		exporters.get(exportSettings.getCurrentExporterUUID()).export(quickExport);
+		ExporterPlugin exporter = exporters.get(exportSettings.getCurrentExporterUUID());
+		exporter.export(quickExport && exporter.isQuickExportSupported());
 	}
 }
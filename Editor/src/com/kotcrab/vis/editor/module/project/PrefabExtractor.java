@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.editor.module.project;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.kotcrab.vis.runtime.data.EntityData;
+import com.kotcrab.vis.runtime.data.SceneData;
+import com.kotcrab.vis.runtime.util.PrefabUtils;
+
+import java.util.Comparator;
+
+/**
+ * Replaces entities that differ only by position and unsupported components (such as ID) with prefab instances.
+ * Prefab is created only if it would be used by at least {@link #MIN_INSTANCES} entities.
+ * @author Kotcrab
+ */
+class PrefabExtractor {
+	private static final int MIN_INSTANCES = 2;
+
+	private static final Comparator<Component> CLASS_NAME_COMPARATOR = (c1, c2) -> c1.getClass().getName().compareTo(c2.getClass().getName());
+
+	private final Json json;
+
+	/** @param json used to compare components */
+	public PrefabExtractor (Json json) {
+		this.json = json;
+	}
+
+	public void extract (SceneData sceneData) {
+		ObjectMap<String, Candidate> candidates = new ObjectMap<>();
+		Array<Candidate> entityCandidates = new Array<>(sceneData.entities.size);
+
+		for (EntityData entityData : sceneData.entities) {
+			Candidate candidate = createCandidate(entityData);
+			if (candidate == null) {
+				entityCandidates.add(null);
+				continue;
+			}
+
+			String key = json.toJson(candidate.prefabComponents);
+			Candidate group = candidates.get(key);
+
+			if (group == null) {
+				candidates.put(key, candidate);
+				group = candidate;
+			}
+
+			group.instances++;
+			candidate.group = group;
+			entityCandidates.add(candidate);
+		}
+
+		for (int i = 0; i < sceneData.entities.size; i++) {
+			Candidate candidate = entityCandidates.get(i);
+			if (candidate == null || candidate.group.instances < MIN_INSTANCES) continue;
+
+			Candidate group = candidate.group;
+			if (group.prefabIndex == -1) {
+				group.prefabIndex = sceneData.prefabs.size;
+				sceneData.prefabs.add(new EntityData(group.prefabComponents));
+			}
+
+			sceneData.entities.set(i, new EntityData(group.prefabIndex, candidate.x, candidate.y,
+					candidate.overrides.size == 0 ? null : candidate.overrides));
+		}
+	}
+
+	/** @return candidate for prefab instance or null if entity can't be prefab instance */
+	private Candidate createCandidate (EntityData entityData) {
+		if (entityData.isPrefabInstance()) return null;
+
+		Candidate candidate = new Candidate();
+		Component positioned = null;
+
+		for (Component component : entityData.components) {
+			Class<? extends Component> type = component.getClass();
+
+			if (PrefabUtils.isSupported(type) == false) {
+				candidate.overrides.add(component);
+				continue;
+			}
+
+			if (PrefabUtils.isPositioned(type)) {
+				if (positioned != null) return null; //entity with multiple positioned components is not supported
+				positioned = component;
+				candidate.x = PrefabUtils.getX(component);
+				candidate.y = PrefabUtils.getY(component);
+				candidate.prefabComponents.add(PrefabUtils.instantiate(component, 0, 0));
+			} else
+				candidate.prefabComponents.add(component);
+		}
+
+		if (positioned == null) return null;
+
+		candidate.prefabComponents.sort(CLASS_NAME_COMPARATOR);
+		return candidate;
+	}
+
+	private static class Candidate {
+		final Array<Component> prefabComponents = new Array<>();
+		final Array<Component> overrides = new Array<>();
+		float x, y;
+
+		Candidate group;
+		int instances;
+		int prefabIndex = -1;
+	}
+}
@@ -20,29 +20,103 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.kotcrab.vis.editor.module.InjectModule;
 import com.kotcrab.vis.editor.scene.EditorScene;
+import com.kotcrab.vis.editor.scene.SceneHeader;
 import com.kotcrab.vis.editor.util.DirectoryWatcher.WatchListener;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
 /**
- * Caches loaded scenes, so only one instance of each scene is loaded in editor.
+ * Caches loaded scenes, so only one instance of each scene is loaded in editor. Scenes that are not opened in editor are
+ * evicted in least recently used order when size of cached scene files exceeds {@link #MAX_CACHE_SIZE}, and when scene file
+ * was changed outside of editor.
+ * <p>
+ * Scene headers are cached separately and can be retrieved using {@link #getHeader(FileHandle)} without loading scene. Cached
+ * header is used only while modification time and length of scene file didn't change.
  * @author Kotcrab
  */
 public class SceneCacheModule extends ProjectModule implements WatchListener {
+	/** Limit of summed size of cached scene files, loaded scene uses more memory than it's file */
+	private static final long MAX_CACHE_SIZE = 32 * 1024 * 1024;
+
 	@InjectModule private TextureCacheModule textureCache;
 	@InjectModule private ParticleCacheModule particleCache;
 	@InjectModule private SceneIOModule sceneIO;
+	@InjectModule private SceneTabsModule sceneTabsModule;
 	@InjectModule private AssetsWatcherModule assetsWatcherModule;
 
-	private ObjectMap<FileHandle, EditorScene> scenes = new ObjectMap<>();
+	private LinkedHashMap<FileHandle, CacheEntry> scenes = new LinkedHashMap<>(16, 0.75f, true);
+	private long cacheSize;
+
+	private ObjectMap<FileHandle, HeaderEntry> headers = new ObjectMap<>();
 
 	public EditorScene get (FileHandle fullPath) {
-		EditorScene scene = scenes.get(fullPath);
+		CacheEntry entry = scenes.get(fullPath);
+
+		if (entry == null) {
+			entry = new CacheEntry(sceneIO.load(fullPath), fullPath.length());
+			scenes.put(fullPath, entry);
+			cacheSize += entry.size;
+			evict(entry);
+		}
+
+		return entry.scene;
+	}
+
+	/**
+	 * Returns header of scene, header is read from scene header file. If header file is outdated scene is loaded and new
+	 * header is saved.
+	 */
+	public SceneHeader getHeader (FileHandle fullPath) {
+		sceneIO.waitForPendingSaves();
+
+		long lastModified = fullPath.lastModified();
+		long length = fullPath.length();
+
+		HeaderEntry entry = headers.get(fullPath);
+		if (entry != null && entry.lastModified == lastModified && entry.length == length) return entry.header;
 
-		if (scene == null) {
-			scene = sceneIO.load(fullPath);
-			scenes.put(fullPath, scene);
+		SceneHeader header = sceneIO.loadHeader(fullPath);
+
+		if (header == null) {
+			header = new SceneHeader(get(fullPath));
+			sceneIO.saveHeader(fullPath, header);
 		}
 
-		return scene;
+		headers.put(fullPath, new HeaderEntry(header, lastModified, length));
+		return header;
+	}
+
+	/**
+	 * Marks cached scene as modified without saving it to file. Modified scene is never evicted from cache, so changes are
+	 * not lost.
+	 */
+	public void markModified (FileHandle fullPath) {
+		CacheEntry entry = scenes.get(fullPath);
+		if (entry != null) entry.modified = true;
+	}
+
+	/** @return true if scene is cached and was modified, see {@link #markModified(FileHandle)} */
+	public boolean isModified (FileHandle fullPath) {
+		CacheEntry entry = scenes.get(fullPath);
+		return entry != null && entry.modified;
+	}
+
+	/** @param retained entry that was just loaded and will be returned, it can't be evicted because its tab doesn't exist yet */
+	private void evict (CacheEntry retained) {
+		Iterator<CacheEntry> it = scenes.values().iterator();
+
+		while (cacheSize > MAX_CACHE_SIZE && it.hasNext()) {
+			CacheEntry entry = it.next();
+			if (entry == retained || isEvictable(entry) == false) continue;
+
+			it.remove();
+			cacheSize -= entry.size;
+		}
+	}
+
+	private boolean isEvictable (CacheEntry entry) {
+		return entry.modified == false && sceneTabsModule.getTabByScene(entry.scene) == null;
 	}
 
 	@Override
@@ -55,8 +129,51 @@ public class SceneCacheModule extends ProjectModule implements WatchListener {
 		assetsWatcherModule.removeListener(this);
 	}
 
+	@Override
+	public void fileChanged (FileHandle file) {
+		headers.remove(file);
+
+		CacheEntry entry = scenes.get(file);
+		if (entry != null && isEvictable(entry)) remove(file);
+	}
+
+	/** File replaced by rename (for example scene saved atomically) is reported as created instead of changed */
+	@Override
+	public void fileCreated (FileHandle file) {
+		fileChanged(file);
+	}
+
 	@Override
 	public void fileDeleted (FileHandle file) {
-		scenes.remove(file);
+		headers.remove(file);
+		remove(file);
+	}
+
+	private void remove (FileHandle file) {
+		CacheEntry entry = scenes.remove(file);
+		if (entry != null) cacheSize -= entry.size;
+	}
+
+	private static class HeaderEntry {
+		final SceneHeader header;
+		final long lastModified;
+		final long length;
+
+		HeaderEntry (SceneHeader header, long lastModified, long length) {
+			this.header = header;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+	}
+
+	private static class CacheEntry {
+		final EditorScene scene;
+		final long size;
+		boolean modified;
+
+		CacheEntry (EditorScene scene, long size) {
+			this.scene = scene;
+			this.size = size;
+		}
 	}
 }
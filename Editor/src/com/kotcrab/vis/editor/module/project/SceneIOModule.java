@@ -20,6 +20,7 @@ import com.artemis.Component;
 import com.artemis.Entity;
 import com.artemis.utils.Bag;
 import com.artemis.utils.ImmutableBag;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.loaders.BitmapFontLoader.BitmapFontParameter;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
@@ -32,6 +33,7 @@ import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.IntMap;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Kryo.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
@@ -43,7 +45,9 @@ import com.kotcrab.vis.editor.module.project.SupportModule.SupportSerializerDesc
 import com.kotcrab.vis.editor.plugin.PluginKryoSerializer;
 import com.kotcrab.vis.editor.scene.EditorScene;
 import com.kotcrab.vis.editor.scene.Layer;
+import com.kotcrab.vis.editor.scene.SceneHeader;
 import com.kotcrab.vis.editor.serializer.*;
+import com.kotcrab.vis.editor.util.ProcessingQueue;
 import com.kotcrab.vis.editor.util.vis.ProtoEntity;
 import com.kotcrab.vis.runtime.assets.*;
 import com.kotcrab.vis.runtime.component.*;
@@ -52,13 +56,32 @@ import com.kotcrab.vis.runtime.scene.SceneViewport;
 import com.kotcrab.vis.runtime.util.EntityEngine;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 
+import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.UUID;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
 /**
  * Allows to load VisEditor scenes. This API should not be used directly. See {@link SceneCacheModule}
+ * <p>
+ * Scenes are saved atomically, scene is serialized into temporary file which replaces scene file only after it was
+ * completely written. {@link #saveAsync(EditorScene, boolean, boolean, SceneSaveListener)} writes file on separate thread.
+ * Temporary files left after editor was terminated during save are deleted when project is loaded.
+ * Together with scene file {@link SceneHeader} is written, it can be read using {@link #loadHeader(FileHandle)} without
+ * decoding scene entities.
  * @author Kotcrab
  * @see SceneCacheModule
  */
@@ -67,6 +90,11 @@ public class SceneIOModule extends ProjectModule {
 	public static final int KRYO_PLUGINS_RESERVED_ID_BEGIN = 401;
 	public static final int KRYO_PLUGINS_RESERVED_ID_END = 800;
 
+	private static final int SAVE_BUFFER_SIZE = 1024 * 1024;
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+	/** Changed when fields of {@link SceneHeader} change, outdated header files are recreated */
+	private static final int HEADER_VERSION = 1;
+
 	private Kryo kryo;
 
 	@InjectModule private FileAccessModule fileAccessModule;
@@ -79,13 +107,28 @@ public class SceneIOModule extends ProjectModule {
 
 	private FileHandle assetsFolder;
 	private FileHandle sceneBackupFolder;
+	private FileHandle sceneHeaderFolder;
 
 	private Array<EntityComponentSerializer> entityComponentSerializers = new Array<>();
 
+	private ProcessingQueue<SaveJob> saveQueue;
+	private final Object pendingSavesLock = new Object();
+	private int pendingSaves;
+
 	@Override
 	public void init () {
 		assetsFolder = fileAccessModule.getAssetsFolder();
 		sceneBackupFolder = fileAccessModule.getModuleFolder(".sceneBackup");
+		sceneHeaderFolder = fileAccessModule.getModuleFolder(".sceneHeader");
+
+		deleteTemporaryFiles(fileAccessModule.getSceneFolder());
+
+		saveQueue = new ProcessingQueue<SaveJob>("SceneSave") {
+			@Override
+			protected void processQueueElement (SaveJob job) {
+				processSaveJob(job);
+			}
+		};
 
 		kryo = new Kryo();
 		kryo.setClassLoader(Thread.currentThread().getContextClassLoader());
@@ -123,6 +166,8 @@ public class SceneIOModule extends ProjectModule {
 		kryo.register(BitmapFontParameter.class, 35);
 		kryo.register(TextureFilter.class, 36);
 		kryo.register(LayerCordsSystem.class, 37);
+		kryo.register(SceneHeader.class, 38);
+		kryo.register(AssetsUsageIndexModule.SceneRecord.class, 39);
 
 		kryo.register(PathAsset.class, 61);
 		kryo.register(TextureRegionAsset.class, 62);
@@ -207,6 +252,8 @@ public class SceneIOModule extends ProjectModule {
 	}
 
 	public EditorScene load (FileHandle fullPathFile) {
+		waitForPendingSaves();
+
 		try {
 			Input input = new Input(new FileInputStream(fullPathFile.file()));
 			EditorScene scene = kryo.readObject(input, EditorScene.class);
@@ -221,19 +268,250 @@ public class SceneIOModule extends ProjectModule {
 		throw new IllegalStateException("There was an unknown error during scene loading");
 	}
 
+	/**
+	 * Reads header of scene file.
+	 * @return header or null if header was not written yet or scene file was modified after header was written
+	 */
+	public SceneHeader loadHeader (FileHandle sceneFile) {
+		waitForPendingSaves();
+
+		FileHandle headerFile = getHeaderFile(fileAccessModule.relativizeToAssetsFolder(sceneFile));
+		if (headerFile.exists() == false) return null;
+
+		try (Input input = new Input(new FileInputStream(headerFile.file()))) {
+			if (input.readInt() != HEADER_VERSION) return null;
+			long lastModified = input.readLong();
+			long length = input.readLong();
+			if (lastModified != sceneFile.lastModified() || length != sceneFile.length()) return null;
+
+			return kryo.readObject(input, SceneHeader.class);
+		} catch (IOException | KryoException e) {
+			Log.warn("Scene header could not be read and will be recreated: " + headerFile.path());
+			return null;
+		}
+	}
+
+	/** Writes header of scene file, used when header loaded by {@link #loadHeader(FileHandle)} is outdated */
+	public void saveHeader (FileHandle sceneFile, SceneHeader header) {
+		try {
+			writeHeaderFile(sceneFile.file().toPath(), getHeaderFile(header.getPath()).file().toPath(), serializeHeader(header));
+		} catch (IOException e) {
+			Log.exception(e);
+		}
+	}
+
+	/**
+	 * Reads object of class registered in this module, used by modules that store data in project module folder.
+	 * @return read object or null if file does not exist or can't be read
+	 */
+	public <T> T loadObject (FileHandle file, Class<T> type) {
+		if (file.exists() == false) return null;
+
+		try (Input input = new Input(new FileInputStream(file.file()))) {
+			return kryo.readObject(input, type);
+		} catch (IOException | KryoException e) {
+			Log.warn("File could not be read: " + file.path());
+			return null;
+		}
+	}
+
+	/** Writes object of class registered in this module, see {@link #loadObject(FileHandle, Class)} */
+	public void saveObject (FileHandle file, Object object) {
+		Output output = new Output(SAVE_BUFFER_SIZE, -1);
+		kryo.writeObject(output, object);
+
+		try {
+			Files.createDirectories(file.file().toPath().getParent());
+			Files.write(file.file().toPath(), output.toBytes());
+		} catch (IOException e) {
+			Log.exception(e);
+		}
+	}
+
+	private FileHandle getHeaderFile (String relativeScenePath) {
+		return sceneHeaderFolder.child(relativeScenePath + ".header");
+	}
+
+	private byte[] serializeHeader (SceneHeader header) {
+		Output output = new Output(4096, -1);
+		kryo.writeObject(output, header);
+		return output.toBytes();
+	}
+
+	/** Saves scene on calling thread, see {@link #saveAsync(EditorScene, boolean, boolean, SceneSaveListener)} */
 	public boolean save (EditorScene scene) {
+		waitForPendingSaves();
+
 		try {
-			Output output = new Output(new FileOutputStream(getFileHandleForScene(scene).file()));
-			kryo.writeObject(output, scene);
-			output.close();
+			SaveJob job = createSaveJob(scene, false, false, null);
+			writeSceneFile(job);
 			return true;
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			Log.exception(e);
 		}
 
 		return false;
 	}
 
+	/**
+	 * Serializes scene into memory on calling thread and writes it to file on save thread. Scenes are written in the same
+	 * order as they were passed to this method. Scene may be modified right after this method returns.
+	 * @param backup if true, current scene file is preserved as "name.bak" in scene backup folder
+	 * @param firstSaveBackup if true, current scene file is preserved as "name.firstSaveBak" in scene backup folder
+	 * @param listener called on rendering thread after scene file was written or when writing failed, may be null
+	 */
+	public void saveAsync (EditorScene scene, boolean backup, boolean firstSaveBackup, SceneSaveListener listener) {
+		SaveJob job = createSaveJob(scene, backup, firstSaveBackup, listener);
+
+		synchronized (pendingSavesLock) {
+			pendingSaves++;
+		}
+
+		saveQueue.processLater(job);
+	}
+
+	/** Blocks until all scenes passed to {@link #saveAsync(EditorScene, boolean, boolean, SceneSaveListener)} were written */
+	public void waitForPendingSaves () {
+		synchronized (pendingSavesLock) {
+			while (pendingSaves > 0) {
+				try {
+					pendingSavesLock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private SaveJob createSaveJob (EditorScene scene, boolean backup, boolean firstSaveBackup, SceneSaveListener listener) {
+		Output output = new Output(SAVE_BUFFER_SIZE, -1);
+		kryo.writeObject(output, scene);
+
+		FileHandle sceneFile = getFileHandleForScene(scene);
+		FileHandle backupTarget = sceneBackupFolder.child(scene.path);
+
+		SaveJob job = new SaveJob();
+		job.data = output.getBuffer();
+		job.length = output.position();
+		job.target = sceneFile.file().toPath();
+		//temporary file must be on the same file system as scene file so it can be atomically moved
+		job.temp = sceneFile.sibling("." + sceneFile.name() + TEMP_FILE_SUFFIX).file().toPath();
+		if (backup) job.backup = backupTarget.sibling(sceneFile.name() + ".bak").file().toPath();
+		if (firstSaveBackup) job.firstSaveBackup = backupTarget.sibling(sceneFile.name() + ".firstSaveBak").file().toPath();
+		job.header = getHeaderFile(scene.path).file().toPath();
+		job.headerData = serializeHeader(new SceneHeader(scene));
+		job.listener = listener;
+		return job;
+	}
+
+	private void processSaveJob (SaveJob job) {
+		IOException exception = null;
+
+		try {
+			writeSceneFile(job);
+		} catch (IOException e) {
+			exception = e;
+		}
+
+		synchronized (pendingSavesLock) {
+			pendingSaves--;
+			pendingSavesLock.notifyAll();
+		}
+
+		if (job.listener != null) {
+			final IOException result = exception;
+			Gdx.app.postRunnable(() -> {
+				if (result == null)
+					job.listener.saved();
+				else
+					job.listener.failed(result);
+			});
+		} else if (exception != null)
+			Log.exception(exception);
+	}
+
+	private void writeSceneFile (SaveJob job) throws IOException {
+		Files.createDirectories(job.temp.getParent());
+
+		try (FileChannel channel = FileChannel.open(job.temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.wrap(job.data, 0, job.length);
+			while (buffer.hasRemaining()) channel.write(buffer);
+			channel.force(true);
+		}
+
+		//old file is replaced by rename, so backups can share it's data using hard links
+		if (Files.exists(job.target)) {
+			if (job.firstSaveBackup != null) linkOrCopy(job.target, job.firstSaveBackup);
+			if (job.backup != null) linkOrCopy(job.target, job.backup);
+		}
+
+		try {
+			Files.move(job.temp, job.target, ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			//file system does not support atomic moves at all
+			Files.move(job.temp, job.target, REPLACE_EXISTING);
+		}
+
+		syncDirectory(job.target.getParent());
+		writeHeaderFile(job.target, job.header, job.headerData);
+	}
+
+	/** Header starts with header version, modification time and length of scene file used to detect outdated headers */
+	private void writeHeaderFile (Path sceneFile, Path headerFile, byte[] headerData) throws IOException {
+		Files.createDirectories(headerFile.getParent());
+
+		try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(headerFile))) {
+			output.writeInt(HEADER_VERSION);
+			output.writeLong(sceneFile.toFile().lastModified());
+			output.writeLong(Files.size(sceneFile));
+			output.write(headerData);
+		}
+	}
+
+	/** Flushes directory entries so rename of scene file survives system crash, not supported on some platforms (Windows) */
+	private void syncDirectory (Path dir) {
+		try (FileChannel channel = FileChannel.open(dir, READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			//directory can't be opened or synced on this platform, rename is still atomic
+		}
+	}
+
+	private void deleteTemporaryFiles (FileHandle dir) {
+		for (FileHandle file : dir.list()) {
+			if (file.isDirectory())
+				deleteTemporaryFiles(file);
+			else if (isTemporarySceneFile(file.file().toPath())) {
+				Log.info("Deleting temporary scene file left after unfinished save: " + file.path());
+				file.delete();
+			}
+		}
+	}
+
+	/** @return true if file is temporary file created while saving scene, such file may be left if editor was terminated during save */
+	public static boolean isTemporarySceneFile (Path file) {
+		String name = file.getFileName().toString();
+		return name.startsWith(".") && name.endsWith(".scene" + TEMP_FILE_SUFFIX);
+	}
+
+	private void linkOrCopy (Path existing, Path link) throws IOException {
+		Files.createDirectories(link.getParent());
+		Files.deleteIfExists(link);
+
+		try {
+			Files.createLink(link, existing);
+		} catch (IOException | UnsupportedOperationException e) {
+			Files.copy(existing, link, REPLACE_EXISTING);
+		}
+	}
+
+	@Override
+	public void dispose () {
+		waitForPendingSaves();
+		saveQueue.stop();
+	}
+
 	public void setEngineSerializationContext (ImmutableBag<Component> components) {
 		entityComponentSerializers.forEach(entityComponentSerializer -> entityComponentSerializer.setComponents(components));
 	}
@@ -250,4 +528,26 @@ public class SceneIOModule extends ProjectModule {
 	public FileHandle getFileHandleForScene (EditorScene scene) {
 		return assetsFolder.child(scene.path);
 	}
+
+	/** Receives result of {@link #saveAsync(EditorScene, boolean, boolean, SceneSaveListener)}, called on rendering thread */
+	public interface SceneSaveListener {
+		void saved ();
+
+		void failed (Exception e);
+	}
+
+	private static class SaveJob {
+		byte[] data;
+		int length;
+
+		Path target;
+		Path temp;
+		Path backup;
+		Path firstSaveBackup;
+
+		Path header;
+		byte[] headerData;
+
+		SceneSaveListener listener;
+	}
 }
@@ -34,6 +34,7 @@ import com.kotcrab.vis.editor.ui.scene.SceneTab;
 import com.kotcrab.vis.runtime.scene.SceneViewport;
 import com.kotcrab.vis.runtime.system.CameraManager;
 import com.kotcrab.vis.runtime.system.ParticleRenderSystem;
+import com.kotcrab.vis.runtime.system.ParticleUpdateSystem;
 import com.kotcrab.vis.runtime.system.RenderBatchingSystem;
 import com.kotcrab.vis.runtime.util.ArtemisUtils;
 import com.kotcrab.vis.runtime.util.EntityEngine;
@@ -79,9 +80,10 @@ public class SceneModuleContainer extends ModuleContainer<SceneModule> implement
 
 		createEssentialsSystems(config, scene.pixelsPerUnit);
 
+		config.setSystem(new ParticleUpdateSystem(true));
 		ArtemisUtils.createCommonSystems(config, batch, Assets.distanceFieldShader, true);
 		RenderBatchingSystem renderBatchingSystem = config.getSystem(RenderBatchingSystem.class);
-		config.setSystem(new ParticleRenderSystem(renderBatchingSystem, true), true);
+		config.setSystem(new ParticleRenderSystem(renderBatchingSystem), true);
 		config.setSystem(new SoundAndMusicRenderSystem(renderBatchingSystem, scene.pixelsPerUnit), true);
 
 	}
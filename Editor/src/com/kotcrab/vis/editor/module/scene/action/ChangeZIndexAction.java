@@ -16,6 +16,7 @@
 
 package com.kotcrab.vis.editor.module.scene.action;
 
+import com.artemis.Entity;
 import com.kotcrab.vis.editor.module.scene.entitymanipulator.EntityManipulatorModule;
 import com.kotcrab.vis.editor.proxy.EntityProxy;
 import com.kotcrab.vis.editor.util.undo.UndoableAction;
@@ -43,7 +44,7 @@ public class ChangeZIndexAction implements UndoableAction {
 	public void execute () {
 		proxy.reload();
 		proxy.setZIndex(targetZIndex);
-		renderBatchingSystem.markDirty();
+		markEntitiesDirty();
 		entityManipulator.selectedEntitiesValuesChanged();
 	}
 
@@ -51,10 +52,15 @@ public class ChangeZIndexAction implements UndoableAction {
 	public void undo () {
 		proxy.reload();
 		proxy.setZIndex(sourceZIndex);
-		renderBatchingSystem.markDirty();
+		markEntitiesDirty();
 		entityManipulator.selectedEntitiesValuesChanged();
 	}
 
+	private void markEntitiesDirty () {
+		for (Entity entity : proxy.getEntities())
+			renderBatchingSystem.markDirty(entity);
+	}
+
 	@Override
 	public String getActionName () {
 		return "Change Z Index";
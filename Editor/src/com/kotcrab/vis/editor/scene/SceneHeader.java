@@ -0,0 +1,145 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.editor.scene;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.kotcrab.vis.editor.entity.EntityScheme;
+import com.kotcrab.vis.runtime.assets.VisAssetDescriptor;
+import com.kotcrab.vis.runtime.scene.SceneViewport;
+import com.kotcrab.vis.runtime.util.ImmutableArray;
+import com.kotcrab.vis.runtime.util.StoresAssetDescriptor;
+
+/**
+ * Summary of {@link EditorScene} that can be read without decoding scene entities, serialized by Kryo. Header is stored
+ * separately from scene file and is updated every time scene is saved.
+ * @author Kotcrab
+ */
+public class SceneHeader {
+	/** Scene file, path is relative to project Vis folder */
+	private String path;
+	private float width;
+	private float height;
+	private float pixelsPerUnit;
+	private SceneViewport viewport;
+
+	private Array<Layer> layers;
+	private int entityCount;
+	/** Assets referenced by scene entities, assets pointing to the same file are stored once */
+	private Array<VisAssetDescriptor> assets;
+	/** Indexes of entity schemes using asset, stored at the same index as asset */
+	private Array<IntArray> assetEntities;
+
+	public SceneHeader (EditorScene scene) {
+		path = scene.path;
+		width = scene.width;
+		height = scene.height;
+		pixelsPerUnit = scene.pixelsPerUnit;
+		viewport = scene.viewport;
+
+		layers = new Array<>(scene.getLayers().size());
+		for (Layer layer : scene.getLayers()) {
+			Layer copy = new Layer(layer.name, layer.id);
+			copy.locked = layer.locked;
+			copy.visible = layer.visible;
+			copy.cordsSystem = layer.cordsSystem;
+			layers.add(copy);
+		}
+
+		Array<EntityScheme> schemes = scene.getSchemes();
+		entityCount = schemes.size;
+		assets = new Array<>();
+		assetEntities = new Array<>();
+
+		for (int i = 0; i < schemes.size; i++) {
+			for (Component component : schemes.get(i).components) {
+				if (component instanceof StoresAssetDescriptor) {
+					VisAssetDescriptor asset = ((StoresAssetDescriptor) component).getAsset();
+					if (asset != null) addUsage(asset, i);
+				}
+			}
+		}
+	}
+
+	private void addUsage (VisAssetDescriptor asset, int schemeIndex) {
+		int index = indexOf(asset);
+
+		if (index == -1) {
+			index = assets.size;
+			assets.add(asset);
+			assetEntities.add(new IntArray());
+		}
+
+		IntArray entities = assetEntities.get(index);
+		if (entities.size == 0 || entities.peek() != schemeIndex) entities.add(schemeIndex);
+	}
+
+	private int indexOf (VisAssetDescriptor asset) {
+		for (int i = 0; i < assets.size; i++) {
+			if (assets.get(i).compare(asset)) return i;
+		}
+
+		return -1;
+	}
+
+	/** @return true if any entity of scene references asset, assets are compared using {@link VisAssetDescriptor#compare(VisAssetDescriptor)} */
+	public boolean isReferenced (VisAssetDescriptor asset) {
+		return indexOf(asset) != -1;
+	}
+
+	/**
+	 * @return indexes of entity schemes referencing asset, same as entity ids of scene loaded into new engine. Null if asset
+	 * isn't referenced. Returned array must not be modified.
+	 */
+	public IntArray getEntities (VisAssetDescriptor asset) {
+		int index = indexOf(asset);
+		return index == -1 ? null : assetEntities.get(index);
+	}
+
+	public String getPath () {
+		return path;
+	}
+
+	public float getWidth () {
+		return width;
+	}
+
+	public float getHeight () {
+		return height;
+	}
+
+	public float getPixelsPerUnit () {
+		return pixelsPerUnit;
+	}
+
+	public SceneViewport getViewport () {
+		return viewport;
+	}
+
+	public ImmutableArray<Layer> getLayers () {
+		return new ImmutableArray<>(layers);
+	}
+
+	public int getEntityCount () {
+		return entityCount;
+	}
+
+	public ImmutableArray<VisAssetDescriptor> getAssets () {
+		return new ImmutableArray<>(assets);
+	}
+}
@@ -22,6 +22,7 @@ import com.kotcrab.vis.editor.Icons;
 import com.kotcrab.vis.editor.module.editor.EditorSettingsIOModule;
 import com.kotcrab.vis.editor.module.project.DefaultExporter;
 import com.kotcrab.vis.editor.module.project.DefaultExporterSettings;
+import com.kotcrab.vis.editor.util.gdx.FloatDigitsOnlyFilter;
 import com.kotcrab.vis.editor.util.gdx.VisChangeListener;
 import com.kotcrab.vis.ui.util.TableUtils;
 import com.kotcrab.vis.ui.widget.*;
@@ -31,6 +32,9 @@ public class DefaultExporterSettingsDialog extends VisWindow {
 	private EditorSettingsIOModule settingsIO;
 	private DefaultExporterSettings settings;
 	private final VisCheckBox skipDefaultCheck;
+	private final VisCheckBox binaryScenesCheck;
+	private final VisCheckBox usePrefabsCheck;
+	private final VisTextField chunkSizeField;
 
 	public DefaultExporterSettingsDialog (EditorSettingsIOModule settingsIO, DefaultExporterSettings settings) {
 		super("Settings");
@@ -60,6 +64,37 @@ public class DefaultExporterSettingsDialog extends VisWindow {
 		add(skipDefaultCheck);
 		add(skipDefaultHelpImage).size(22).row();
 
+		binaryScenesCheck = new VisCheckBox("Export scenes in binary format");
+
+		VisImage binaryScenesHelpImage = new VisImage(Assets.getIcon(Icons.QUESTION));
+		new Tooltip(binaryScenesHelpImage, "Scenes are written in compact binary format which is much faster to load than JSON.\n" +
+				"SceneLoader detects format automatically, no changes in game code are required.\n" +
+				"Disable it if you want to inspect output scene file.", Align.left);
+		add(binaryScenesCheck);
+		add(binaryScenesHelpImage).size(22).row();
+
+		usePrefabsCheck = new VisCheckBox("Use prefabs");
+
+		VisImage usePrefabsHelpImage = new VisImage(Assets.getIcon(Icons.QUESTION));
+		new Tooltip(usePrefabsHelpImage, "Entities that differ only by position are exported as instances of shared prefab.\n" +
+				"Reduces scene file size, load time and memory usage when many entities are similar.", Align.left);
+		add(usePrefabsCheck);
+		add(usePrefabsHelpImage).size(22).row();
+
+		chunkSizeField = new VisTextField();
+		chunkSizeField.setTextFieldFilter(new FloatDigitsOnlyFilter());
+
+		VisTable chunkSizeTable = new VisTable(true);
+		chunkSizeTable.add(new VisLabel("Chunk size"));
+		chunkSizeTable.add(chunkSizeField).width(60);
+
+		VisImage chunkSizeHelpImage = new VisImage(Assets.getIcon(Icons.QUESTION));
+		new Tooltip(chunkSizeHelpImage, "When greater than 0 scenes are split into square chunks of this size (in world units).\n" +
+				"Chunks are stored in separate files and loaded at runtime only when they are near the camera.\n" +
+				"Use it for large scenes that don't have to be loaded whole.", Align.left);
+		add(chunkSizeTable);
+		add(chunkSizeHelpImage).size(22).row();
+
 		add(buttonTable).right().colspan(2);
 
 		cancelButton.addListener(new VisChangeListener((event1, actor1) -> {
@@ -80,10 +115,24 @@ public class DefaultExporterSettingsDialog extends VisWindow {
 
 	private void setUIFromSettings () {
 		skipDefaultCheck.setChecked(settings.skipDefaultValues);
+		binaryScenesCheck.setChecked(settings.binaryScenes);
+		usePrefabsCheck.setChecked(settings.usePrefabs);
+		chunkSizeField.setText(String.valueOf(settings.chunkSize));
 	}
 
 	private void setToSettings () {
 		settings.skipDefaultValues = skipDefaultCheck.isChecked();
+		settings.binaryScenes = binaryScenesCheck.isChecked();
+		settings.usePrefabs = usePrefabsCheck.isChecked();
+		settings.chunkSize = parseChunkSize();
 		settingsIO.save(settings, DefaultExporter.SETTINGS_FILE_NAME);
 	}
+
+	private float parseChunkSize () {
+		try {
+			return Math.max(0, Float.parseFloat(chunkSizeField.getText()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
 }
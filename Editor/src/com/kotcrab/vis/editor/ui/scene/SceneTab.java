@@ -18,7 +18,6 @@ package com.kotcrab.vis.editor.ui.scene;
 
 import com.artemis.EntityManager;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
@@ -41,6 +40,7 @@ import com.kotcrab.vis.editor.module.editor.ExtensionStorageModule;
 import com.kotcrab.vis.editor.module.editor.MenuBarModule;
 import com.kotcrab.vis.editor.module.editor.StatusBarModule;
 import com.kotcrab.vis.editor.module.project.*;
+import com.kotcrab.vis.editor.module.project.SceneIOModule.SceneSaveListener;
 import com.kotcrab.vis.editor.module.scene.*;
 import com.kotcrab.vis.editor.module.scene.entitymanipulator.AlignmentToolsDialog;
 import com.kotcrab.vis.editor.module.scene.entitymanipulator.EntityManipulatorModule;
@@ -87,6 +87,7 @@ public class SceneTab extends MainContentTab implements DragAndDropTarget, Event
 	private ContentTable content;
 
 	private boolean savedAtLeastOnce;
+	private boolean firstSaveBackupQueued;
 	private boolean lastSaveFailed;
 
 	private Target dropTarget;
@@ -270,28 +271,27 @@ public class SceneTab extends MainContentTab implements DragAndDropTarget, Event
 		super.save();
 		scene.setSchemes(sceneMC.getEntityEngine().getManager(EntityProxyCache.class).getSchemes());
 		try {
-			FileHandle sceneFile = sceneIOModule.getFileHandleForScene(scene);
-			FileHandle backupTarget = sceneIOModule.getSceneBackupFolder().child(scene.path);
-
-			if (lastSaveFailed == false) {
-				sceneFile.copyTo(backupTarget.sibling(sceneFile.name() + ".bak"));
-			}
-
-			if (savedAtLeastOnce == false) {
-				sceneFile.copyTo(backupTarget.sibling(sceneFile.name() + ".firstSaveBak"));
-			}
-
-			if (sceneIOModule.save(scene)) {
-				setDirty(false);
-				sceneMC.save();
-				savedAtLeastOnce = true;
-				lastSaveFailed = false;
-				return true;
-			} else {
-				lastSaveFailed = true;
-				DialogUtils.showErrorDialog(Editor.instance.getStage(), "Unknown error encountered while saving resource");
-			}
-
+			//scene is serialized here, file is written on save thread
+			sceneIOModule.saveAsync(scene, lastSaveFailed == false, firstSaveBackupQueued == false, new SceneSaveListener() {
+				@Override
+				public void saved () {
+					savedAtLeastOnce = true;
+					lastSaveFailed = false;
+				}
+
+				@Override
+				public void failed (Exception e) {
+					lastSaveFailed = true;
+					setDirty(true);
+					Log.exception(e);
+					DialogUtils.showErrorDialog(Editor.instance.getStage(), "Unknown error encountered while saving resource", e);
+				}
+			});
+
+			firstSaveBackupQueued = true;
+			setDirty(false);
+			sceneMC.save();
+			return true;
 		} catch (Exception e) {
 			lastSaveFailed = true;
 			Log.exception(e);
@@ -303,6 +303,8 @@ public class SceneTab extends MainContentTab implements DragAndDropTarget, Event
 
 	@Override
 	public void dispose () {
+		//tab is disposed right after "save and close", file must be written before scene modules are disposed
+		sceneIOModule.waitForPendingSaves();
 		sceneMC.dispose();
 		App.oldEventBus.unregister(this);
 	}
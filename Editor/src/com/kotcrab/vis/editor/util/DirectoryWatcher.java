@@ -25,6 +25,7 @@ import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 import static java.nio.file.StandardWatchEventKinds.*;
 
@@ -53,6 +54,7 @@ public class DirectoryWatcher {
 	private Thread watchThread;
 	private Map<Path, WatchKey> watchPathKeyMap;
 	private Timer timer;
+	private Predicate<Path> ignoreFilter;
 
 	public DirectoryWatcher (Path root) {
 		this(root, null);
@@ -94,6 +96,8 @@ public class DirectoryWatcher {
 							WatchEvent<Path> ev = (WatchEvent<Path>) event;
 							Path dir = (Path) watchKey.watchable();
 							Path fullPath = dir.resolve(ev.context());
+							if (ignoreFilter != null && ignoreFilter.test(fullPath)) continue;
+
 							final FileHandle fileHandle = Gdx.files.absolute(fullPath.toFile().toString());
 
 							if (ev.kind() == StandardWatchEventKinds.ENTRY_MODIFY) {
@@ -221,6 +225,11 @@ public class DirectoryWatcher {
 		}
 	}
 
+	/** Sets filter of files whose events are not reported to listeners, must be called before {@link #start()}, may be null */
+	public void setIgnoreFilter (Predicate<Path> ignoreFilter) {
+		this.ignoreFilter = ignoreFilter;
+	}
+
 	public void addListener (WatchListener listener) {
 		listeners.add(listener);
 	}
@@ -35,7 +35,6 @@ import com.artemis.Aspect;
 import com.artemis.ComponentMapper;
 import com.artemis.Entity;
 import com.artemis.annotations.Wire;
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
@@ -72,7 +71,7 @@ public class SpineEditorRenderSystem extends DeferredEntityProcessingSystem {
 	@Override
 	protected void process (Entity e) {
 		SpineComponent spine = spineCm.get(e);
-		spine.state.update(Gdx.graphics.getDeltaTime());
+		spine.state.update(world.getDelta());
 		spine.state.apply(spine.skeleton); // Poses skeleton using current animations. This sets the bones' local SRT.
 		spine.skeleton.updateWorldTransform(); // Uses the bones' local SRT to compute their world SRT.
 		skeletonRenderer.draw(batch, spine.skeleton); // Draw the skeleton images.
@@ -146,6 +146,23 @@ public class Animation {
 		}
 	}
 
+	/**
+	 * Same as {@link #binarySearch(float[], float, int)} but first checks index found by previous search and index after it,
+	 * so sequential playback finds frame without searching. Timelines are shared by all skeletons using the same data so
+	 * previous index is only a hint that is always validated.
+	 * @param target After the first and before the last value.
+	 * @param previous index returned by previous search.
+	 * @return index of first value greater than the target.
+	 */
+	static int cachedSearch (float[] values, float target, int step, int previous) {
+		if (previous >= step && previous < values.length && values[previous - step] <= target) {
+			if (target < values[previous]) return previous;
+			int next = previous + step;
+			if (next < values.length && target < values[next]) return next;
+		}
+		return binarySearch(values, target, step);
+	}
+
 	static int linearSearch (float[] values, float target, int step) {
 		for (int i = 0, last = values.length - step; i <= last; i += step)
 			if (values[i] > target) return i;
@@ -166,6 +183,7 @@ public class Animation {
 		static private final int BEZIER_SEGMENTS = 10, BEZIER_SIZE = BEZIER_SEGMENTS * 2 - 1;
 
 		private final float[] curves; // type, x, y, ...
+		int lastFrameIndex; // Hint for cachedSearch.
 
 		public CurveTimeline (int frameCount) {
 			if (frameCount <= 0) throw new IllegalArgumentException("frameCount must be > 0: " + frameCount);
@@ -298,7 +316,7 @@ public class Animation {
 			}
 
 			// Interpolate between the previous frame and the current frame.
-			int frameIndex = binarySearch(frames, time, 2);
+			int frameIndex = lastFrameIndex = cachedSearch(frames, time, 2, lastFrameIndex);
 			float prevFrameValue = frames[frameIndex - 1];
 			float frameTime = frames[frameIndex];
 			float percent = MathUtils.clamp(1 - (time - frameTime) / (frames[frameIndex + PREV_FRAME_TIME] - frameTime), 0, 1);
@@ -364,7 +382,7 @@ public class Animation {
 			}
 
 			// Interpolate between the previous frame and the current frame.
-			int frameIndex = binarySearch(frames, time, 3);
+			int frameIndex = lastFrameIndex = cachedSearch(frames, time, 3, lastFrameIndex);
 			float prevFrameX = frames[frameIndex - 2];
 			float prevFrameY = frames[frameIndex - 1];
 			float frameTime = frames[frameIndex];
@@ -393,7 +411,7 @@ public class Animation {
 			}
 
 			// Interpolate between the previous frame and the current frame.
-			int frameIndex = binarySearch(frames, time, 3);
+			int frameIndex = lastFrameIndex = cachedSearch(frames, time, 3, lastFrameIndex);
 			float prevFrameX = frames[frameIndex - 2];
 			float prevFrameY = frames[frameIndex - 1];
 			float frameTime = frames[frameIndex];
@@ -458,7 +476,7 @@ public class Animation {
 				a = frames[i];
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frameIndex = binarySearch(frames, time, 5);
+				int frameIndex = lastFrameIndex = cachedSearch(frames, time, 5, lastFrameIndex);
 				float prevFrameR = frames[frameIndex - 4];
 				float prevFrameG = frames[frameIndex - 3];
 				float prevFrameB = frames[frameIndex - 2];
@@ -484,6 +502,7 @@ public class Animation {
 		int slotIndex;
 		final float[] frames; // time, ...
 		final String[] attachmentNames;
+		int lastFrameIndex; // Hint for cachedSearch.
 
 		public AttachmentTimeline (int frameCount) {
 			frames = new float[frameCount];
@@ -524,7 +543,11 @@ public class Animation {
 			} else if (lastTime > time) //
 				lastTime = -1;
 
-			int frameIndex = (time >= frames[frames.length - 1] ? frames.length : binarySearch(frames, time)) - 1;
+			int frameIndex;
+			if (time >= frames[frames.length - 1]) // Time is after last frame.
+				frameIndex = frames.length - 1;
+			else
+				frameIndex = (lastFrameIndex = cachedSearch(frames, time, 1, lastFrameIndex)) - 1;
 			if (frames[frameIndex] < lastTime) return;
 
 			String attachmentName = attachmentNames[frameIndex];
@@ -536,6 +559,7 @@ public class Animation {
 	static public class EventTimeline implements Timeline {
 		private final float[] frames; // time, ...
 		private final Event[] events;
+		int lastFrameIndex; // Hint for cachedSearch.
 
 		public EventTimeline (int frameCount) {
 			frames = new float[frameCount];
@@ -577,7 +601,7 @@ public class Animation {
 			if (lastTime < frames[0])
 				frameIndex = 0;
 			else {
-				frameIndex = binarySearch(frames, lastTime);
+				frameIndex = lastFrameIndex = cachedSearch(frames, lastTime, 1, lastFrameIndex);
 				float frame = frames[frameIndex];
 				while (frameIndex > 0) { // Fire multiple events with the same frame.
 					if (frames[frameIndex - 1] != frame) break;
@@ -592,6 +616,7 @@ public class Animation {
 	static public class DrawOrderTimeline implements Timeline {
 		private final float[] frames; // time, ...
 		private final int[][] drawOrders;
+		int lastFrameIndex; // Hint for cachedSearch.
 
 		public DrawOrderTimeline (int frameCount) {
 			frames = new float[frameCount];
@@ -627,7 +652,7 @@ public class Animation {
 			if (time >= frames[frames.length - 1]) // Time is after last frame.
 				frameIndex = frames.length - 1;
 			else
-				frameIndex = binarySearch(frames, time) - 1;
+				frameIndex = (lastFrameIndex = cachedSearch(frames, time, 1, lastFrameIndex)) - 1;
 
 			Array<Slot> drawOrder = skeleton.drawOrder;
 			Array<Slot> slots = skeleton.slots;
@@ -711,7 +736,7 @@ public class Animation {
 			}
 
 			// Interpolate between the previous frame and the current frame.
-			int frameIndex = binarySearch(frames, time);
+			int frameIndex = lastFrameIndex = cachedSearch(frames, time, 1, lastFrameIndex);
 			float frameTime = frames[frameIndex];
 			float percent = MathUtils.clamp(1 - (time - frameTime) / (frames[frameIndex - 1] - frameTime), 0, 1);
 			percent = getCurvePercent(frameIndex - 1, percent);
@@ -780,7 +805,7 @@ public class Animation {
 			}
 
 			// Interpolate between the previous frame and the current frame.
-			int frameIndex = binarySearch(frames, time, 3);
+			int frameIndex = lastFrameIndex = cachedSearch(frames, time, 3, lastFrameIndex);
 			float prevFrameMix = frames[frameIndex + PREV_FRAME_MIX];
 			float frameTime = frames[frameIndex];
 			float percent = MathUtils.clamp(1 - (time - frameTime) / (frames[frameIndex + PREV_FRAME_TIME] - frameTime), 0, 1);
@@ -795,6 +820,7 @@ public class Animation {
 	static public class FlipXTimeline implements Timeline {
 		int boneIndex;
 		final float[] frames; // time, flip, ...
+		int lastFrameIndex; // Hint for cachedSearch.
 
 		public FlipXTimeline (int frameCount) {
 			frames = new float[frameCount << 1];
@@ -830,7 +856,11 @@ public class Animation {
 				return;
 			} else if (lastTime > time) //
 				lastTime = -1;
-			int frameIndex = (time >= frames[frames.length - 2] ? frames.length : binarySearch(frames, time, 2)) - 2;
+			int frameIndex;
+			if (time >= frames[frames.length - 2]) // Time is after last frame.
+				frameIndex = frames.length - 2;
+			else
+				frameIndex = (lastFrameIndex = cachedSearch(frames, time, 2, lastFrameIndex)) - 2;
 			if (frames[frameIndex] < lastTime) return;
 			setFlip(skeleton.bones.get(boneIndex), frames[frameIndex + 1] != 0);
 		}
@@ -32,8 +32,8 @@
 package com.esotericsoftware.spine;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pool.Poolable;
-import com.badlogic.gdx.utils.Pools;
 
 /** Stores state for an animation and automatically mixes between animations. */
 public class AnimationStatePR {
@@ -43,6 +43,12 @@ public class AnimationStatePR {
 	private final Array<AnimationStateListener> listeners = new Array();
 	private float timeScale = 1;
 
+	private Pool<TrackEntry> trackEntryPool = new Pool() {
+		protected Object newObject () {
+			return new TrackEntry();
+		}
+	};
+
 	public AnimationStatePR (AnimationStateData data) {
 		if (data == null) throw new IllegalArgumentException("data cannot be null.");
 		this.data = data;
@@ -98,23 +104,20 @@ public class AnimationStatePR {
 
 				if (previous == null) {
 					current.animation.mix(skeleton, lastTime, time, loop, events, alpha);
-					System.out.println("none -> " + current.animation + ": " + alpha);
 				} else {
 					float previousTime = previous.time;
 					if (!previous.loop && previousTime > previous.endTime) previousTime = previous.endTime;
 
 					if (current.animation == null) {
 						previous.animation.mix(skeleton, previousTime, previousTime, previous.loop, null, 1 - alpha);
-						System.out.println(previous.animation + " -> none: " + alpha);
 
 					} else {
 						previous.animation.apply(skeleton, previousTime, previousTime, previous.loop, null);
 						current.animation.mix(skeleton, lastTime, time, loop, events, alpha);
-						System.out.println(previous.animation + " -> " + current.animation + ": " + alpha);
 					}
 
 					if (alpha >= 1) {
-						Pools.free(previous);
+						trackEntryPool.free(previous);
 						current.previous = null;
 						current.mixDuration = 0;
 					}
@@ -158,13 +161,13 @@ public class AnimationStatePR {
 
 		tracks.set(trackIndex, null);
 		freeAll(current);
-		if (current.previous != null) Pools.free(current.previous);
+		if (current.previous != null) trackEntryPool.free(current.previous);
 	}
 
 	private void freeAll (TrackEntry entry) {
 		while (entry != null) {
 			TrackEntry next = entry.next;
-			Pools.free(entry);
+			trackEntryPool.free(entry);
 			entry = next;
 		}
 	}
@@ -180,7 +183,7 @@ public class AnimationStatePR {
 		TrackEntry current = expandToIndex(index);
 		if (current != null) {
 			if (current.previous != null) {
-				Pools.free(current.previous);
+				trackEntryPool.free(current.previous);
 				current.previous = null;
 			}
 
@@ -193,7 +196,7 @@ public class AnimationStatePR {
 				entry.mixTime = 0;
 				entry.previous = current;
 			} else
-				Pools.free(current);
+				trackEntryPool.free(current);
 		} else
 			entry.mixDuration = data.defaultMix;
 
@@ -216,7 +219,7 @@ public class AnimationStatePR {
 		TrackEntry current = expandToIndex(trackIndex);
 		if (current != null) freeAll(current.next);
 
-		TrackEntry entry = Pools.obtain(TrackEntry.class);
+		TrackEntry entry = trackEntryPool.obtain();
 		entry.animation = animation;
 		entry.loop = loop;
 		entry.endTime = animation.getDuration();
@@ -236,7 +239,7 @@ public class AnimationStatePR {
 	 * @param delay May be <= 0 to use duration of previous animation minus any mix duration plus the negative delay.
 	 */
 	public TrackEntry addAnimation (int trackIndex, Animation animation, boolean loop, float delay) {
-		TrackEntry entry = Pools.obtain(TrackEntry.class);
+		TrackEntry entry = trackEntryPool.obtain();
 		entry.animation = animation;
 		entry.loop = loop;
 		entry.endTime = animation != null ? animation.getDuration() : data.defaultMix;
@@ -39,6 +39,9 @@ import static com.badlogic.gdx.math.MathUtils.*;
 public class IkConstraint {
 	static private final Vector2 temp = new Vector2();
 
+	/** Used instead of static temp by {@link #apply()} so constraints of different skeletons can be applied from multiple threads */
+	private final Vector2 position = new Vector2();
+
 	final IkConstraintData data;
 	final Array<Bone> bones;
 	Bone target;
@@ -75,7 +78,7 @@ public class IkConstraint {
 				apply(bones.first(), target.worldX, target.worldY, mix);
 				break;
 			case 2:
-				apply(bones.first(), bones.get(1), target.worldX, target.worldY, bendDirection, mix);
+				apply(bones.first(), bones.get(1), target.worldX, target.worldY, bendDirection, mix, position);
 				break;
 		}
 	}
@@ -133,13 +136,17 @@ public class IkConstraint {
 	 * @param child Any descendant bone of the parent.
 	 */
 	static public void apply (Bone parent, Bone child, float targetX, float targetY, int bendDirection, float alpha) {
+		apply(parent, child, targetX, targetY, bendDirection, alpha, temp);
+	}
+
+	/** @param position temporary vector used during calculations */
+	static void apply (Bone parent, Bone child, float targetX, float targetY, int bendDirection, float alpha, Vector2 position) {
 		float childRotation = child.rotation, parentRotation = parent.rotation;
 		if (alpha == 0) {
 			child.rotationIK = childRotation;
 			parent.rotationIK = parentRotation;
 			return;
 		}
-		Vector2 position = temp;
 		Bone parentParent = parent.parent;
 		if (parentParent != null) {
 			parentParent.worldToLocal(position.set(targetX, targetY));
@@ -65,8 +65,11 @@ public class Skin {
 	/** @return May be null. */
 	public Attachment getAttachment (int slotIndex, String name) {
 		if (slotIndex < 0) throw new IllegalArgumentException("slotIndex must be >= 0.");
-		lookup.set(slotIndex, name);
-		return attachments.get(lookup);
+		// lookup key is shared by all skins, skeletons can be updated from multiple threads
+		synchronized (lookup) {
+			lookup.set(slotIndex, name);
+			return attachments.get(lookup);
+		}
 	}
 
 	public void findNamesForSlot (int slotIndex, Array<String> names) {
@@ -33,10 +33,13 @@ package com.kotcrab.vis.plugin.spine.runtime;
 
 import com.artemis.Component;
 import com.badlogic.gdx.graphics.Color;
-import com.esotericsoftware.spine.AnimationState;
-import com.esotericsoftware.spine.AnimationStateData;
-import com.esotericsoftware.spine.Skeleton;
-import com.esotericsoftware.spine.SkeletonData;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.*;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.attachments.SkinnedMeshAttachment;
 import com.kotcrab.vis.runtime.accessor.ColorPropertiesAccessor;
 import com.kotcrab.vis.runtime.accessor.FlipPropertiesAccessor;
 import com.kotcrab.vis.runtime.component.ProtoComponent;
@@ -48,6 +51,9 @@ public class SpineComponent extends Component implements FlipPropertiesAccessor,
 	public transient AnimationStateData stateData;
 	public transient AnimationState state;
 
+	private transient Rectangle bounds;
+	private transient float boundsX, boundsY;
+
 	public boolean playOnStart;
 	public String defaultAnimation;
 
@@ -134,6 +140,72 @@ public class SpineComponent extends Component implements FlipPropertiesAccessor,
 		return skeleton.getColor();
 	}
 
+	/**
+	 * Calculates bounds of current skeleton pose from region and mesh attachments. Attachment vertices are shared by all
+	 * skeletons using the same data so this must be called from rendering thread.
+	 */
+	void updateBounds () {
+		if (bounds == null) bounds = new Rectangle();
+
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+
+		Array<Slot> drawOrder = skeleton.getDrawOrder();
+		for (int i = 0; i < drawOrder.size; i++) {
+			Slot slot = drawOrder.get(i);
+			Attachment attachment = slot.getAttachment();
+
+			float[] vertices;
+			if (attachment instanceof RegionAttachment) {
+				RegionAttachment region = (RegionAttachment) attachment;
+				region.updateWorldVertices(slot, false);
+				vertices = region.getWorldVertices();
+			} else if (attachment instanceof MeshAttachment) {
+				MeshAttachment mesh = (MeshAttachment) attachment;
+				mesh.updateWorldVertices(slot, false);
+				vertices = mesh.getWorldVertices();
+			} else if (attachment instanceof SkinnedMeshAttachment) {
+				SkinnedMeshAttachment mesh = (SkinnedMeshAttachment) attachment;
+				mesh.updateWorldVertices(slot, false);
+				vertices = mesh.getWorldVertices();
+			} else
+				continue;
+
+			for (int v = 0; v < vertices.length; v += 5) {
+				minX = Math.min(minX, vertices[v]);
+				minY = Math.min(minY, vertices[v + 1]);
+				maxX = Math.max(maxX, vertices[v]);
+				maxY = Math.max(maxY, vertices[v + 1]);
+			}
+		}
+
+		boundsX = skeleton.getX();
+		boundsY = skeleton.getY();
+
+		if (minX > maxX)
+			bounds.set(boundsX, boundsY, 0, 0);
+		else
+			bounds.set(minX, minY, maxX - minX, maxY - minY);
+	}
+
+	/**
+	 * Moves bounds by distance that skeleton was moved since bounds were calculated, used for skeletons that aren't posed.
+	 * @return true if bounds were moved
+	 */
+	boolean moveBounds () {
+		if (bounds == null || (boundsX == skeleton.getX() && boundsY == skeleton.getY())) return false;
+		bounds.x += skeleton.getX() - boundsX;
+		bounds.y += skeleton.getY() - boundsY;
+		boundsX = skeleton.getX();
+		boundsY = skeleton.getY();
+		return true;
+	}
+
+	/** @return bounds of skeleton calculated by {@link SpineUpdateSystem} when culled skeletons are skipped, null otherwise */
+	public Rectangle getBounds () {
+		return bounds;
+	}
+
 	public Skeleton getSkeleton () {
 		return skeleton;
 	}
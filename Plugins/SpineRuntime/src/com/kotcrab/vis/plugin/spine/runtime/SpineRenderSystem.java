@@ -35,7 +35,6 @@ import com.artemis.Aspect;
 import com.artemis.ComponentMapper;
 import com.artemis.Entity;
 import com.artemis.annotations.Wire;
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.esotericsoftware.spine.SkeletonRenderer;
 import com.kotcrab.vis.runtime.component.InvisibleComponent;
@@ -43,7 +42,10 @@ import com.kotcrab.vis.runtime.system.RenderBatchingSystem;
 import net.mostlyoriginal.api.system.delegate.DeferredEntityProcessingSystem;
 import net.mostlyoriginal.api.system.delegate.EntityProcessPrincipal;
 
-/** @author Kotcrab */
+/**
+ * Renders entities with {@link SpineComponent}, skeletons are posed by {@link SpineUpdateSystem}
+ * @author Kotcrab
+ */
 @Wire
 public class SpineRenderSystem extends DeferredEntityProcessingSystem {
 	private ComponentMapper<SpineComponent> spineCm;
@@ -65,10 +67,6 @@ public class SpineRenderSystem extends DeferredEntityProcessingSystem {
 
 	@Override
 	protected void process (Entity e) {
-		SpineComponent spine = spineCm.get(e);
-		spine.state.update(Gdx.graphics.getDeltaTime());
-		spine.state.apply(spine.skeleton); // Poses skeleton using current animations. This sets the bones' local SRT.
-		spine.skeleton.updateWorldTransform(); // Uses the bones' local SRT to compute their world SRT.
-		skeletonRenderer.draw(batch, spine.skeleton); // Draw the skeleton images.
+		skeletonRenderer.draw(batch, spineCm.get(e).skeleton); // Draw the skeleton images.
 	}
 }
@@ -35,6 +35,8 @@ import com.artemis.Component;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.AnimationState.AnimationStateListener;
+import com.esotericsoftware.spine.AnimationState.TrackEntry;
 import com.esotericsoftware.spine.SkeletonData;
 import com.esotericsoftware.spine.SkeletonRenderer;
 import com.kotcrab.vis.plugin.spine.runtime.SkeletonDataLoader.SkeletonDataLoaderParameter;
@@ -46,12 +48,30 @@ import com.kotcrab.vis.runtime.plugin.EntitySupport;
 import com.kotcrab.vis.runtime.plugin.VisPlugin;
 import com.kotcrab.vis.runtime.system.RenderBatchingSystem;
 import com.kotcrab.vis.runtime.util.EntityEngineConfiguration;
+import com.kotcrab.vis.runtime.util.ThreadSafeDependencyResolver;
 
 @VisPlugin
-public class SpineSupport implements EntitySupport {
+public class SpineSupport implements EntitySupport, ThreadSafeDependencyResolver {
 	private SkeletonRenderer skeletonRenderer;
 
+	private final int updateThreads;
+	private final boolean skipCulledSkeletons;
+
 	public SpineSupport () {
+		this(1, false);
+	}
+
+	/**
+	 * Note that when more than one update thread is used, {@link AnimationStateListener}s (including listeners of
+	 * {@link TrackEntry}) are called from worker threads. Such listeners must not modify entities or engine and must not use
+	 * OpenGL, they should only store events that will be handled on rendering thread.
+	 * @param updateThreads count of threads used to pose skeletons, see {@link SpineUpdateSystem}
+	 * @param skipCulledSkeletons if true skeletons outside of camera view are not posed, requires culling to be enabled in
+	 * {@link RuntimeConfiguration}
+	 */
+	public SpineSupport (int updateThreads, boolean skipCulledSkeletons) {
+		this.updateThreads = updateThreads;
+		this.skipCulledSkeletons = skipCulledSkeletons;
 		skeletonRenderer = new SkeletonRenderer();
 	}
 
@@ -76,6 +96,7 @@ public class SpineSupport implements EntitySupport {
 	@Override
 	public void registerSystems (RuntimeConfiguration configuration, EntityEngineConfiguration engineConfig, AssetManager manager) {
 		RenderBatchingSystem renderBatchingSystem = engineConfig.getSystem(RenderBatchingSystem.class);
+		engineConfig.setSystem(new SpineUpdateSystem(updateThreads, skipCulledSkeletons), true);
 		engineConfig.setSystem(new SpineRenderSystem(renderBatchingSystem), true);
 		engineConfig.setSystem(new SpineInflaterSystem(configuration, manager));
 	}
@@ -0,0 +1,191 @@
+/*
+ * Spine Runtimes Software License
+ * Version 2.3
+ *
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.kotcrab.vis.plugin.spine.runtime;
+
+import com.artemis.Aspect;
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.EntitySystem;
+import com.artemis.annotations.Wire;
+import com.artemis.utils.ImmutableBag;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.esotericsoftware.spine.AnimationState.AnimationStateListener;
+import com.esotericsoftware.spine.AnimationState.TrackEntry;
+import com.kotcrab.vis.runtime.component.InvisibleComponent;
+import com.kotcrab.vis.runtime.system.CullingManager;
+import com.kotcrab.vis.runtime.system.CullingManager.BoundsProvider;
+import com.kotcrab.vis.runtime.util.SimulatedSystem;
+
+/**
+ * Updates animation state and poses skeletons of entities with {@link SpineComponent} using engine delta. Skeletons are
+ * rendered by {@link SpineRenderSystem}.
+ * <p>
+ * Skeletons are independent so when more than one thread is used they are split into chunks posed in parallel by worker
+ * threads, this system waits until all chunks are finished. Note that in such case {@link AnimationStateListener}s (including
+ * listeners of {@link TrackEntry}) are called from worker threads, possibly at the same time for different skeletons. Listeners
+ * must not modify entities or engine and must not use OpenGL, they should only store events that will be handled on rendering
+ * thread.
+ * <p>
+ * If culled skeletons are skipped and {@link CullingManager} is present, skeletons outside of camera view are not posed and
+ * their animations are paused until they become visible again. Bounds of posed skeletons are provided to {@link CullingManager}.
+ * @author Kotcrab
+ */
+@Wire(failOnNull = false)
+public class SpineUpdateSystem extends EntitySystem implements SimulatedSystem, BoundsProvider {
+	/** Minimal count of skeletons posed by single thread, smaller amounts aren't worth synchronization overhead */
+	private static final int MIN_CHUNK_SIZE = 8;
+
+	private ComponentMapper<SpineComponent> spineCm;
+	private CullingManager cullingManager;
+
+	private final int threads;
+	private final boolean skipCulled;
+
+	private AsyncExecutor executor;
+	private final Array<SpineComponent> posed = new Array<SpineComponent>();
+	private final Array<Entity> posedEntities = new Array<Entity>();
+	private final Array<PoseTask> tasks = new Array<PoseTask>();
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+
+	public SpineUpdateSystem () {
+		this(1, false);
+	}
+
+	/**
+	 * @param threads count of threads used to pose skeletons, if 1 or less skeletons are posed on calling thread. If greater
+	 * than 1 animation state listeners are called from worker threads.
+	 * @param skipCulled if true skeletons culled by {@link CullingManager} won't be posed, has no effect if culling is not used
+	 */
+	public SpineUpdateSystem (int threads, boolean skipCulled) {
+		super(Aspect.all(SpineComponent.class).exclude(InvisibleComponent.class));
+		this.threads = threads;
+		this.skipCulled = skipCulled;
+	}
+
+	@Override
+	protected void initialize () {
+		if (threads > 1) executor = new AsyncExecutor(threads);
+		if (skipCulled == false) cullingManager = null;
+		if (cullingManager != null) cullingManager.addBoundsProvider(this);
+	}
+
+	@Override
+	protected void processSystem () {
+		ImmutableBag<Entity> actives = getActives();
+		posed.clear();
+		posedEntities.clear();
+
+		for (int i = 0, size = actives.size(); i < size; i++) {
+			Entity entity = actives.get(i);
+			SpineComponent spine = spineCm.get(entity);
+
+			if (cullingManager != null && cullingManager.isVisible(entity) == false) {
+				if (spine.moveBounds()) cullingManager.markBoundsDirty(entity);
+				continue;
+			}
+
+			posed.add(spine);
+			posedEntities.add(entity);
+		}
+
+		float delta = world.getDelta();
+		int chunks = executor == null ? 1 : Math.min(threads, posed.size / MIN_CHUNK_SIZE);
+
+		if (chunks <= 1)
+			pose(posed, 0, posed.size, delta);
+		else
+			poseParallel(chunks, delta);
+
+		if (cullingManager != null) {
+			for (int i = 0; i < posed.size; i++) {
+				posed.get(i).updateBounds();
+				cullingManager.markBoundsDirty(posedEntities.get(i));
+			}
+		}
+	}
+
+	private void poseParallel (int chunks, float delta) {
+		while (tasks.size < chunks) tasks.add(new PoseTask());
+
+		int chunkSize = (posed.size + chunks - 1) / chunks;
+		for (int i = 0; i < chunks; i++) {
+			PoseTask task = tasks.get(i);
+			task.from = i * chunkSize;
+			task.to = Math.min(posed.size, task.from + chunkSize);
+			task.delta = delta;
+			results.add(executor.submit(task));
+		}
+
+		try {
+			for (int i = 0; i < results.size; i++)
+				results.get(i).get();
+		} finally {
+			results.clear();
+		}
+	}
+
+	private static void pose (Array<SpineComponent> components, int from, int to, float delta) {
+		for (int i = from; i < to; i++) {
+			SpineComponent spine = components.get(i);
+			spine.state.update(delta);
+			spine.state.apply(spine.skeleton); // Poses skeleton using current animations. This sets the bones' local SRT.
+			spine.skeleton.updateWorldTransform(); // Uses the bones' local SRT to compute their world SRT.
+		}
+	}
+
+	@Override
+	public Rectangle getBounds (Entity entity) {
+		SpineComponent spine = spineCm.getSafe(entity);
+		return spine == null ? null : spine.getBounds();
+	}
+
+	@Override
+	protected void dispose () {
+		if (executor != null) executor.dispose();
+	}
+
+	private class PoseTask implements AsyncTask<Void> {
+		int from;
+		int to;
+		float delta;
+
+		@Override
+		public Void call () throws Exception {
+			pose(posed, from, to, delta);
+			return null;
+		}
+	}
+}
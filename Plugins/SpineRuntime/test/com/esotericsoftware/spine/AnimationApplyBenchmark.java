@@ -0,0 +1,122 @@
+/*
+ * Spine Runtimes Software License
+ * Version 2.3
+ *
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esotericsoftware.spine;
+
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures applying animation during sequential playback with frame hints used by {@link Animation#cachedSearch} and with
+ * hints reset before every apply, which makes every timeline fall back to binary search. Run using
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ * -Dexec.args=AnimationApplyBenchmark}
+ * @author Kotcrab
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AnimationApplyBenchmark {
+	@Param({"10", "50"})
+	public int boneCount;
+
+	@Param({"10", "100"})
+	public int frameCount;
+
+	private Skeleton skeleton;
+	private Animation animation;
+	private float time;
+
+	@Setup(Level.Trial)
+	public void setUp () {
+		Random random = new Random(2015);
+
+		SkeletonData data = new SkeletonData();
+		BoneData root = new BoneData("root", null);
+		data.getBones().add(root);
+		for (int i = 1; i < boneCount; i++)
+			data.getBones().add(new BoneData("bone" + i, root));
+
+		Array<Timeline> timelines = new Array<Timeline>();
+		float duration = 0;
+
+		for (int i = 0; i < boneCount; i++) {
+			RotateTimeline rotate = new RotateTimeline(frameCount);
+			TranslateTimeline translate = new TranslateTimeline(frameCount);
+			rotate.setBoneIndex(i);
+			translate.setBoneIndex(i);
+
+			float frameTime = 0;
+			for (int frame = 0; frame < frameCount; frame++) {
+				rotate.setFrame(frame, frameTime, random.nextFloat() * 360);
+				translate.setFrame(frame, frameTime, random.nextFloat() * 10, random.nextFloat() * 10);
+				frameTime += 1 / 30f;
+			}
+
+			timelines.add(rotate);
+			timelines.add(translate);
+			duration = Math.max(duration, frameTime);
+		}
+
+		animation = new Animation("benchmark", timelines, duration);
+		data.getAnimations().add(animation);
+		skeleton = new Skeleton(data);
+	}
+
+	@Benchmark
+	public Skeleton applySequential () {
+		float lastTime = time;
+		time += 1 / 60f;
+		animation.apply(skeleton, lastTime, time, true, null);
+		return skeleton;
+	}
+
+	@Benchmark
+	public Skeleton applyWithoutHints () {
+		for (Timeline timeline : animation.getTimelines())
+			if (timeline instanceof CurveTimeline) ((CurveTimeline) timeline).lastFrameIndex = 0;
+
+		float lastTime = time;
+		time += 1 / 60f;
+		animation.apply(skeleton, lastTime, time, true, null);
+		return skeleton;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Spine Runtimes Software License
+ * Version 2.3
+ *
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.esotericsoftware.spine;
+
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that {@link Animation#cachedSearch(float[], float, int, int)} finds the same frames as
+ * {@link Animation#binarySearch(float[], float, int)} for any hint, and that timelines shared by multiple skeletons pose them
+ * the same way as timelines without hints.
+ * @author Kotcrab
+ */
+public class AnimationSearchTest {
+	private Random random = new Random(2015);
+
+	@Test
+	public void testCachedSearchMatchesBinarySearch () throws Exception {
+		int[] steps = {1, 2, 3, 5};
+
+		for (int round = 0; round < 500; round++) {
+			int step = steps[random.nextInt(steps.length)];
+			float[] values = createFrames(2 + random.nextInt(40), step, random.nextInt(4) == 0);
+			float first = values[0];
+			float last = values[values.length - step];
+			if (last <= first) continue;
+
+			int previous = 0;
+			float time = first;
+
+			for (int i = 0; i < 200; i++) {
+				//sequential playback with occasional jumps, loops and stale hints left by other skeletons
+				switch (random.nextInt(6)) {
+					case 0:
+						time = first + random.nextFloat() * (last - first);
+						break;
+					case 1:
+						previous = random.nextInt(values.length / step + 2) * step;
+						break;
+					default:
+						time += random.nextFloat() * (last - first) / 10;
+						if (time >= last) time = first;
+						break;
+				}
+
+				int expected = Animation.binarySearch(values, time, step);
+				int found = Animation.cachedSearch(values, time, step, previous);
+				assertEquals("Invalid frame for time " + time + " and hint " + previous, expected, found);
+				previous = found;
+			}
+		}
+	}
+
+	@Test
+	public void testSharedTimelinesPoseLikeFreshTimelines () throws Exception {
+		SkeletonData data = createSkeletonData(8, 30);
+		Animation animation = data.getAnimations().first();
+
+		Skeleton[] skeletons = new Skeleton[4];
+		float[] times = new float[skeletons.length];
+		for (int i = 0; i < skeletons.length; i++) {
+			skeletons[i] = new Skeleton(data);
+			times[i] = random.nextFloat() * animation.getDuration();
+		}
+
+		Skeleton reference = new Skeleton(data);
+
+		for (int frame = 0; frame < 2000; frame++) {
+			int index = random.nextInt(skeletons.length);
+			float lastTime = times[index];
+			times[index] += random.nextInt(10) == 0 ? random.nextFloat() * animation.getDuration() : random.nextFloat() / 30;
+
+			//poses are applied over setup pose so results depend only on frames found by timelines
+			Skeleton skeleton = skeletons[index];
+			skeleton.setToSetupPose();
+			animation.apply(skeleton, lastTime, times[index], true, null);
+
+			resetHints(animation);
+			reference.setToSetupPose();
+			animation.apply(reference, lastTime, times[index], true, null);
+
+			for (int i = 0; i < skeleton.getBones().size; i++) {
+				Bone bone = skeleton.getBones().get(i);
+				Bone referenceBone = reference.getBones().get(i);
+				assertEquals(referenceBone.getRotation(), bone.getRotation(), 0);
+				assertEquals(referenceBone.getX(), bone.getX(), 0);
+				assertEquals(referenceBone.getY(), bone.getY(), 0);
+			}
+		}
+	}
+
+	/** @return frames array with non decreasing times at every step index */
+	private float[] createFrames (int frameCount, int step, boolean duplicates) {
+		float[] values = new float[frameCount * step];
+		float time = random.nextFloat();
+
+		for (int i = 0; i < values.length; i += step) {
+			values[i] = time;
+			for (int j = 1; j < step; j++)
+				values[i + j] = random.nextFloat() * 100;
+			if (duplicates == false || random.nextBoolean()) time += 0.01f + random.nextFloat();
+		}
+
+		return values;
+	}
+
+	private SkeletonData createSkeletonData (int boneCount, int frameCount) {
+		SkeletonData data = new SkeletonData();
+		BoneData root = new BoneData("root", null);
+		data.getBones().add(root);
+		for (int i = 1; i < boneCount; i++)
+			data.getBones().add(new BoneData("bone" + i, root));
+
+		Array<Timeline> timelines = new Array<Timeline>();
+		float duration = 0;
+
+		for (int i = 0; i < boneCount; i++) {
+			RotateTimeline rotate = new RotateTimeline(frameCount);
+			TranslateTimeline translate = new TranslateTimeline(frameCount);
+			rotate.setBoneIndex(i);
+			translate.setBoneIndex(i);
+
+			float time = 0;
+			for (int frame = 0; frame < frameCount; frame++) {
+				rotate.setFrame(frame, time, random.nextFloat() * 360);
+				translate.setFrame(frame, time, random.nextFloat() * 10, random.nextFloat() * 10);
+				time += 0.05f + random.nextFloat() / 10;
+			}
+
+			timelines.add(rotate);
+			timelines.add(translate);
+			duration = Math.max(duration, time);
+		}
+
+		data.getAnimations().add(new Animation("test", timelines, duration));
+		return data;
+	}
+
+	private void resetHints (Animation animation) {
+		for (Timeline timeline : animation.getTimelines())
+			if (timeline instanceof CurveTimeline) ((CurveTimeline) timeline).lastFrameIndex = 0;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Spine Runtimes Software License
+ * Version 2.3
+ *
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.kotcrab.vis.plugin.spine.runtime;
+
+import com.artemis.World;
+import com.artemis.WorldConfiguration;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.BoneData;
+import com.esotericsoftware.spine.SkeletonData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares posing skeletons by {@link SpineUpdateSystem} on single thread and on multiple threads. Run using
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ * -Dexec.args=SpineUpdateSystemBenchmark}
+ * @author Kotcrab
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SpineUpdateSystemBenchmark {
+	@Param({"1", "2", "4"})
+	public int threads;
+
+	@Param({"100", "1000"})
+	public int skeletons;
+
+	private World world;
+
+	@Setup(Level.Trial)
+	public void setUp () {
+		Random random = new Random(2015);
+
+		SkeletonData data = new SkeletonData();
+		BoneData parent = null;
+		for (int i = 0; i < 20; i++) {
+			BoneData bone = new BoneData("bone" + i, parent);
+			data.getBones().add(bone);
+			parent = bone;
+		}
+
+		Array<Timeline> timelines = new Array<Timeline>();
+		for (int i = 0; i < data.getBones().size; i++) {
+			RotateTimeline rotate = new RotateTimeline(30);
+			rotate.setBoneIndex(i);
+			for (int frame = 0; frame < 30; frame++)
+				rotate.setFrame(frame, frame / 30f, random.nextFloat() * 360);
+			timelines.add(rotate);
+		}
+		data.getAnimations().add(new Animation("benchmark", timelines, 1));
+
+		world = new World(new WorldConfiguration().setSystem(new SpineUpdateSystem(threads, false)));
+		world.setDelta(1 / 60f);
+
+		for (int i = 0; i < skeletons; i++) {
+			SpineComponent spine = new SpineComponent(data);
+			spine.state.setAnimation(0, "benchmark", true);
+			spine.state.setTimeScale(0.5f + random.nextFloat());
+			world.createEntity().edit().add(spine);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown () {
+		world.dispose();
+	}
+
+	@Benchmark
+	public World pose () {
+		world.process();
+		return world;
+	}
+}
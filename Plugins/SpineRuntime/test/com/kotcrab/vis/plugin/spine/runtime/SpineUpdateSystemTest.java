@@ -0,0 +1,148 @@
+/*
+ * Spine Runtimes Software License
+ * Version 2.3
+ *
+ * Copyright (c) 2013-2015, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable and
+ * non-transferable license to use, install, execute and perform the Spine
+ * Runtimes Software (the "Software") and derivative works solely for personal
+ * or internal use. Without the written permission of Esoteric Software (see
+ * Section 2 of the Spine Software License Agreement), you may not (a) modify,
+ * translate, adapt or otherwise create derivative works, improvements of the
+ * Software or develop new applications using the Software or (b) remove,
+ * delete, alter or obscure any trademarks or any copyright, trademark, patent
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.kotcrab.vis.plugin.spine.runtime;
+
+import com.artemis.World;
+import com.artemis.WorldConfiguration;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.BoneData;
+import com.esotericsoftware.spine.SkeletonData;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that skeletons posed in parallel by {@link SpineUpdateSystem} have the same bone transforms as skeletons posed on
+ * single thread.
+ * @author Kotcrab
+ */
+public class SpineUpdateSystemTest {
+	private static final int SKELETONS = 100;
+
+	@Test
+	public void testParallelPoseMatchesSerialPose () throws Exception {
+		SkeletonData data = createSkeletonData(new Random(2015), 6, 20);
+
+		Array<SpineComponent> serial = new Array<SpineComponent>();
+		Array<SpineComponent> parallel = new Array<SpineComponent>();
+		World serialWorld = createWorld(new SpineUpdateSystem(1, false), data, serial);
+		World parallelWorld = createWorld(new SpineUpdateSystem(4, false), data, parallel);
+
+		try {
+			for (int frame = 0; frame < 120; frame++) {
+				serialWorld.setDelta(1 / 60f);
+				serialWorld.process();
+				parallelWorld.setDelta(1 / 60f);
+				parallelWorld.process();
+
+				for (int i = 0; i < SKELETONS; i++)
+					assertBonesEqual(serial.get(i).skeleton.getBones(), parallel.get(i).skeleton.getBones());
+			}
+		} finally {
+			serialWorld.dispose();
+			parallelWorld.dispose();
+		}
+	}
+
+	private World createWorld (SpineUpdateSystem system, SkeletonData data, Array<SpineComponent> components) {
+		World world = new World(new WorldConfiguration().setSystem(system));
+
+		for (int i = 0; i < SKELETONS; i++) {
+			SpineComponent spine = new SpineComponent(data);
+			spine.setPosition(i, -i);
+			spine.state.setAnimation(0, data.getAnimations().get(i % data.getAnimations().size), true);
+			spine.state.setTimeScale(0.5f + (i % 7) * 0.25f);
+			world.createEntity().edit().add(spine);
+			components.add(spine);
+		}
+
+		return world;
+	}
+
+	private void assertBonesEqual (Array<Bone> expected, Array<Bone> bones) {
+		for (int i = 0; i < expected.size; i++) {
+			Bone expectedBone = expected.get(i);
+			Bone bone = bones.get(i);
+			assertEquals(expectedBone.getWorldX(), bone.getWorldX(), 0);
+			assertEquals(expectedBone.getWorldY(), bone.getWorldY(), 0);
+			assertEquals(expectedBone.getWorldRotation(), bone.getWorldRotation(), 0);
+			assertEquals(expectedBone.getWorldScaleX(), bone.getWorldScaleX(), 0);
+			assertEquals(expectedBone.getWorldScaleY(), bone.getWorldScaleY(), 0);
+		}
+	}
+
+	/** @return skeleton with chain of bones and two animations rotating and translating every bone */
+	private SkeletonData createSkeletonData (Random random, int boneCount, int frameCount) {
+		SkeletonData data = new SkeletonData();
+		BoneData parent = null;
+		for (int i = 0; i < boneCount; i++) {
+			BoneData bone = new BoneData("bone" + i, parent);
+			bone.setLength(10);
+			data.getBones().add(bone);
+			parent = bone;
+		}
+
+		for (int animation = 0; animation < 2; animation++) {
+			Array<Timeline> timelines = new Array<Timeline>();
+			float duration = 0;
+
+			for (int i = 0; i < boneCount; i++) {
+				RotateTimeline rotate = new RotateTimeline(frameCount);
+				TranslateTimeline translate = new TranslateTimeline(frameCount);
+				rotate.setBoneIndex(i);
+				translate.setBoneIndex(i);
+
+				float time = 0;
+				for (int frame = 0; frame < frameCount; frame++) {
+					rotate.setFrame(frame, time, random.nextFloat() * 360);
+					translate.setFrame(frame, time, random.nextFloat() * 10, random.nextFloat() * 10);
+					time += 0.05f + random.nextFloat() / 10;
+				}
+
+				timelines.add(rotate);
+				timelines.add(translate);
+				duration = Math.max(duration, time);
+			}
+
+			data.getAnimations().add(new Animation("animation" + animation, timelines, duration));
+		}
+
+		return data;
+	}
+}
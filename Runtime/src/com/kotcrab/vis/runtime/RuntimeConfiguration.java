@@ -17,9 +17,25 @@
 package com.kotcrab.vis.runtime;
 
 import com.artemis.Entity;
+import com.badlogic.gdx.utils.Array;
 import com.kotcrab.vis.runtime.component.AssetComponent;
 import com.kotcrab.vis.runtime.component.GroupComponent;
+import com.kotcrab.vis.runtime.font.FontProvider;
+import com.kotcrab.vis.runtime.plugin.EntitySupport;
+import com.kotcrab.vis.runtime.scene.Scene;
+import com.kotcrab.vis.runtime.scene.SceneLoader;
+import com.kotcrab.vis.runtime.scene.VisAssetManager;
+import com.kotcrab.vis.runtime.system.ChunkManager;
+import com.kotcrab.vis.runtime.system.CullingManager;
+import com.kotcrab.vis.runtime.system.ParticleUpdateSystem;
+import com.kotcrab.vis.runtime.system.RenderBatchingSystem;
+import com.kotcrab.vis.runtime.system.SimulationSystem;
+import com.kotcrab.vis.runtime.system.SpriteInflater;
+import com.kotcrab.vis.runtime.system.StaticSpriteCacheManager;
 import com.kotcrab.vis.runtime.system.VisGroupManager;
+import com.kotcrab.vis.runtime.util.AfterSceneInit;
+import com.kotcrab.vis.runtime.util.SimulatedSystem;
+import com.kotcrab.vis.runtime.util.ThreadSafeDependencyResolver;
 
 /**
  * Holds runtime configurations values
@@ -38,4 +54,80 @@ public class RuntimeConfiguration {
 	 * stores all groups int ids) is not removed so it can be accessed if needed.
 	 */
 	public boolean useVisGroupManager = true;
+
+	/**
+	 * Controls whether {@link RenderBatchingSystem} should group entities with the same layer and zIndex by their shader,
+	 * texture and coordinate system to reduce number of batch flushes. Render order of overlapping entities with equal zIndex
+	 * is not defined when enabled. Default is false.
+	 */
+	public boolean useStateAwareRenderOrdering = false;
+
+	/**
+	 * Controls whether to add {@link CullingManager} into Artemis. When enabled sprites and texts outside of camera view are
+	 * not rendered. Transform changes made using component setters are tracked automatically, after changing transform in other
+	 * way {@link CullingManager#markBoundsDirty(Entity)} must be called. Default is false.
+	 */
+	public boolean useCulling = false;
+
+	/**
+	 * Size of single {@link CullingManager} grid cell in world units, used for world layers. If 0 or less, half of scene size is
+	 * used. Default is 0.
+	 */
+	public float cullingCellSize = 0;
+
+	/**
+	 * Controls whether {@link ParticleUpdateSystem} should skip updating particle effects culled by {@link CullingManager}, such
+	 * effects are paused until they become visible again. Used only if {@link #useCulling} is enabled. Default is false.
+	 */
+	public boolean skipCulledParticles = false;
+
+	/**
+	 * Names of layers whose sprites never move. Sprites from those layers are baked into SpriteCache by
+	 * {@link StaticSpriteCacheManager} after scene was initialized. Default is empty.
+	 */
+	public Array<String> staticLayers = new Array<String>();
+
+	/** Ids (set in VisEditor) of entities whose sprites never move, see {@link #staticLayers}. Default is empty. */
+	public Array<String> staticEntityIds = new Array<String>();
+
+	/**
+	 * Count of threads used by {@link SceneLoader} to read entities and resolve dependencies of JSON scenes with large amount of
+	 * entities. If 1 or less, entities are always read on loader thread. Threads are used only if all registered
+	 * {@link EntitySupport}s and {@link FontProvider}s implement {@link ThreadSafeDependencyResolver}, otherwise entities
+	 * are read on loader thread. Default is 4.
+	 */
+	public int dependencyResolverThreads = 4;
+
+	/**
+	 * Controls whether {@link SpriteInflater} should reuse sprites of deleted entities. Enable if entities with sprites are
+	 * often created and deleted at runtime. When enabled, sprite must not be used after it's entity was deleted. Default is false.
+	 */
+	public boolean useSpritePool = false;
+
+	/**
+	 * Time in milliseconds that {@link VisAssetManager#update()} can spend on activating (adding and inflating entities of)
+	 * loaded scenes during single call. When greater than 0 scene entities are activated in small chunks over multiple frames
+	 * and {@link AfterSceneInit} is called after last chunk, see {@link Scene#isActivated()}. If 0 or less entire scene is
+	 * activated at once. Default is 0.
+	 */
+	public float sceneActivationBudget = 0;
+
+	/**
+	 * Length of fixed simulation step in seconds used by {@link SimulationSystem} to update particles, skeleton animations and
+	 * other {@link SimulatedSystem}s, for example 1/30f. If 0 or less simulation is performed once per frame using frame delta.
+	 * Default is 0.
+	 */
+	public float simulationTimestep = 0;
+
+	/**
+	 * Max count of fixed simulation steps performed during single frame, time that could not be simulated is dropped. Used only
+	 * if {@link #simulationTimestep} is greater than 0. Default is 5.
+	 */
+	public int maxSimulationSteps = 5;
+
+	/**
+	 * Distance from camera view in world units in which {@link ChunkManager} loads chunks of scenes split into chunks, chunks
+	 * farther than twice this distance are unloaded. If 0 or less, half of chunk size is used. Default is 0.
+	 */
+	public float chunkLoadMargin = 0;
 }
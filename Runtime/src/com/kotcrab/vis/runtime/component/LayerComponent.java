@@ -17,9 +17,11 @@
 package com.kotcrab.vis.runtime.component;
 
 import com.artemis.Component;
+import com.kotcrab.vis.runtime.system.RenderBatchingSystem;
 
 /**
- * Stores entity layerId
+ * Stores entity layerId. {@link RenderBatchingSystem} packs layerId into 15 bits of render order key, layerId values outside of
+ * range from 0 to 32767 are clamped to that range.
  * @author Kotcrab
  */
 public class LayerComponent extends Component {
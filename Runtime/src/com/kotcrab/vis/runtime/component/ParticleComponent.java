@@ -18,6 +18,7 @@ package com.kotcrab.vis.runtime.component;
 
 import com.artemis.Component;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.kotcrab.vis.runtime.scene.Scene;
 import com.kotcrab.vis.runtime.util.UsesProtoComponent;
 
 /**
@@ -27,6 +28,11 @@ import com.kotcrab.vis.runtime.util.UsesProtoComponent;
 public class ParticleComponent extends Component implements UsesProtoComponent {
 	public transient ParticleEffect effect;
 	public boolean active = true;
+	/**
+	 * If true entity is deleted from world when effect is complete instead of restarting effect. Useful for one shot effects
+	 * obtained from {@link Scene#getParticleEffectPool(String)}, effect is returned to pool after entity was deleted.
+	 */
+	public boolean deleteOnComplete = false;
 
 	private ParticleComponent () {
 	}
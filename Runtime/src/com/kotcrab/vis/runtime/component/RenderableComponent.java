@@ -17,10 +17,12 @@
 package com.kotcrab.vis.runtime.component;
 
 import com.artemis.Component;
+import com.kotcrab.vis.runtime.system.RenderBatchingSystem;
 import com.kotcrab.vis.runtime.util.autotable.ATEntityProperty;
 
 /**
- * All renderable entities must have this component, stores entity zIndex
+ * All renderable entities must have this component, stores entity zIndex. {@link RenderBatchingSystem} packs zIndex into 24 bits
+ * of render order key, zIndex values outside of range from -2^23 to 2^23 - 1 are clamped to that range.
  * @author Kotcrab
  */
 public class RenderableComponent extends Component {
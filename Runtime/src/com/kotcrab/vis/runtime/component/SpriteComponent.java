@@ -21,20 +21,39 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Rectangle;
 import com.kotcrab.vis.runtime.accessor.*;
+import com.kotcrab.vis.runtime.system.CullingManager;
+import com.kotcrab.vis.runtime.util.BoundsListener;
 import com.kotcrab.vis.runtime.util.UsesProtoComponent;
 
 /**
- * Stores entity sprite
+ * Stores entity sprite. Transform changed directly using {@link #sprite} is not reported to {@link BoundsListener}.
  * @author Kotcrab
  */
 public class SpriteComponent extends Component implements BasicPropertiesAccessor, SizePropertiesAccessor, OriginPropertiesAccessor,
 		ScalePropertiesAccessor, ColorPropertiesAccessor, RotationPropertiesAccessor, FlipPropertiesAccessor, UsesProtoComponent {
 	public Sprite sprite;
 
+	private transient BoundsListener boundsListener;
+	private transient int boundsEntityId;
+
 	public SpriteComponent (Sprite sprite) {
 		this.sprite = sprite;
 	}
 
+	/**
+	 * Sets listener notified when bounds of this component are changed using it's setters. Used by {@link CullingManager}.
+	 * @param listener listener or null to remove it
+	 * @param entityId id of entity that this component belongs to
+	 */
+	public void setBoundsListener (BoundsListener listener, int entityId) {
+		this.boundsListener = listener;
+		this.boundsEntityId = entityId;
+	}
+
+	private void boundsChanged () {
+		if (boundsListener != null) boundsListener.boundsChanged(boundsEntityId);
+	}
+
 	@Override
 	public float getX () {
 		return sprite.getX();
@@ -43,6 +62,7 @@ public class SpriteComponent extends Component implements BasicPropertiesAccesso
 	@Override
 	public void setX (float x) {
 		sprite.setX(x);
+		boundsChanged();
 	}
 
 	@Override
@@ -53,11 +73,13 @@ public class SpriteComponent extends Component implements BasicPropertiesAccesso
 	@Override
 	public void setY (float y) {
 		sprite.setY(y);
+		boundsChanged();
 	}
 
 	@Override
 	public void setPosition (float x, float y) {
 		sprite.setPosition(x, y);
+		boundsChanged();
 	}
 
 	@Override
@@ -78,6 +100,7 @@ public class SpriteComponent extends Component implements BasicPropertiesAccesso
 	@Override
 	public void setSize (float width, float height) {
 		sprite.setSize(width, height);
+		boundsChanged();
 	}
 
 	@Override
@@ -93,6 +116,7 @@ public class SpriteComponent extends Component implements BasicPropertiesAccesso
 	@Override
 	public void setOrigin (float x, float y) {
 		sprite.setOrigin(x, y);
+		boundsChanged();
 	}
 
 	@Override
@@ -108,6 +132,7 @@ public class SpriteComponent extends Component implements BasicPropertiesAccesso
 	@Override
 	public void setScale (float x, float y) {
 		sprite.setScale(x, y);
+		boundsChanged();
 	}
 
 	@Override
@@ -128,6 +153,7 @@ public class SpriteComponent extends Component implements BasicPropertiesAccesso
 	@Override
 	public void setRotation (float rotation) {
 		sprite.setRotation(rotation);
+		boundsChanged();
 	}
 
 	@Override
@@ -18,45 +18,68 @@ package com.kotcrab.vis.runtime.component;
 
 import com.artemis.Component;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
 import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout.GlyphRun;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
-import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 import com.kotcrab.vis.runtime.accessor.*;
+import com.kotcrab.vis.runtime.system.CullingManager;
+import com.kotcrab.vis.runtime.util.BoundsListener;
 import com.kotcrab.vis.runtime.util.UsesProtoComponent;
 
+import java.util.Arrays;
+
 /**
- * Text component storing all text properties
+ * Text component storing all text properties. Glyph vertices from {@link BitmapFontCache} are transformed into world space
+ * when text or it's transform has changed so text can be drawn without changing batch transform matrix, see {@link #draw(Batch)}.
+ * <p>
+ * Setters only mark transform as changed, transform matrix, bounding rectangle and world vertices are recalculated when they
+ * are needed. Returned matrix and rectangle are reused by component and must not be modified.
  * @author Kotcrab
  */
 public class TextComponent extends Component implements BasicPropertiesAccessor, ScalePropertiesAccessor,
 		RotationPropertiesAccessor, OriginPropertiesAccessor, ColorPropertiesAccessor, UsesProtoComponent {
 	protected boolean distanceFieldShaderEnabled;
 
+	private static final int VERTICES_PER_GLYPH = 20;
+
 	private transient BitmapFontCache cache;
 	private transient GlyphLayout textLayout;
 
+	/** Glyph vertices transformed into world space, indexed by font page */
+	private transient float[][] worldVertices;
+	private transient int[] worldVerticesCounts;
+	private transient boolean worldVerticesDirty = true;
+
+	private transient Matrix4 translationMatrix;
+	private transient boolean translationMatrixDirty = true;
+	private transient Rectangle boundingRectangle;
+	private transient boolean boundingRectangleDirty = true;
+
+	private transient BoundsListener boundsListener;
+	private transient int boundsEntityId;
+
 	private float x = 0, y = 0;
 	private float originX = 0, originY = 0;
 	private float scaleX = 1, scaleY = 1;
 	private float rotation = 0;
 	private Color color = Color.WHITE;
-	private Rectangle boundingRectangle;
 	private boolean autoSetOriginToCenter = true;
-	public Matrix4 translationMatrix;
 	protected CharSequence text;
 
 	public TextComponent (BitmapFont bitmapFont, String text) {
 		this.text = text;
 
 		cache = new BitmapFontCache(bitmapFont);
-		translationMatrix = new Matrix4();
 		textLayout = new GlyphLayout();
 		setText(text);
-		if (autoSetOriginToCenter == true) setOriginCenter();
-		translate();
 	}
 
 	public TextComponent (TextComponent other) {
@@ -77,14 +100,98 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 		setText(text);
 	}
 
-	private void translate () {
-		translationMatrix.idt();
-		translationMatrix.translate(x + originX, y + originY, 0);
-		translationMatrix.rotate(0, 0, 1, rotation);
-		translationMatrix.scale(scaleX, scaleY, 1);
-		translationMatrix.translate(-originX, -originY, 0);
-		translationMatrix.translate(0, textLayout.height, 0);
-		calculateBoundingRectangle();
+	/** Marks transform matrix, bounding rectangle and world vertices as outdated, they will be recalculated when needed */
+	private void transformChanged () {
+		translationMatrixDirty = true;
+		boundingRectangleDirty = true;
+		worldVerticesDirty = true;
+		if (boundsListener != null) boundsListener.boundsChanged(boundsEntityId);
+	}
+
+	/**
+	 * Sets listener notified when bounds of this component are changed. Used by {@link CullingManager}.
+	 * @param listener listener or null to remove it
+	 * @param entityId id of entity that this component belongs to
+	 */
+	public void setBoundsListener (BoundsListener listener, int entityId) {
+		this.boundsListener = listener;
+		this.boundsEntityId = entityId;
+	}
+
+	/** @return matrix transforming text from it's local space into world space. Matrix is reused and must not be modified. */
+	public Matrix4 getTranslationMatrix () {
+		if (translationMatrix == null) translationMatrix = new Matrix4();
+
+		if (translationMatrixDirty) {
+			translationMatrixDirty = false;
+			translationMatrix.idt();
+			translationMatrix.translate(x + originX, y + originY, 0);
+			translationMatrix.rotate(0, 0, 1, rotation);
+			translationMatrix.scale(scaleX, scaleY, 1);
+			translationMatrix.translate(-originX, -originY, 0);
+			translationMatrix.translate(0, textLayout.height, 0);
+		}
+
+		return translationMatrix;
+	}
+
+	/** Draws text using vertices transformed into world space, batch transform matrix is not used and should be identity */
+	public void draw (Batch batch) {
+		if (worldVerticesDirty) updateWorldVertices();
+
+		Array<TextureRegion> regions = cache.getFont().getRegions();
+		for (int page = 0; page < worldVerticesCounts.length; page++) {
+			if (worldVerticesCounts[page] > 0)
+				batch.draw(regions.get(page).getTexture(), worldVertices[page], 0, worldVerticesCounts[page]);
+		}
+	}
+
+	/** Applies the same transformation as {@link #getTranslationMatrix()} to all glyph vertices stored in cache */
+	private void updateWorldVertices () {
+		worldVerticesDirty = false;
+
+		int pages = cache.getFont().getRegions().size;
+		if (worldVertices == null || worldVertices.length != pages) {
+			worldVertices = new float[pages][];
+			worldVerticesCounts = new int[pages];
+		}
+
+		Arrays.fill(worldVerticesCounts, 0);
+		Array<GlyphLayout> layouts = cache.getLayouts();
+		for (int i = 0; i < layouts.size; i++) {
+			Array<GlyphRun> runs = layouts.get(i).runs;
+			for (int j = 0; j < runs.size; j++) {
+				Array<Glyph> glyphs = runs.get(j).glyphs;
+				for (int k = 0; k < glyphs.size; k++)
+					worldVerticesCounts[glyphs.get(k).page] += VERTICES_PER_GLYPH;
+			}
+		}
+
+		float cos = MathUtils.cosDeg(rotation);
+		float sin = MathUtils.sinDeg(rotation);
+		float worldOriginX = x + originX;
+		float worldOriginY = y + originY;
+		float offsetX = -originX;
+		float offsetY = textLayout.height - originY;
+
+		for (int page = 0; page < pages; page++) {
+			int count = worldVerticesCounts[page];
+			if (count == 0) continue;
+
+			float[] local = cache.getVertices(page);
+			float[] world = worldVertices[page];
+			if (world == null || world.length < count) worldVertices[page] = world = new float[count];
+
+			for (int i = 0; i < count; i += 5) {
+				float localX = (local[i] + offsetX) * scaleX;
+				float localY = (local[i + 1] + offsetY) * scaleY;
+				world[i] = worldOriginX + localX * cos - localY * sin;
+				world[i + 1] = worldOriginY + localX * sin + localY * cos;
+				world[i + 2] = local[i + 2];
+				world[i + 3] = local[i + 3];
+				world[i + 4] = local[i + 4];
+			}
+		}
 	}
 
 	public BitmapFontCache getCache () {
@@ -93,16 +200,31 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 
 	protected void textChanged () {
 		if (autoSetOriginToCenter == true) setOriginCenter();
-		translate();
+		transformChanged();
 	}
 
+	/** Calculates bounding rectangle of text layout rectangle transformed around origin, same as libGDX Polygon would */
 	private void calculateBoundingRectangle () {
-		Polygon polygon = new Polygon(new float[]{0, 0, textLayout.width, 0, textLayout.width, textLayout.height, 0, textLayout.height});
-		polygon.setPosition(x, y);
-		polygon.setRotation(rotation);
-		polygon.setScale(scaleX, scaleY);
-		polygon.setOrigin(originX, originY);
-		boundingRectangle = polygon.getBoundingRectangle();
+		float cos = MathUtils.cosDeg(rotation);
+		float sin = MathUtils.sinDeg(rotation);
+		float left = -originX * scaleX;
+		float bottom = -originY * scaleY;
+		float right = (textLayout.width - originX) * scaleX;
+		float top = (textLayout.height - originY) * scaleY;
+		float worldOriginX = x + originX;
+		float worldOriginY = y + originY;
+
+		float x1 = left * cos - bottom * sin, y1 = left * sin + bottom * cos;
+		float x2 = right * cos - bottom * sin, y2 = right * sin + bottom * cos;
+		float x3 = right * cos - top * sin, y3 = right * sin + top * cos;
+		float x4 = left * cos - top * sin, y4 = left * sin + top * cos;
+
+		float minX = Math.min(Math.min(x1, x2), Math.min(x3, x4));
+		float minY = Math.min(Math.min(y1, y2), Math.min(y3, y4));
+		float maxX = Math.max(Math.max(x1, x2), Math.max(x3, x4));
+		float maxY = Math.max(Math.max(y1, y2), Math.max(y3, y4));
+
+		boundingRectangle.set(worldOriginX + minX, worldOriginY + minY, maxX - minX, maxY - minY);
 	}
 
 	public String getText () {
@@ -114,6 +236,7 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 		cache.clear();
 		textLayout = cache.setText(str, 0, 0);
 		cache.setColor(color);
+		worldVerticesDirty = true;
 		textChanged();
 	}
 
@@ -133,7 +256,7 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 	public void setPosition (float x, float y) {
 		this.x = x;
 		this.y = y;
-		translate();
+		transformChanged();
 	}
 
 	@Override
@@ -154,7 +277,7 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 	@Override
 	public void setX (float x) {
 		this.x = x;
-		translate();
+		transformChanged();
 	}
 
 	@Override
@@ -165,14 +288,14 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 	@Override
 	public void setY (float y) {
 		this.y = y;
-		translate();
+		transformChanged();
 	}
 
 	@Override
 	public void setOrigin (float originX, float originY) {
 		this.originX = originX;
 		this.originY = originY;
-		translate();
+		transformChanged();
 	}
 
 	@Override
@@ -189,13 +312,13 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 	public void setScale (float scaleX, float scaleY) {
 		this.scaleX = scaleX;
 		this.scaleY = scaleY;
-		translate();
+		transformChanged();
 	}
 
 	public void setScale (float scaleXY) {
 		scaleX = scaleXY;
 		scaleY = scaleXY;
-		translate();
+		transformChanged();
 	}
 
 	@Override
@@ -216,7 +339,7 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 	@Override
 	public void setRotation (float rotation) {
 		this.rotation = rotation;
-		translate();
+		transformChanged();
 	}
 
 	@Override
@@ -235,8 +358,16 @@ public class TextComponent extends Component implements BasicPropertiesAccessor,
 		setColor(new Color(r, g, b, a));
 	}
 
+	/** @return bounding rectangle of transformed text. Rectangle is reused and must not be modified. */
 	@Override
 	public Rectangle getBoundingRectangle () {
+		if (boundingRectangle == null) boundingRectangle = new Rectangle();
+
+		if (boundingRectangleDirty) {
+			boundingRectangleDirty = false;
+			calculateBoundingRectangle();
+		}
+
 		return boundingRectangle;
 	}
 
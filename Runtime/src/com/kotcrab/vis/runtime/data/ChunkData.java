@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.data;
+
+import com.badlogic.gdx.utils.Array;
+import com.kotcrab.vis.runtime.scene.SceneChunker;
+import com.kotcrab.vis.runtime.system.ChunkManager;
+
+/**
+ * Entities of single scene chunk stored in separate file, created by {@link SceneChunker} and streamed by {@link ChunkManager}.
+ * @author Kotcrab
+ */
+public class ChunkData {
+	/** Chunk coordinates, chunk covers area from x * chunkSize, y * chunkSize to (x + 1) * chunkSize, (y + 1) * chunkSize */
+	public int x, y;
+
+	/** Prefabs used by entities of this chunk, see {@link EntityData#prefab} */
+	public Array<EntityData> prefabs = new Array<EntityData>();
+
+	public Array<EntityData> entities = new Array<EntityData>();
+
+	public ChunkData () {
+	}
+
+	public ChunkData (int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+}
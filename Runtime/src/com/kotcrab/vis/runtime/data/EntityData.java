@@ -21,14 +21,21 @@ import com.artemis.Entity;
 import com.artemis.utils.EntityBuilder;
 import com.badlogic.gdx.utils.Array;
 import com.kotcrab.vis.runtime.util.EntityEngine;
+import com.kotcrab.vis.runtime.util.PrefabUtils;
 
 /**
- * Stores entity component, used for serializing.
+ * Stores entity component, used for serializing. If entity is prefab instance, components only contains components that
+ * are different from prefab, see {@link PrefabUtils}.
  * @author Kotcrab
  */
 public class EntityData {
 	public Array<Component> components;
 
+	/** Index of prefab in {@link SceneData#prefabs}, -1 if entity is not prefab instance */
+	public int prefab = -1;
+	/** Position of prefab instance */
+	public float x, y;
+
 	private EntityData () {
 	}
 
@@ -36,6 +43,18 @@ public class EntityData {
 		this.components = components;
 	}
 
+	/** Creates prefab instance */
+	public EntityData (int prefab, float x, float y, Array<Component> components) {
+		this.prefab = prefab;
+		this.x = x;
+		this.y = y;
+		this.components = components;
+	}
+
+	public boolean isPrefabInstance () {
+		return prefab != -1;
+	}
+
 	public Entity build (EntityEngine engine) {
 		EntityBuilder builder = new EntityBuilder(engine);
 
@@ -44,4 +63,16 @@ public class EntityData {
 
 		return builder.build();
 	}
+
+	/**
+	 * Builds entity that is prefab instance.
+	 * @param prefabs prefabs table of scene
+	 */
+	public Entity build (EntityEngine engine, Array<EntityData> prefabs) {
+		if (isPrefabInstance() == false) return build(engine);
+
+		EntityBuilder builder = new EntityBuilder(engine);
+		PrefabUtils.instantiate(builder, prefabs.get(prefab).components, components, x, y);
+		return builder.build();
+	}
 }
@@ -19,6 +19,7 @@ package com.kotcrab.vis.runtime.data;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntMap;
 import com.kotcrab.vis.runtime.scene.Scene;
+import com.kotcrab.vis.runtime.scene.SceneChunker;
 import com.kotcrab.vis.runtime.scene.SceneLoader;
 import com.kotcrab.vis.runtime.scene.SceneViewport;
 
@@ -36,5 +37,13 @@ public class SceneData {
 
 	public Array<LayerData> layers = new Array<LayerData>();
 
+	/** Components shared by many entities, see {@link EntityData#prefab} */
+	public Array<EntityData> prefabs = new Array<EntityData>();
+
 	public Array<EntityData> entities = new Array<EntityData>();
+
+	/** Size of single chunk in world units, 0 if scene isn't split into chunks, see {@link SceneChunker} */
+	public float chunkSize;
+	/** Coordinates of chunks stored in separate files as x, y pairs, null if scene isn't split into chunks */
+	public int[] chunks;
 }
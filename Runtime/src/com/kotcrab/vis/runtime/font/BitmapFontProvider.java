@@ -23,12 +23,13 @@ import com.badlogic.gdx.utils.Array;
 import com.kotcrab.vis.runtime.assets.BmpFontAsset;
 import com.kotcrab.vis.runtime.assets.VisAssetDescriptor;
 import com.kotcrab.vis.runtime.scene.SceneLoader;
+import com.kotcrab.vis.runtime.util.ThreadSafeDependencyResolver;
 
 /**
  * Bitmap font provider, allow to load distance field fonts. Enabled by default in {@link SceneLoader}.
  * @author Kotcrab
  */
-public class BitmapFontProvider implements FontProvider {
+public class BitmapFontProvider implements FontProvider, ThreadSafeDependencyResolver {
 	@Override
 	public void load (Array<AssetDescriptor> dependencies, VisAssetDescriptor asset) {
 		BmpFontAsset bmpAsset = (BmpFontAsset) asset;
@@ -28,13 +28,14 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader.FreeTypeFontLoa
 import com.badlogic.gdx.utils.Array;
 import com.kotcrab.vis.runtime.assets.TtfFontAsset;
 import com.kotcrab.vis.runtime.assets.VisAssetDescriptor;
+import com.kotcrab.vis.runtime.util.ThreadSafeDependencyResolver;
 
 /**
  * FreeType font provider. This is not enabled by default because FreeType dependencies may not be available is user doesn't add them.
  * To enable FreeType fonts you must call: {@code visAssetManger.enableFreeType(new FreeTypeFontProvider());}
  * @author Kotcrab
  */
-public class FreeTypeFontProvider implements FontProvider {
+public class FreeTypeFontProvider implements FontProvider, ThreadSafeDependencyResolver {
 	@Override
 	public void load (Array<AssetDescriptor> dependencies, VisAssetDescriptor asset) {
 		TtfFontAsset ttfAsset = (TtfFontAsset) asset;
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Constants of binary scene format written by {@link BinarySceneWriter} and read by {@link BinarySceneReader}. Layout of file:
+ * <pre>
+ * int magic, int version, int header length
+ * header: string table, component type table, asset table, generic components table, scene properties, layers, group ids,
+ *         chunk size and chunk coordinates, prefab count, entity count, sprite count, text count
+ * body:   sprite columns, text columns, prefab records, entity records
+ * </pre>
+ * Strings, types and assets are referenced by index in those tables. Sprite and text proto components are stored in columns
+ * (all x values, then all y values etc.) and consumed in order by prefab and entity records. Entity record starts with
+ * prefab index (0 if entity isn't prefab instance, index + 1 otherwise) followed by instance position for prefab instances.
+ * Components and assets that don't have built-in codec are stored as JSON in string table.
+ * @author Kotcrab
+ */
+final class BinarySceneFormat {
+	/** "VISB", can't be confused with JSON scene which starts with '{' */
+	static final int MAGIC = 0x56495342;
+	static final int VERSION = 1;
+
+	static final byte CODEC_GENERIC = 0;
+	static final byte CODEC_ASSET = 1;
+	static final byte CODEC_GROUP = 2;
+	static final byte CODEC_ID = 3;
+	static final byte CODEC_INVISIBLE = 4;
+	static final byte CODEC_LAYER = 5;
+	static final byte CODEC_RENDERABLE = 6;
+	static final byte CODEC_SPRITE_PROTO = 7;
+	static final byte CODEC_MUSIC_PROTO = 8;
+	static final byte CODEC_SOUND_PROTO = 9;
+	static final byte CODEC_PARTICLE_PROTO = 10;
+	static final byte CODEC_TEXT_PROTO = 11;
+	static final byte CODEC_SHADER_PROTO = 12;
+
+	static final byte ASSET_GENERIC = 0;
+	static final byte ASSET_PATH = 1;
+	static final byte ASSET_TEXTURE_REGION = 2;
+	static final byte ASSET_ATLAS_REGION = 3;
+	static final byte ASSET_BMP_FONT = 4;
+	static final byte ASSET_TTF_FONT = 5;
+	static final byte ASSET_SHADER = 6;
+
+	static final int FLAG_FLIP_X = 1;
+	static final int FLAG_FLIP_Y = 1 << 1;
+	static final int FLAG_AUTO_ORIGIN = 1;
+	static final int FLAG_DISTANCE_FIELD = 1 << 1;
+	static final int FLAG_BMP_FONT_PARAMETER = 1;
+	static final int FLAG_BMP_FONT_FLIP = 1 << 1;
+	static final int FLAG_BMP_FONT_MIP_MAPS = 1 << 2;
+
+	private BinarySceneFormat () {
+	}
+
+	/** @return true if file starts with binary scene magic, false if it's JSON scene */
+	static boolean isBinaryScene (FileHandle file) {
+		if (file.exists() == false || file.length() < 4) return false;
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(file.read());
+			return in.readInt() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			StreamUtils.closeQuietly(in);
+		}
+	}
+}
@@ -0,0 +1,504 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.artemis.Component;
+import com.artemis.utils.EntityBuilder;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader.BitmapFontParameter;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.utils.*;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.kotcrab.vis.runtime.assets.*;
+import com.kotcrab.vis.runtime.component.*;
+import com.kotcrab.vis.runtime.data.LayerData;
+import com.kotcrab.vis.runtime.data.SceneData;
+import com.kotcrab.vis.runtime.util.EntityEngine;
+import com.kotcrab.vis.runtime.util.PrefabUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import static com.kotcrab.vis.runtime.scene.BinarySceneFormat.*;
+
+/**
+ * Streaming reader of binary scene format written by {@link BinarySceneWriter}. Header (scene properties, layers, string,
+ * type and asset tables) is read when reader is created, this is enough to resolve scene dependencies. Entities are read
+ * directly from file and added to engine in {@link #build(EntityEngine)}, intermediate entity data is never created.
+ * @author Kotcrab
+ */
+public class BinarySceneReader {
+	private static final int BUFFER_SIZE = 8192;
+
+	private final FileHandle file;
+	private final Json json;
+
+	private int headerLength;
+
+	private String[] strings;
+	private byte[] codecs;
+	private Class[] genericTypes;
+	private Array<VisAssetDescriptor> assets;
+	private int[] genericComponents;
+
+	private SceneData data;
+	private int prefabCount;
+	private int entityCount;
+	private int spriteCount;
+	private int textCount;
+
+	public BinarySceneReader (FileHandle file, Json json) {
+		this.file = file;
+		this.json = json;
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(file.read(), BUFFER_SIZE));
+			readHeader(in);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error reading binary scene: " + file, e);
+		} finally {
+			StreamUtils.closeQuietly(in);
+		}
+	}
+
+	/** @return true if file is binary scene, false if it's JSON scene */
+	public static boolean isBinaryScene (FileHandle file) {
+		return BinarySceneFormat.isBinaryScene(file);
+	}
+
+	private void readHeader (DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) throw new GdxRuntimeException("File is not binary scene: " + file);
+		int version = in.readInt();
+		if (version != VERSION)
+			throw new GdxRuntimeException("Unsupported binary scene version: " + version + ", expected: " + VERSION);
+		headerLength = in.readInt();
+
+		strings = new String[readVarInt(in)];
+		for (int i = 0; i < strings.length; i++) {
+			byte[] bytes = new byte[readVarInt(in)];
+			in.readFully(bytes);
+			strings[i] = new String(bytes, "UTF-8");
+		}
+
+		int typeCount = readVarInt(in);
+		codecs = new byte[typeCount];
+		genericTypes = new Class[typeCount];
+		for (int i = 0; i < typeCount; i++) {
+			codecs[i] = in.readByte();
+			if (codecs[i] == CODEC_GENERIC) genericTypes[i] = forName(strings[readVarInt(in)]);
+		}
+
+		int assetCount = readVarInt(in);
+		assets = new Array<VisAssetDescriptor>(assetCount);
+		for (int i = 0; i < assetCount; i++)
+			assets.add(readAsset(in));
+
+		genericComponents = new int[readVarInt(in) * 2];
+		for (int i = 0; i < genericComponents.length; i++)
+			genericComponents[i] = readVarInt(in);
+
+		data = new SceneData();
+		data.viewport = SceneViewport.valueOf(strings[readVarInt(in)]);
+		data.width = in.readFloat();
+		data.height = in.readFloat();
+		data.pixelsPerUnit = in.readFloat();
+
+		int layerCount = readVarInt(in);
+		for (int i = 0; i < layerCount; i++) {
+			LayerCordsSystem cordsSystem = LayerCordsSystem.valueOf(strings[readVarInt(in)]);
+			String name = strings[readVarInt(in)];
+			data.layers.add(new LayerData(cordsSystem, name, in.readInt()));
+		}
+
+		int groupCount = readVarInt(in);
+		data.groupIds = new IntMap<String>(Math.max(groupCount, 1));
+		for (int i = 0; i < groupCount; i++) {
+			int key = in.readInt();
+			data.groupIds.put(key, strings[readVarInt(in)]);
+		}
+
+		data.chunkSize = in.readFloat();
+		int chunkValues = readVarInt(in);
+		if (chunkValues > 0) {
+			data.chunks = new int[chunkValues];
+			for (int i = 0; i < chunkValues; i++)
+				data.chunks[i] = in.readInt();
+		}
+
+		prefabCount = in.readInt();
+		entityCount = in.readInt();
+		spriteCount = in.readInt();
+		textCount = in.readInt();
+	}
+
+	private VisAssetDescriptor readAsset (DataInputStream in) throws IOException {
+		byte kind = in.readByte();
+
+		switch (kind) {
+			case ASSET_PATH:
+				return new PathAsset(strings[readVarInt(in)]);
+			case ASSET_TEXTURE_REGION:
+				return new TextureRegionAsset(strings[readVarInt(in)]);
+			case ASSET_ATLAS_REGION:
+				String atlasPath = strings[readVarInt(in)];
+				return new AtlasRegionAsset(atlasPath, readNullableString(in));
+			case ASSET_BMP_FONT:
+				String fontPath = strings[readVarInt(in)];
+				int flags = in.readByte();
+				if ((flags & FLAG_BMP_FONT_PARAMETER) == 0) return new BmpFontAsset(fontPath, null);
+
+				BitmapFontParameter parameter = new BitmapFontParameter();
+				parameter.flip = (flags & FLAG_BMP_FONT_FLIP) != 0;
+				parameter.genMipMaps = (flags & FLAG_BMP_FONT_MIP_MAPS) != 0;
+				String minFilter = readNullableString(in);
+				String magFilter = readNullableString(in);
+				parameter.minFilter = minFilter == null ? null : TextureFilter.valueOf(minFilter);
+				parameter.magFilter = magFilter == null ? null : TextureFilter.valueOf(magFilter);
+				parameter.atlasName = readNullableString(in);
+				return new BmpFontAsset(fontPath, parameter);
+			case ASSET_TTF_FONT:
+				String ttfPath = strings[readVarInt(in)];
+				return new TtfFontAsset(ttfPath, readVarInt(in));
+			case ASSET_SHADER:
+				String vertPath = strings[readVarInt(in)];
+				return new ShaderAsset(vertPath, strings[readVarInt(in)]);
+			case ASSET_GENERIC:
+				Class type = forName(strings[readVarInt(in)]);
+				return (VisAssetDescriptor) json.fromJson(type, strings[readVarInt(in)]);
+			default:
+				throw new GdxRuntimeException("Unknown asset kind in binary scene: " + kind);
+		}
+	}
+
+	/**
+	 * @return scene data with scene properties and layers, entities array is always empty, entities must be created using
+	 * {@link #build(EntityEngine)}
+	 */
+	public SceneData getSceneData () {
+		return data;
+	}
+
+	/** @return all assets used by scene entities, each asset is stored only once */
+	public Array<VisAssetDescriptor> getAssets () {
+		return assets;
+	}
+
+	/**
+	 * Creates new instances of all distinct components that don't have built-in binary codec (usually components from
+	 * plugins) so they can be checked for dependencies.
+	 */
+	public Array<Component> createGenericComponents () {
+		Array<Component> components = new Array<Component>(genericComponents.length / 2);
+		for (int i = 0; i < genericComponents.length; i += 2)
+			components.add(readGeneric(genericComponents[i], genericComponents[i + 1]));
+		return components;
+	}
+
+	public int getEntityCount () {
+		return entityCount;
+	}
+
+	/** Reads entities from scene file and adds them to engine */
+	public void build (EntityEngine engine) {
+		SceneEntitySource source = createEntitySource();
+		try {
+			source.buildNext(engine, entityCount);
+		} finally {
+			source.close();
+		}
+	}
+
+	/** @return source that reads entities from scene file in multiple steps, file stays open until source is closed */
+	SceneEntitySource createEntitySource () {
+		return new EntityReader();
+	}
+
+	private class EntityReader implements SceneEntitySource {
+		private DataInputStream in;
+		private Columns columns;
+		private Array<Component>[] prefabs;
+		private Array<Component> components = new Array<Component>();
+		private int index;
+
+		@Override
+		public int getEntityCount () {
+			return entityCount;
+		}
+
+		@Override
+		public int buildNext (EntityEngine engine, int count) {
+			int end = Math.min(index + count, entityCount);
+			int built = end - index;
+			if (built == 0) return 0;
+
+			try {
+				if (in == null) open();
+
+				for (; index < end; index++)
+					readEntity(engine);
+			} catch (IOException e) {
+				close();
+				throw new GdxRuntimeException("Error reading binary scene: " + file, e);
+			}
+
+			return built;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void open () throws IOException {
+			in = new DataInputStream(new BufferedInputStream(file.read(), BUFFER_SIZE));
+			skipFully(in, 12 + headerLength);
+
+			columns = new Columns(in, spriteCount, textCount);
+
+			prefabs = new Array[prefabCount];
+			for (int i = 0; i < prefabCount; i++) {
+				prefabs[i] = new Array<Component>();
+				readComponents(in, columns, prefabs[i]);
+			}
+		}
+
+		private void readEntity (EntityEngine engine) throws IOException {
+			EntityBuilder builder = new EntityBuilder(engine);
+			int prefab = readVarInt(in) - 1;
+
+			if (prefab == -1) {
+				components.clear();
+				readComponents(in, columns, components);
+				for (int i = 0; i < components.size; i++)
+					builder.with(components.get(i));
+			} else {
+				float x = in.readFloat();
+				float y = in.readFloat();
+				components.clear();
+				readComponents(in, columns, components);
+				PrefabUtils.instantiate(builder, prefabs[prefab], components, x, y);
+			}
+
+			builder.build();
+		}
+
+		@Override
+		public void close () {
+			StreamUtils.closeQuietly(in);
+			in = null;
+			columns = null;
+			prefabs = null;
+			index = entityCount;
+		}
+	}
+
+	private void readComponents (DataInputStream in, Columns columns, Array<Component> components) throws IOException {
+		int componentCount = readVarInt(in);
+
+		for (int c = 0; c < componentCount; c++) {
+			int typeIndex = readVarInt(in);
+
+			switch (codecs[typeIndex]) {
+				case CODEC_ASSET:
+					components.add(new AssetComponent(assets.get(readVarInt(in))));
+					break;
+				case CODEC_GROUP:
+					GroupComponent group = new GroupComponent();
+					int groupCount = readVarInt(in);
+					for (int i = 0; i < groupCount; i++)
+						group.groupIds.add(in.readInt());
+					components.add(group);
+					break;
+				case CODEC_ID:
+					components.add(new IDComponent(readNullableString(in)));
+					break;
+				case CODEC_INVISIBLE:
+					components.add(new InvisibleComponent());
+					break;
+				case CODEC_LAYER:
+					components.add(new LayerComponent(in.readInt()));
+					break;
+				case CODEC_RENDERABLE:
+					components.add(new RenderableComponent(in.readInt()));
+					break;
+				case CODEC_SPRITE_PROTO:
+					components.add(columns.nextSprite());
+					break;
+				case CODEC_TEXT_PROTO:
+					components.add(columns.nextText());
+					break;
+				case CODEC_MUSIC_PROTO:
+					MusicProtoComponent music = new MusicProtoComponent();
+					music.playOnStart = in.readBoolean();
+					music.looping = in.readBoolean();
+					music.volume = in.readFloat();
+					components.add(music);
+					break;
+				case CODEC_SOUND_PROTO:
+					components.add(new SoundProtoComponent());
+					break;
+				case CODEC_PARTICLE_PROTO:
+					ParticleProtoComponent particle = new ParticleProtoComponent();
+					particle.x = in.readFloat();
+					particle.y = in.readFloat();
+					particle.active = in.readBoolean();
+					components.add(particle);
+					break;
+				case CODEC_SHADER_PROTO:
+					int assetIndex = readVarInt(in);
+					components.add(new ShaderProtoComponent(assetIndex == 0 ? null : (ShaderAsset) assets.get(assetIndex - 1)));
+					break;
+				default:
+					components.add(readGeneric(typeIndex, readVarInt(in)));
+					break;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Component readGeneric (int typeIndex, int jsonIndex) {
+		return (Component) json.fromJson(genericTypes[typeIndex], strings[jsonIndex]);
+	}
+
+	private String readNullableString (DataInputStream in) throws IOException {
+		int index = readVarInt(in);
+		return index == 0 ? null : strings[index - 1];
+	}
+
+	/** Sprite and text proto columns, protos are created in the same order as they were written */
+	private class Columns {
+		private int spriteIndex;
+		private final float[] spriteX, spriteY, spriteWidth, spriteHeight;
+		private final float[] spriteOriginX, spriteOriginY, spriteRotation, spriteScaleX, spriteScaleY;
+		private final int[] spriteTint;
+		private final byte[] spriteFlags;
+
+		private int textIndex;
+		private final float[] textX, textY, textOriginX, textOriginY, textRotation, textScaleX, textScaleY;
+		private final int[] textTint;
+		private final String[] textText;
+		private final byte[] textFlags;
+
+		Columns (DataInputStream in, int spriteCount, int textCount) throws IOException {
+			spriteX = readFloats(in, spriteCount);
+			spriteY = readFloats(in, spriteCount);
+			spriteWidth = readFloats(in, spriteCount);
+			spriteHeight = readFloats(in, spriteCount);
+			spriteOriginX = readFloats(in, spriteCount);
+			spriteOriginY = readFloats(in, spriteCount);
+			spriteRotation = readFloats(in, spriteCount);
+			spriteScaleX = readFloats(in, spriteCount);
+			spriteScaleY = readFloats(in, spriteCount);
+			spriteTint = readInts(in, spriteCount);
+			spriteFlags = new byte[spriteCount];
+			in.readFully(spriteFlags);
+
+			textX = readFloats(in, textCount);
+			textY = readFloats(in, textCount);
+			textOriginX = readFloats(in, textCount);
+			textOriginY = readFloats(in, textCount);
+			textRotation = readFloats(in, textCount);
+			textScaleX = readFloats(in, textCount);
+			textScaleY = readFloats(in, textCount);
+			textTint = readInts(in, textCount);
+			textText = new String[textCount];
+			for (int i = 0; i < textCount; i++)
+				textText[i] = readNullableString(in);
+			textFlags = new byte[textCount];
+			in.readFully(textFlags);
+		}
+
+		SpriteProtoComponent nextSprite () {
+			int s = spriteIndex++;
+			SpriteProtoComponent sprite = new SpriteProtoComponent();
+			sprite.x = spriteX[s];
+			sprite.y = spriteY[s];
+			sprite.width = spriteWidth[s];
+			sprite.height = spriteHeight[s];
+			sprite.originX = spriteOriginX[s];
+			sprite.originY = spriteOriginY[s];
+			sprite.rotation = spriteRotation[s];
+			sprite.scaleX = spriteScaleX[s];
+			sprite.scaleY = spriteScaleY[s];
+			sprite.tint = new Color(spriteTint[s]);
+			sprite.flipX = (spriteFlags[s] & FLAG_FLIP_X) != 0;
+			sprite.flipY = (spriteFlags[s] & FLAG_FLIP_Y) != 0;
+			return sprite;
+		}
+
+		TextProtoComponent nextText () {
+			int t = textIndex++;
+			TextProtoComponent text = new TextProtoComponent();
+			text.x = textX[t];
+			text.y = textY[t];
+			text.originX = textOriginX[t];
+			text.originY = textOriginY[t];
+			text.rotation = textRotation[t];
+			text.scaleX = textScaleX[t];
+			text.scaleY = textScaleY[t];
+			text.tint = new Color(textTint[t]);
+			text.text = textText[t];
+			text.autoSetOriginToCenter = (textFlags[t] & FLAG_AUTO_ORIGIN) != 0;
+			text.isUsesDistanceField = (textFlags[t] & FLAG_DISTANCE_FIELD) != 0;
+			return text;
+		}
+	}
+
+	private static float[] readFloats (DataInputStream in, int count) throws IOException {
+		float[] values = new float[count];
+		for (int i = 0; i < count; i++)
+			values[i] = in.readFloat();
+		return values;
+	}
+
+	private static int[] readInts (DataInputStream in, int count) throws IOException {
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++)
+			values[i] = in.readInt();
+		return values;
+	}
+
+	private static void skipFully (DataInputStream in, int count) throws IOException {
+		while (count > 0) {
+			int skipped = in.skipBytes(count);
+			if (skipped <= 0) throw new GdxRuntimeException("Unexpected end of binary scene");
+			count -= skipped;
+		}
+	}
+
+	private static int readVarInt (DataInputStream in) throws IOException {
+		int result = 0;
+		int shift = 0;
+		int b;
+
+		do {
+			b = in.readUnsignedByte();
+			result |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+
+		return result;
+	}
+
+	private static Class forName (String name) {
+		try {
+			return ClassReflection.forName(name);
+		} catch (ReflectionException e) {
+			throw new GdxRuntimeException("Failed to find class of binary scene component or asset: " + name, e);
+		}
+	}
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.artemis.Component;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader.BitmapFontParameter;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.*;
+import com.kotcrab.vis.runtime.assets.*;
+import com.kotcrab.vis.runtime.component.*;
+import com.kotcrab.vis.runtime.data.EntityData;
+import com.kotcrab.vis.runtime.data.LayerData;
+import com.kotcrab.vis.runtime.data.SceneData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static com.kotcrab.vis.runtime.scene.BinarySceneFormat.*;
+
+/**
+ * Writes {@link SceneData} in binary scene format that can be loaded by {@link SceneLoader}, see {@link BinarySceneFormat}
+ * for format description. Single writer can be reused for multiple scenes but it's not thread safe.
+ * @author Kotcrab
+ */
+public class BinarySceneWriter {
+	private final Json json;
+
+	private final ObjectIntMap<String> stringIndexes = new ObjectIntMap<String>();
+	private final Array<String> strings = new Array<String>();
+
+	private final ObjectIntMap<Class<?>> typeIndexes = new ObjectIntMap<Class<?>>();
+	private final Array<Class<?>> types = new Array<Class<?>>();
+
+	private final ObjectIntMap<String> assetIndexes = new ObjectIntMap<String>();
+	private final ByteArrayOutputStream assetBytes = new ByteArrayOutputStream();
+	private final DataOutputStream assetOut = new DataOutputStream(assetBytes);
+	private int assetCount;
+
+	/** Pairs of type index and JSON string index of distinct generic components */
+	private final IntArray genericComponents = new IntArray();
+	private final ObjectSet<String> genericComponentKeys = new ObjectSet<String>();
+	private final Array<SpriteProtoComponent> sprites = new Array<SpriteProtoComponent>();
+	private final Array<TextProtoComponent> texts = new Array<TextProtoComponent>();
+
+	public BinarySceneWriter () {
+		this(SceneLoader.getJson());
+	}
+
+	/** @param json used to serialize components and assets that don't have built-in binary codec */
+	public BinarySceneWriter (Json json) {
+		this.json = json;
+	}
+
+	public void write (SceneData data, FileHandle file) {
+		OutputStream out = null;
+		try {
+			out = file.write(false);
+			write(data, out);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error writing binary scene: " + file, e);
+		} finally {
+			StreamUtils.closeQuietly(out);
+		}
+	}
+
+	public void write (SceneData data, OutputStream output) throws IOException {
+		reset();
+
+		ByteArrayOutputStream entityBytes = new ByteArrayOutputStream();
+		DataOutputStream entityOut = new DataOutputStream(entityBytes);
+		for (EntityData prefab : data.prefabs)
+			writeComponents(entityOut, prefab.components);
+		for (EntityData entityData : data.entities)
+			writeEntity(entityOut, entityData);
+
+		ByteArrayOutputStream propertiesBytes = new ByteArrayOutputStream();
+		writeProperties(new DataOutputStream(propertiesBytes), data);
+
+		ByteArrayOutputStream columnBytes = new ByteArrayOutputStream();
+		DataOutputStream columnOut = new DataOutputStream(columnBytes);
+		writeSpriteColumns(columnOut);
+		writeTextColumns(columnOut);
+
+		//all strings are known at this point
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream headerOut = new DataOutputStream(headerBytes);
+
+		writeVarInt(headerOut, strings.size);
+		for (String string : strings) {
+			byte[] bytes = string.getBytes("UTF-8");
+			writeVarInt(headerOut, bytes.length);
+			headerOut.write(bytes);
+		}
+
+		writeVarInt(headerOut, types.size);
+		for (Class<?> type : types) {
+			byte codec = getCodec(type);
+			headerOut.writeByte(codec);
+			if (codec == CODEC_GENERIC) writeVarInt(headerOut, string(type.getName()));
+		}
+
+		writeVarInt(headerOut, assetCount);
+		assetBytes.writeTo(headerOut);
+
+		writeVarInt(headerOut, genericComponents.size / 2);
+		for (int i = 0; i < genericComponents.size; i++)
+			writeVarInt(headerOut, genericComponents.get(i));
+
+		propertiesBytes.writeTo(headerOut);
+		headerOut.writeInt(data.prefabs.size);
+		headerOut.writeInt(data.entities.size);
+		headerOut.writeInt(sprites.size);
+		headerOut.writeInt(texts.size);
+
+		DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(headerBytes.size());
+		headerBytes.writeTo(out);
+		columnBytes.writeTo(out);
+		entityBytes.writeTo(out);
+		out.flush();
+
+		reset();
+	}
+
+	private void reset () {
+		stringIndexes.clear();
+		strings.clear();
+		typeIndexes.clear();
+		types.clear();
+		assetIndexes.clear();
+		assetBytes.reset();
+		assetCount = 0;
+		genericComponents.clear();
+		genericComponentKeys.clear();
+		sprites.clear();
+		texts.clear();
+	}
+
+	private void writeProperties (DataOutputStream out, SceneData data) throws IOException {
+		writeVarInt(out, string(data.viewport.name()));
+		out.writeFloat(data.width);
+		out.writeFloat(data.height);
+		out.writeFloat(data.pixelsPerUnit);
+
+		writeVarInt(out, data.layers.size);
+		for (LayerData layer : data.layers) {
+			writeVarInt(out, string(layer.cordsSystem.name()));
+			writeVarInt(out, string(layer.name));
+			out.writeInt(layer.id);
+		}
+
+		IntMap<String> groupIds = data.groupIds;
+		writeVarInt(out, groupIds == null ? 0 : groupIds.size);
+		if (groupIds != null) {
+			for (IntMap.Entry<String> entry : groupIds.entries()) {
+				out.writeInt(entry.key);
+				writeVarInt(out, string(entry.value));
+			}
+		}
+
+		out.writeFloat(data.chunkSize);
+		int[] chunks = data.chunks;
+		writeVarInt(out, chunks == null ? 0 : chunks.length);
+		if (chunks != null) {
+			for (int chunk : chunks)
+				out.writeInt(chunk);
+		}
+	}
+
+	private void writeEntity (DataOutputStream out, EntityData entityData) throws IOException {
+		writeVarInt(out, entityData.prefab + 1);
+		if (entityData.isPrefabInstance()) {
+			out.writeFloat(entityData.x);
+			out.writeFloat(entityData.y);
+		}
+
+		writeComponents(out, entityData.components);
+	}
+
+	private void writeComponents (DataOutputStream out, Array<Component> components) throws IOException {
+		if (components == null) {
+			writeVarInt(out, 0);
+			return;
+		}
+
+		writeVarInt(out, components.size);
+
+		for (Component component : components) {
+			int typeIndex = type(component.getClass());
+			writeVarInt(out, typeIndex);
+
+			switch (getCodec(component.getClass())) {
+				case CODEC_ASSET:
+					writeVarInt(out, asset(((AssetComponent) component).asset));
+					break;
+				case CODEC_GROUP:
+					IntArray groupIds = ((GroupComponent) component).groupIds;
+					writeVarInt(out, groupIds.size);
+					for (int i = 0; i < groupIds.size; i++)
+						out.writeInt(groupIds.get(i));
+					break;
+				case CODEC_ID:
+					writeNullableString(out, ((IDComponent) component).id);
+					break;
+				case CODEC_LAYER:
+					out.writeInt(((LayerComponent) component).layerId);
+					break;
+				case CODEC_RENDERABLE:
+					out.writeInt(((RenderableComponent) component).zIndex);
+					break;
+				case CODEC_SPRITE_PROTO:
+					sprites.add((SpriteProtoComponent) component);
+					break;
+				case CODEC_TEXT_PROTO:
+					TextProtoComponent text = (TextProtoComponent) component;
+					if (text.text != null) string(text.text); //text column is written after all strings are collected
+					texts.add(text);
+					break;
+				case CODEC_MUSIC_PROTO:
+					MusicProtoComponent music = (MusicProtoComponent) component;
+					out.writeBoolean(music.playOnStart);
+					out.writeBoolean(music.looping);
+					out.writeFloat(music.volume);
+					break;
+				case CODEC_PARTICLE_PROTO:
+					ParticleProtoComponent particle = (ParticleProtoComponent) component;
+					out.writeFloat(particle.x);
+					out.writeFloat(particle.y);
+					out.writeBoolean(particle.active);
+					break;
+				case CODEC_SHADER_PROTO:
+					ShaderAsset shader = ((ShaderProtoComponent) component).asset;
+					writeVarInt(out, shader == null ? 0 : asset(shader) + 1);
+					break;
+				case CODEC_INVISIBLE:
+				case CODEC_SOUND_PROTO:
+					break;
+				default:
+					int jsonIndex = string(json.toJson(component));
+					writeVarInt(out, jsonIndex);
+					if (genericComponentKeys.add(typeIndex + ":" + jsonIndex)) {
+						genericComponents.add(typeIndex);
+						genericComponents.add(jsonIndex);
+					}
+					break;
+			}
+		}
+	}
+
+	private void writeSpriteColumns (DataOutputStream out) throws IOException {
+		Array<SpriteProtoComponent> sprites = this.sprites;
+		int size = sprites.size;
+
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).x);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).y);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).width);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).height);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).originX);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).originY);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).rotation);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).scaleX);
+		for (int i = 0; i < size; i++) out.writeFloat(sprites.get(i).scaleY);
+		for (int i = 0; i < size; i++) out.writeInt(Color.rgba8888(sprites.get(i).tint));
+
+		for (int i = 0; i < size; i++) {
+			SpriteProtoComponent sprite = sprites.get(i);
+			out.writeByte((sprite.flipX ? FLAG_FLIP_X : 0) | (sprite.flipY ? FLAG_FLIP_Y : 0));
+		}
+	}
+
+	private void writeTextColumns (DataOutputStream out) throws IOException {
+		Array<TextProtoComponent> texts = this.texts;
+		int size = texts.size;
+
+		for (int i = 0; i < size; i++) out.writeFloat(texts.get(i).x);
+		for (int i = 0; i < size; i++) out.writeFloat(texts.get(i).y);
+		for (int i = 0; i < size; i++) out.writeFloat(texts.get(i).originX);
+		for (int i = 0; i < size; i++) out.writeFloat(texts.get(i).originY);
+		for (int i = 0; i < size; i++) out.writeFloat(texts.get(i).rotation);
+		for (int i = 0; i < size; i++) out.writeFloat(texts.get(i).scaleX);
+		for (int i = 0; i < size; i++) out.writeFloat(texts.get(i).scaleY);
+		for (int i = 0; i < size; i++) out.writeInt(Color.rgba8888(texts.get(i).tint));
+		for (int i = 0; i < size; i++) writeNullableString(out, texts.get(i).text);
+
+		for (int i = 0; i < size; i++) {
+			TextProtoComponent text = texts.get(i);
+			out.writeByte((text.autoSetOriginToCenter ? FLAG_AUTO_ORIGIN : 0) | (text.isUsesDistanceField ? FLAG_DISTANCE_FIELD : 0));
+		}
+	}
+
+	/** @return index of asset in asset table, asset is added to table if it wasn't stored before */
+	private int asset (VisAssetDescriptor asset) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		Class<?> type = asset.getClass();
+
+		if (type == PathAsset.class) {
+			out.writeByte(ASSET_PATH);
+			writeVarInt(out, string(((PathAsset) asset).getPath()));
+
+		} else if (type == TextureRegionAsset.class) {
+			out.writeByte(ASSET_TEXTURE_REGION);
+			writeVarInt(out, string(((TextureRegionAsset) asset).getPath()));
+
+		} else if (type == AtlasRegionAsset.class) {
+			AtlasRegionAsset regionAsset = (AtlasRegionAsset) asset;
+			out.writeByte(ASSET_ATLAS_REGION);
+			writeVarInt(out, string(regionAsset.getPath()));
+			writeNullableString(out, regionAsset.getRegionName());
+
+		} else if (type == BmpFontAsset.class) {
+			BmpFontAsset fontAsset = (BmpFontAsset) asset;
+			BitmapFontParameter parameter = fontAsset.getFontParameter();
+			out.writeByte(ASSET_BMP_FONT);
+			writeVarInt(out, string(fontAsset.getPath()));
+
+			if (parameter == null)
+				out.writeByte(0);
+			else {
+				out.writeByte(FLAG_BMP_FONT_PARAMETER | (parameter.flip ? FLAG_BMP_FONT_FLIP : 0) | (parameter.genMipMaps ? FLAG_BMP_FONT_MIP_MAPS : 0));
+				writeNullableString(out, parameter.minFilter == null ? null : parameter.minFilter.name());
+				writeNullableString(out, parameter.magFilter == null ? null : parameter.magFilter.name());
+				writeNullableString(out, parameter.atlasName);
+			}
+
+		} else if (type == TtfFontAsset.class) {
+			TtfFontAsset fontAsset = (TtfFontAsset) asset;
+			out.writeByte(ASSET_TTF_FONT);
+			writeVarInt(out, string(fontAsset.getPath()));
+			writeVarInt(out, fontAsset.getFontSize());
+
+		} else if (type == ShaderAsset.class) {
+			ShaderAsset shaderAsset = (ShaderAsset) asset;
+			out.writeByte(ASSET_SHADER);
+			writeVarInt(out, string(shaderAsset.getVertPath()));
+			writeVarInt(out, string(shaderAsset.getFragPath()));
+
+		} else {
+			out.writeByte(ASSET_GENERIC);
+			writeVarInt(out, string(type.getName()));
+			writeVarInt(out, string(json.toJson(asset)));
+		}
+
+		//encoded asset is it's own identity, equal assets are stored only once
+		String key = new String(bytes.toByteArray(), "ISO-8859-1");
+		int index = assetIndexes.get(key, -1);
+		if (index != -1) return index;
+
+		index = assetCount++;
+		assetIndexes.put(key, index);
+		bytes.writeTo(assetOut);
+		return index;
+	}
+
+	private int string (String string) {
+		int index = stringIndexes.get(string, -1);
+		if (index != -1) return index;
+
+		index = strings.size;
+		strings.add(string);
+		stringIndexes.put(string, index);
+		return index;
+	}
+
+	private int type (Class<?> type) {
+		int index = typeIndexes.get(type, -1);
+		if (index != -1) return index;
+
+		index = types.size;
+		types.add(type);
+		typeIndexes.put(type, index);
+		if (getCodec(type) == CODEC_GENERIC) string(type.getName());
+		return index;
+	}
+
+	private void writeNullableString (DataOutputStream out, String string) throws IOException {
+		writeVarInt(out, string == null ? 0 : string(string) + 1);
+	}
+
+	private static byte getCodec (Class<?> type) {
+		if (type == AssetComponent.class) return CODEC_ASSET;
+		if (type == GroupComponent.class) return CODEC_GROUP;
+		if (type == IDComponent.class) return CODEC_ID;
+		if (type == InvisibleComponent.class) return CODEC_INVISIBLE;
+		if (type == LayerComponent.class) return CODEC_LAYER;
+		if (type == RenderableComponent.class) return CODEC_RENDERABLE;
+		if (type == SpriteProtoComponent.class) return CODEC_SPRITE_PROTO;
+		if (type == MusicProtoComponent.class) return CODEC_MUSIC_PROTO;
+		if (type == SoundProtoComponent.class) return CODEC_SOUND_PROTO;
+		if (type == ParticleProtoComponent.class) return CODEC_PARTICLE_PROTO;
+		if (type == TextProtoComponent.class) return CODEC_TEXT_PROTO;
+		if (type == ShaderProtoComponent.class) return CODEC_SHADER_PROTO;
+		return CODEC_GENERIC;
+	}
+
+	private static void writeVarInt (DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		out.writeByte(value);
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.kotcrab.vis.runtime.data.ChunkData;
+import com.kotcrab.vis.runtime.scene.ChunkLoader.ChunkParameter;
+import com.kotcrab.vis.runtime.system.ChunkManager;
+
+/**
+ * Loads chunk files created by {@link SceneChunker} for {@link ChunkManager}. Chunk is read and it's dependencies are resolved
+ * the same way as scene dependencies are resolved by {@link SceneLoader}, entities are not created by loader.
+ * @author Kotcrab
+ */
+public class ChunkLoader extends AsynchronousAssetLoader<ChunkData, ChunkParameter> {
+	private SceneLoader sceneLoader;
+	private ChunkData data;
+
+	public ChunkLoader (FileHandleResolver resolver, SceneLoader sceneLoader) {
+		super(resolver);
+		this.sceneLoader = sceneLoader;
+	}
+
+	@Override
+	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, ChunkParameter parameter) {
+		JsonValue root = new JsonReader().parse(file);
+		Array<JsonValue> entities = SceneLoader.detachEntities(root);
+		data = SceneLoader.getJson().readValue(ChunkData.class, root);
+		return sceneLoader.resolveDependencies(data.prefabs, entities, data.entities);
+	}
+
+	@Override
+	public void loadAsync (AssetManager manager, String fileName, FileHandle file, ChunkParameter parameter) {
+	}
+
+	@Override
+	public ChunkData loadSync (AssetManager manager, String fileName, FileHandle file, ChunkParameter parameter) {
+		ChunkData data = this.data;
+		this.data = null;
+		return data;
+	}
+
+	static public class ChunkParameter extends AssetLoaderParameters<ChunkData> {
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.badlogic.gdx.utils.Array;
+import com.kotcrab.vis.runtime.data.EntityData;
+import com.kotcrab.vis.runtime.util.EntityEngine;
+
+/**
+ * {@link SceneEntitySource} of JSON scene, builds entities from {@link EntityData} list.
+ * @author Kotcrab
+ */
+class EntityDataSource implements SceneEntitySource {
+	private Array<EntityData> entities;
+	private Array<EntityData> prefabs;
+	private int index;
+
+	public EntityDataSource (Array<EntityData> entities, Array<EntityData> prefabs) {
+		this.entities = entities;
+		this.prefabs = prefabs;
+	}
+
+	@Override
+	public int getEntityCount () {
+		return entities.size;
+	}
+
+	@Override
+	public int buildNext (EntityEngine engine, int count) {
+		int end = Math.min(index + count, entities.size);
+		int built = end - index;
+
+		for (; index < end; index++)
+			entities.get(index).build(engine, prefabs);
+
+		return built;
+	}
+
+	@Override
+	public void close () {
+		index = entities.size;
+	}
+}
@@ -17,12 +17,18 @@
 package com.kotcrab.vis.runtime.scene;
 
 import com.artemis.BaseSystem;
+import com.artemis.InvocationStrategy;
 import com.artemis.Manager;
+import com.artemis.SystemInvocationStrategy;
+import com.artemis.utils.Bag;
 import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.kotcrab.vis.runtime.RuntimeConfiguration;
 import com.kotcrab.vis.runtime.RuntimeContext;
 import com.kotcrab.vis.runtime.data.LayerData;
@@ -30,23 +36,29 @@ import com.kotcrab.vis.runtime.data.SceneData;
 import com.kotcrab.vis.runtime.plugin.EntitySupport;
 import com.kotcrab.vis.runtime.scene.SceneLoader.SceneParameter;
 import com.kotcrab.vis.runtime.system.*;
-import com.kotcrab.vis.runtime.util.AfterSceneInit;
-import com.kotcrab.vis.runtime.util.ArtemisUtils;
-import com.kotcrab.vis.runtime.util.EntityEngine;
-import com.kotcrab.vis.runtime.util.EntityEngineConfiguration;
+import com.kotcrab.vis.runtime.util.*;
 
 /**
  * Base class of VisRuntime scene system. Scene are typically constructed using {@link VisAssetManager} with {@link SceneLoader}
  * @author Kotcrab
  */
-public class Scene {
+public class Scene implements Disposable {
+	/** Count of entities added to engine at once during time sliced activation */
+	private static final int ACTIVATION_CHUNK_SIZE = 64;
+
 	private CameraManager cameraManager;
 	private EntityEngine engine;
 
 	private Array<LayerData> layerData;
 
+	private SceneEntitySource pendingEntities;
+	private int activatedEntities;
+	private boolean activated;
+
+	private EngineMetrics metrics;
+
 	/** Used by framework, not indented for external use */
-	public Scene (RuntimeContext context, SceneData data, SceneParameter parameter) {
+	public Scene (RuntimeContext context, String scenePath, SceneData data, SceneParameter parameter) {
 		layerData = data.layers;
 
 		AssetManager assetsManager = context.assetsManager;
@@ -66,6 +78,11 @@ public class Scene {
 
 		engineConfig.setManager(new LayerManager(data.layers));
 
+		if (runtimeConfig.useCulling) engineConfig.setManager(new CullingManager(runtimeConfig.cullingCellSize));
+
+		if (runtimeConfig.staticLayers.size > 0 || runtimeConfig.staticEntityIds.size > 0)
+			engineConfig.setManager(new StaticSpriteCacheManager(runtimeConfig));
+
 		engineConfig.setManager(new SpriteInflater(runtimeConfig, assetsManager));
 		engineConfig.setManager(new SoundInflater(runtimeConfig, assetsManager));
 		engineConfig.setManager(new MusicInflater(runtimeConfig, assetsManager));
@@ -73,8 +90,15 @@ public class Scene {
 		engineConfig.setManager(new TextInflater(runtimeConfig, assetsManager, data.pixelsPerUnit));
 		engineConfig.setManager(new ShaderInflater(assetsManager));
 
+		if (data.chunkSize > 0 && data.chunks != null)
+			engineConfig.setSystem(new ChunkManager(assetsManager, scenePath, data.chunkSize, data.chunks, runtimeConfig.chunkLoadMargin));
+
+		engineConfig.setSystem(new SimulationSystem(runtimeConfig.simulationTimestep, runtimeConfig.maxSimulationSteps));
+		engineConfig.setSystem(new ParticleUpdateSystem(false, runtimeConfig.skipCulledParticles), true);
+
 		ArtemisUtils.createCommonSystems(engineConfig, context.batch, distanceFieldShader, false);
-		engineConfig.setSystem(new ParticleRenderSystem(engineConfig.getSystem(RenderBatchingSystem.class), false), true);
+		engineConfig.getSystem(RenderBatchingSystem.class).setStateAwareOrdering(runtimeConfig.useStateAwareRenderOrdering);
+		engineConfig.setSystem(new ParticleRenderSystem(engineConfig.getSystem(RenderBatchingSystem.class)), true);
 
 		for (EntitySupport support : context.supports) {
 			support.registerSystems(runtimeConfig, engineConfig, assetsManager);
@@ -94,7 +118,71 @@ public class Scene {
 	/** Called by framework right after loading scene to finish loading scene and inflate all entities */
 	public void init () {
 		engine.process();
+		activated = true;
+		afterSceneInit();
+	}
+
+	/**
+	 * Starts time sliced activation, entities from source are added to engine and inflated by {@link #activate(long)}. Systems
+	 * are not processed until activation is finished.
+	 */
+	void beginActivation (SceneEntitySource source) {
+		pendingEntities = source;
+		engine.setInvocationStrategy(new InflateOnlyInvocationStrategy());
+	}
+
+	/**
+	 * Adds and inflates next chunks of pending entities until time budget is used. At least one chunk is always processed.
+	 * {@link AfterSceneInit} is called after last chunk was inflated.
+	 * @param budget time budget in nanoseconds
+	 * @return true if scene is fully activated
+	 */
+	boolean activate (long budget) {
+		if (activated) return true;
+		if (pendingEntities == null) throw new IllegalStateException("Scene activation was not started");
+
+		long start = TimeUtils.nanoTime();
+
+		do {
+			int built = pendingEntities.buildNext(engine, ACTIVATION_CHUNK_SIZE);
+			activatedEntities += built;
+			engine.process();
+
+			if (built == 0) {
+				finishActivation();
+				return true;
+			}
+		} while (TimeUtils.nanoTime() - start < budget);
+
+		return false;
+	}
+
+	private void finishActivation () {
+		pendingEntities.close();
+		pendingEntities = null;
+		activated = true;
+		engine.setInvocationStrategy(createInvocationStrategy());
+		afterSceneInit();
+	}
+
+	/** @return true if scene is during time sliced activation, see {@link RuntimeConfiguration#sceneActivationBudget} */
+	boolean isActivating () {
+		return pendingEntities != null;
+	}
+
+	/** @return true if all entities were inflated and scene can be rendered */
+	public boolean isActivated () {
+		return activated;
+	}
+
+	/** @return activation progress from 0 to 1, see {@link RuntimeConfiguration#sceneActivationBudget} */
+	public float getActivationProgress () {
+		if (activated) return 1;
+		if (pendingEntities == null || pendingEntities.getEntityCount() == 0) return 0;
+		return Math.min(activatedEntities / (float) pendingEntities.getEntityCount(), 1);
+	}
 
+	private void afterSceneInit () {
 		for (BaseSystem system : engine.getSystems()) {
 			if (system instanceof AfterSceneInit) {
 				((AfterSceneInit) system).afterSceneInit();
@@ -108,12 +196,59 @@ public class Scene {
 		}
 	}
 
+	/**
+	 * Enables recording of per frame metrics such as process time of every system, batch flushes and culled entities. Metrics
+	 * of previous {@link #enableMetrics(int)} call are discarded.
+	 * @param capacity count of last frames kept in returned metrics buffer
+	 * @return buffer of recorded frames, also available from {@link #getMetrics()}
+	 */
+	public EngineMetrics enableMetrics (int capacity) {
+		metrics = new EngineMetrics(engine, capacity);
+		if (isActivating() == false) engine.setInvocationStrategy(createInvocationStrategy());
+		return metrics;
+	}
+
+	/** Stops recording metrics, see {@link #enableMetrics(int)} */
+	public void disableMetrics () {
+		if (metrics == null) return;
+		metrics = null;
+		if (isActivating() == false) engine.setInvocationStrategy(createInvocationStrategy());
+	}
+
+	/** @return metrics buffer if metrics are enabled, null otherwise. See {@link #enableMetrics(int)} */
+	public EngineMetrics getMetrics () {
+		return metrics;
+	}
+
+	private SystemInvocationStrategy createInvocationStrategy () {
+		return metrics != null ? metrics.createInvocationStrategy() : new InvocationStrategy();
+	}
+
 	/** Updates and renders entire scene. Typically called from {@link ApplicationListener#render()} */
 	public void render () {
-		engine.setDelta(Gdx.graphics.getDeltaTime());
+		render(Gdx.graphics.getDeltaTime());
+	}
+
+	/**
+	 * Updates and renders entire scene using custom delta. Can be used to pause (delta 0) or slow down scene simulation.
+	 * @param delta time in seconds since last frame
+	 */
+	public void render (float delta) {
+		engine.setDelta(delta);
 		engine.process();
 	}
 
+	/** Disposes entity engine and resources owned by it's systems. Called by {@link AssetManager} when scene is unloaded. */
+	@Override
+	public void dispose () {
+		if (pendingEntities != null) {
+			pendingEntities.close();
+			pendingEntities = null;
+		}
+
+		engine.dispose();
+	}
+
 	/** Must by called when screen was resized. Typically called from {@link ApplicationListener#resize(int, int)} */
 	public void resize (int width, int height) {
 		cameraManager.resize(width, height);
@@ -126,4 +261,21 @@ public class Scene {
 	public EntityEngine getEntityEngine () {
 		return engine;
 	}
+
+	/**
+	 * Returns pool of particle effects loaded from given file. Effects are scaled by scene pixels per unit and are returned to
+	 * pool when entity using them is deleted. See {@link ParticleInflater#getPool(String)}.
+	 */
+	public ParticleEffectPool getParticleEffectPool (String path) {
+		return engine.getManager(ParticleInflater.class).getPool(path);
+	}
+
+	/** Only updates entities states so added entities are inflated by managers, systems are not processed */
+	private static class InflateOnlyInvocationStrategy extends SystemInvocationStrategy {
+		@Override
+		protected void process (Bag<BaseSystem> systems) {
+			//managers may create or change entities while inflating
+			updateEntityStates();
+		}
+	}
 }
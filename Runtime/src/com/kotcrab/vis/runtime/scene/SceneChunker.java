@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.artemis.Component;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.LongMap;
+import com.kotcrab.vis.runtime.component.LayerComponent;
+import com.kotcrab.vis.runtime.data.ChunkData;
+import com.kotcrab.vis.runtime.data.EntityData;
+import com.kotcrab.vis.runtime.data.LayerData;
+import com.kotcrab.vis.runtime.data.SceneData;
+import com.kotcrab.vis.runtime.system.ChunkManager;
+import com.kotcrab.vis.runtime.util.PrefabUtils;
+
+/**
+ * Splits scene into square chunks that are streamed at runtime by {@link ChunkManager}. Entity is moved to chunk containing
+ * it's position, only entities with position (see {@link PrefabUtils#isPositioned(Class)}) on world coordinates layers are
+ * moved. Other entities such as sounds, music or entities on screen layers stay in scene file and are always loaded.
+ * <p>
+ * Chunks are meant to be used at export time, each chunk must be written as JSON to file returned by
+ * {@link #getChunkPath(String, int, int)}.
+ * @author Kotcrab
+ */
+public class SceneChunker {
+	/** @return path of chunk file for scene file */
+	public static String getChunkPath (String scenePath, int x, int y) {
+		return scenePath + "." + x + "_" + y + ".chunk";
+	}
+
+	/**
+	 * Moves positioned entities of scene into chunks, sets {@link SceneData#chunkSize} and {@link SceneData#chunks}. Prefabs
+	 * used by chunk entities are copied into chunks, scene prefabs table isn't modified.
+	 * @param chunkSize size of single chunk in world units
+	 * @return created chunks, empty if there weren't any entities that could be moved
+	 */
+	public static Array<ChunkData> split (SceneData data, float chunkSize) {
+		if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be greater than 0: " + chunkSize);
+
+		IntSet screenLayers = new IntSet();
+		for (LayerData layer : data.layers)
+			if (layer.cordsSystem == LayerCordsSystem.SCREEN) screenLayers.add(layer.id);
+
+		LongMap<ChunkData> chunkMap = new LongMap<ChunkData>();
+		Array<ChunkData> chunks = new Array<ChunkData>();
+		LongMap<IntIntMap> prefabMaps = new LongMap<IntIntMap>();
+		Array<EntityData> sceneEntities = new Array<EntityData>();
+
+		for (EntityData entityData : data.entities) {
+			Array<Component> prefabComponents = entityData.isPrefabInstance() ? data.prefabs.get(entityData.prefab).components : null;
+			Component positioned = findPositioned(entityData.isPrefabInstance() ? prefabComponents : entityData.components);
+
+			if (positioned == null || isOnLayer(screenLayers, entityData.components, prefabComponents)) {
+				sceneEntities.add(entityData);
+				continue;
+			}
+
+			float x = entityData.isPrefabInstance() ? entityData.x : PrefabUtils.getX(positioned);
+			float y = entityData.isPrefabInstance() ? entityData.y : PrefabUtils.getY(positioned);
+			int chunkX = (int) Math.floor(x / chunkSize);
+			int chunkY = (int) Math.floor(y / chunkSize);
+			long key = ChunkManager.getKey(chunkX, chunkY);
+
+			ChunkData chunk = chunkMap.get(key);
+			if (chunk == null) {
+				chunk = new ChunkData(chunkX, chunkY);
+				chunkMap.put(key, chunk);
+				chunks.add(chunk);
+				prefabMaps.put(key, new IntIntMap());
+			}
+
+			if (entityData.isPrefabInstance()) {
+				IntIntMap prefabMap = prefabMaps.get(key);
+				int prefab = prefabMap.get(entityData.prefab, -1);
+				if (prefab == -1) {
+					prefab = chunk.prefabs.size;
+					chunk.prefabs.add(data.prefabs.get(entityData.prefab));
+					prefabMap.put(entityData.prefab, prefab);
+				}
+
+				chunk.entities.add(new EntityData(prefab, entityData.x, entityData.y, entityData.components));
+			} else
+				chunk.entities.add(entityData);
+		}
+
+		data.entities = sceneEntities;
+
+		if (chunks.size > 0) {
+			data.chunkSize = chunkSize;
+			data.chunks = new int[chunks.size * 2];
+			for (int i = 0; i < chunks.size; i++) {
+				data.chunks[i * 2] = chunks.get(i).x;
+				data.chunks[i * 2 + 1] = chunks.get(i).y;
+			}
+		}
+
+		return chunks;
+	}
+
+	private static Component findPositioned (Array<Component> components) {
+		if (components == null) return null;
+		for (Component component : components)
+			if (PrefabUtils.isPositioned(component.getClass())) return component;
+		return null;
+	}
+
+	private static boolean isOnLayer (IntSet layers, Array<Component> components, Array<Component> prefabComponents) {
+		LayerComponent layer = findLayer(components);
+		if (layer == null) layer = findLayer(prefabComponents);
+		return layer != null && layers.contains(layer.layerId);
+	}
+
+	private static LayerComponent findLayer (Array<Component> components) {
+		if (components == null) return null;
+		for (Component component : components)
+			if (component instanceof LayerComponent) return (LayerComponent) component;
+		return null;
+	}
+}
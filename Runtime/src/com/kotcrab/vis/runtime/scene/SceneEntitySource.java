@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.kotcrab.vis.runtime.util.EntityEngine;
+
+/**
+ * Source of scene entities that can be added to engine in multiple steps. Used by {@link Scene} to activate scene over
+ * multiple frames, see {@link Scene#activate(long)}.
+ * @author Kotcrab
+ */
+interface SceneEntitySource {
+	/** @return total count of entities in this source */
+	int getEntityCount ();
+
+	/**
+	 * Adds next entities to engine.
+	 * @param count max count of entities that can be added
+	 * @return count of added entities, 0 if all entities were already added
+	 */
+	int buildNext (EntityEngine engine, int count);
+
+	/** Releases resources used by this source, called when all entities were added or scene was disposed */
+	void close ();
+}
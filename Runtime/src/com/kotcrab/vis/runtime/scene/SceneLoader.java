@@ -36,10 +36,20 @@ import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.kotcrab.vis.runtime.RuntimeConfiguration;
 import com.kotcrab.vis.runtime.RuntimeContext;
 import com.kotcrab.vis.runtime.assets.*;
 import com.kotcrab.vis.runtime.component.*;
+import com.kotcrab.vis.runtime.data.ChunkData;
 import com.kotcrab.vis.runtime.data.EntityData;
 import com.kotcrab.vis.runtime.data.SceneData;
 import com.kotcrab.vis.runtime.font.BitmapFontProvider;
@@ -48,23 +58,35 @@ import com.kotcrab.vis.runtime.plugin.EntitySupport;
 import com.kotcrab.vis.runtime.scene.SceneLoader.SceneParameter;
 import com.kotcrab.vis.runtime.util.EntityEngine;
 import com.kotcrab.vis.runtime.util.ImmutableArray;
+import com.kotcrab.vis.runtime.util.ThreadSafeDependencyResolver;
 
 /**
  * Scene loader for {@link AssetManager}. Allow to load entire scene file with all required dependencies such as textures, sounds etc.
+ * Both JSON and binary scenes (see {@link BinarySceneWriter}) are supported, format is detected from file content.
  * @author Kotcrab
  */
 public class SceneLoader extends AsynchronousAssetLoader<Scene, SceneParameter> {
 	public static final String DISTANCE_FIELD_SHADER = "com/kotcrab/vis/runtime/bmp-font-df";
 
+	/** Minimal count of entities read and processed by single dependency resolver thread */
+	private static final int PARALLEL_CHUNK_SIZE = 1024;
+
 	private RuntimeConfiguration configuration;
 	private SceneData data;
+	private BinarySceneReader binaryReader;
 	private Scene scene;
+	private SceneEntitySource entitySource;
+	/** Scenes during time sliced activation, see {@link RuntimeConfiguration#sceneActivationBudget} */
+	private Array<Scene> activatingScenes = new Array<Scene>();
+	/** Scenes which loading was started but not finished, dependencies are resolved on asset manager thread */
+	private final ObjectSet<String> loadingScenes = new ObjectSet<String>();
 
 	private boolean distanceFieldShaderLoaded;
 	private FontProvider bmpFontProvider;
 	private FontProvider ttfFontProvider;
 
 	private Array<EntitySupport> supports = new Array<EntitySupport>();
+	private AsyncExecutor executor;
 
 	private Batch batch;
 
@@ -85,6 +107,7 @@ public class SceneLoader extends AsynchronousAssetLoader<Scene, SceneParameter>
 	public static Json getJson () {
 		Json json = new Json();
 		json.addClassTag("SceneData", SceneData.class);
+		json.addClassTag("ChunkData", ChunkData.class);
 		json.addClassTag("SceneViewport", SceneViewport.class);
 		json.addClassTag("LayerCordsSystem", LayerCordsSystem.class);
 
@@ -129,85 +152,417 @@ public class SceneLoader extends AsynchronousAssetLoader<Scene, SceneParameter>
 
 	@Override
 	public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, SceneParameter parameter) {
+		synchronized (loadingScenes) {
+			loadingScenes.add(fileName);
+		}
+
 		if (batch == null) throw new IllegalStateException("Batch not set, see #setBatch(Batch)");
 
-		Json json = getJson();
-		data = json.fromJson(SceneData.class, file);
+		if (BinarySceneReader.isBinaryScene(file) == false) {
+			JsonValue root = new JsonReader().parse(file);
+			Array<JsonValue> entities = detachEntities(root);
+			data = getJson().readValue(SceneData.class, root);
+			return resolveDependencies(data.prefabs, entities, data.entities);
+		}
+
+		binaryReader = new BinarySceneReader(file, getJson());
+		data = binaryReader.getSceneData();
 
 		Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
-		loadDependencies(dependencies, data.entities);
+		mergeDependencies(dependencies, collectBinaryDependencies(binaryReader));
 		return dependencies;
 	}
 
-	private void loadDependencies (Array<AssetDescriptor> dependencies, Array<EntityData> entities) {
-		for (EntityData entityData : entities) {
-			for (Component component : entityData.components) {
-				if (component instanceof AssetComponent) {
-					VisAssetDescriptor asset = ((AssetComponent) component).asset;
+	/**
+	 * Removes entities from parsed JSON scene or chunk file so rest of file can be read without them. Entities are read later
+	 * by {@link #resolveDependencies(Array, Array, Array)}.
+	 * @return JSON values of entities, empty if file doesn't have any entities
+	 */
+	static Array<JsonValue> detachEntities (JsonValue root) {
+		Array<JsonValue> values = new Array<JsonValue>();
+		JsonValue entities = root.remove("entities");
+		if (entities == null) return values;
 
-					if (asset instanceof TextureRegionAsset) {
-						dependencies.add(new AssetDescriptor<TextureAtlas>("gfx/textures.atlas", TextureAtlas.class));
+		for (JsonValue value = entities.child; value != null; value = value.next)
+			values.add(value);
 
-					} else if (asset instanceof AtlasRegionAsset) {
-						AtlasRegionAsset regionAsset = (AtlasRegionAsset) asset;
-						dependencies.add(new AssetDescriptor<TextureAtlas>(regionAsset.getPath(), TextureAtlas.class));
+		return values;
+	}
 
-					} else if (asset instanceof BmpFontAsset) {
-						checkShader(dependencies);
-						bmpFontProvider.load(dependencies, asset);
-					} else if (asset instanceof TtfFontAsset) {
-						ttfFontProvider.load(dependencies, asset);
-					} else if (asset instanceof PathAsset) {
-						PathAsset pathAsset = (PathAsset) asset;
-						String path = pathAsset.getPath();
-
-						if (path.startsWith("sound/")) dependencies.add(new AssetDescriptor<Sound>(path, Sound.class));
-						if (path.startsWith("music/")) dependencies.add(new AssetDescriptor<Music>(path, Music.class));
-						if (path.startsWith("particle/"))
-							dependencies.add(new AssetDescriptor<ParticleEffect>(path, ParticleEffect.class));
-					}
-				}
-
-				if (component instanceof ShaderProtoComponent) {
-					ShaderProtoComponent shaderComponent = (ShaderProtoComponent) component;
-					ShaderAsset asset = shaderComponent.asset;
-					if(asset != null) {
-						String path = asset.getFragPath().substring(0, asset.getFragPath().length() - 5);
-						dependencies.add(new AssetDescriptor<ShaderProgram>(path, ShaderProgram.class));
-					}
-				}
+	/**
+	 * Reads entities from their JSON values and resolves dependencies of given prefabs and entities, also used by
+	 * {@link ChunkLoader}. Creating entity data doesn't depend on engine so large entities lists are read in parallel, see
+	 * {@link #isParallelResolvingAllowed()}.
+	 * @param entityValues JSON values of entities returned by {@link #detachEntities(JsonValue)}
+	 * @param entities array where read entities will be added in file order
+	 */
+	Array<AssetDescriptor> resolveDependencies (Array<EntityData> prefabs, Array<JsonValue> entityValues, Array<EntityData> entities) {
+		Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+		Array<DependencyCollector> collectors = Array.with(new EntityRangeTask(prefabs, null, null, 0, prefabs.size).run());
+		collectors.addAll(readEntities(entityValues, entities));
+		mergeDependencies(dependencies, collectors);
+		return dependencies;
+	}
 
-				for (EntitySupport support : supports)
-					support.resolveDependencies(dependencies, entityData, component);
-			}
+	/**
+	 * Reads entities and collects their dependencies. Large entities lists are split into ranges that are processed in parallel,
+	 * results are merged in entities order.
+	 */
+	private Array<DependencyCollector> readEntities (Array<JsonValue> values, Array<EntityData> entities) {
+		Array<DependencyCollector> collectors = new Array<DependencyCollector>();
+		EntityData[] read = new EntityData[values.size];
+		int threads = configuration.dependencyResolverThreads;
+
+		if (values.size < PARALLEL_CHUNK_SIZE * 2 || isParallelResolvingAllowed() == false) {
+			collectors.add(new EntityRangeTask(null, values, read, 0, values.size).run());
+			entities.addAll(read);
+			return collectors;
+		}
+
+		if (executor == null) executor = new AsyncExecutor(threads);
+
+		int chunkSize = Math.max(PARALLEL_CHUNK_SIZE, (values.size + threads - 1) / threads);
+		Array<AsyncResult<DependencyCollector>> results = new Array<AsyncResult<DependencyCollector>>();
+
+		for (int start = 0; start < values.size; start += chunkSize)
+			results.add(executor.submit(new EntityRangeTask(null, values, read, start, Math.min(start + chunkSize, values.size))));
+
+		for (AsyncResult<DependencyCollector> result : results)
+			collectors.add(result.get());
+
+		entities.addAll(read);
+		return collectors;
+	}
+
+	/**
+	 * @return true if entities can be read and their dependencies resolved by multiple threads, that is when more than one
+	 * thread is allowed by {@link RuntimeConfiguration#dependencyResolverThreads} and all registered supports and font providers
+	 * are {@link ThreadSafeDependencyResolver}s
+	 */
+	private boolean isParallelResolvingAllowed () {
+		if (configuration.dependencyResolverThreads <= 1) return false;
+		if (bmpFontProvider instanceof ThreadSafeDependencyResolver == false) return false;
+		if (ttfFontProvider != null && ttfFontProvider instanceof ThreadSafeDependencyResolver == false) return false;
+
+		for (EntitySupport support : supports)
+			if (support instanceof ThreadSafeDependencyResolver == false) return false;
+
+		return true;
+	}
+
+	/**
+	 * Binary scene stores every distinct asset only once in it's header so dependencies are resolved from asset table instead of
+	 * entities. Supports receive temporary entity data containing only checked component.
+	 */
+	private Array<DependencyCollector> collectBinaryDependencies (BinarySceneReader reader) {
+		Array<Component> components = new Array<Component>();
+
+		for (VisAssetDescriptor asset : reader.getAssets()) {
+			if (asset instanceof ShaderAsset)
+				components.add(new ShaderProtoComponent((ShaderAsset) asset));
+			else
+				components.add(new AssetComponent(asset));
 		}
+
+		components.addAll(reader.createGenericComponents());
+
+		DependencyCollector collector = new DependencyCollector();
+		for (Component component : components)
+			collector.collect(new EntityData(Array.with(component)), component);
+
+		return Array.with(collector);
 	}
 
-	private void checkShader (Array<AssetDescriptor> dependencies) {
-		if (distanceFieldShaderLoaded == false)
-			dependencies.add(new AssetDescriptor<ShaderProgram>(Gdx.files.classpath(DISTANCE_FIELD_SHADER), ShaderProgram.class));
+	private void mergeDependencies (Array<AssetDescriptor> dependencies, Array<DependencyCollector> collectors) {
+		ObjectSet<String> keys = new ObjectSet<String>();
+
+		for (DependencyCollector collector : collectors) {
+			if (collector.usesDistanceFieldShader && distanceFieldShaderLoaded == false) {
+				dependencies.add(new AssetDescriptor<ShaderProgram>(Gdx.files.classpath(DISTANCE_FIELD_SHADER), ShaderProgram.class));
+				distanceFieldShaderLoaded = true;
+			}
+
+			for (AssetDescriptor descriptor : collector.dependencies) {
+				if (keys.add(getDescriptorKey(descriptor))) dependencies.add(descriptor);
+			}
+		}
+	}
 
-		distanceFieldShaderLoaded = true;
+	private static String getDescriptorKey (AssetDescriptor descriptor) {
+		return descriptor.type.getName() + ":" + descriptor.fileName;
 	}
 
 	@Override
 	public void loadAsync (AssetManager manager, String fileName, FileHandle file, SceneParameter parameter) {
 		RuntimeContext context = new RuntimeContext(configuration, batch, manager, new ImmutableArray<EntitySupport>(supports));
-		scene = new Scene(context, data, parameter);
-
-		EntityEngine engine = scene.getEntityEngine();
-		for (EntityData entityData : data.entities)
-			entityData.build(engine);
+		scene = new Scene(context, fileName, data, parameter);
+
+		if (binaryReader != null) {
+			entitySource = binaryReader.createEntitySource();
+			binaryReader = null;
+		} else
+			entitySource = new EntityDataSource(data.entities, data.prefabs);
+
+		//when time sliced activation is enabled, entities are added to engine later on GL thread in small chunks
+		if (configuration.sceneActivationBudget <= 0) {
+			try {
+				entitySource.buildNext(scene.getEntityEngine(), entitySource.getEntityCount());
+			} finally {
+				entitySource.close();
+				entitySource = null;
+			}
+		}
 	}
 
 	@Override
 	public Scene loadSync (AssetManager manager, String fileName, FileHandle file, SceneLoader.SceneParameter parameter) {
 		Scene scene = this.scene;
-		scene.init();
+
+		if (entitySource != null) {
+			scene.beginActivation(entitySource);
+			activatingScenes.add(scene);
+			entitySource = null;
+		} else
+			scene.init();
+
 		this.scene = null;
+
+		synchronized (loadingScenes) {
+			loadingScenes.remove(fileName);
+		}
+
 		return scene;
 	}
 
+	/**
+	 * Must be called after asset manager failed to load asset. Manager drops task of root asset that was being loaded when
+	 * error occurred, so scenes which loading was started and not finished won't be loaded.
+	 * @return paths of scenes that failed to load
+	 */
+	Array<String> takeFailedScenes () {
+		synchronized (loadingScenes) {
+			Array<String> failedScenes = loadingScenes.iterator().toArray();
+			loadingScenes.clear();
+			if (entitySource != null) entitySource.close();
+			entitySource = null;
+			binaryReader = null;
+			scene = null;
+			data = null;
+			return failedScenes;
+		}
+	}
+
+	/**
+	 * Activates loaded scenes within time budget set in {@link RuntimeConfiguration#sceneActivationBudget}. Scenes are activated
+	 * in loading order.
+	 * @return true if there are no more scenes to activate
+	 */
+	boolean activateScenes () {
+		long deadline = TimeUtils.nanoTime() + (long) (configuration.sceneActivationBudget * 1000000);
+
+		while (activatingScenes.size > 0) {
+			Scene scene = activatingScenes.first();
+
+			//scene could be unloaded before it was activated
+			if (scene.isActivating() == false || scene.activate(Math.max(deadline - TimeUtils.nanoTime(), 0)))
+				activatingScenes.removeIndex(0);
+			else
+				return false;
+
+			if (TimeUtils.nanoTime() >= deadline) break;
+		}
+
+		return activatingScenes.size == 0;
+	}
+
+	/** Disposes threads used to read entities and resolve dependencies, see {@link RuntimeConfiguration#dependencyResolverThreads} */
+	public void dispose () {
+		if (executor != null) {
+			executor.dispose();
+			executor = null;
+		}
+	}
+
+	/** @return activation progress of all scenes that are activated, from 0 to 1. If there are no such scenes 1 is returned. */
+	float getActivationProgress () {
+		if (activatingScenes.size == 0) return 1;
+
+		float progress = 0;
+		for (Scene scene : activatingScenes)
+			progress += scene.getActivationProgress();
+
+		return progress / activatingScenes.size;
+	}
+
+	/**
+	 * Collects dependencies of single entities range. Each collector caches how component and asset classes are resolved so
+	 * instanceof chains are evaluated only once per class. Collectors are not shared between threads.
+	 */
+	private class DependencyCollector {
+		private static final int COMPONENT_OTHER = 0;
+		private static final int COMPONENT_ASSET = 1;
+		private static final int COMPONENT_SHADER = 2;
+
+		private static final int ASSET_OTHER = 0;
+		private static final int ASSET_TEXTURE_REGION = 1;
+		private static final int ASSET_ATLAS_REGION = 2;
+		private static final int ASSET_BMP_FONT = 3;
+		private static final int ASSET_TTF_FONT = 4;
+		private static final int ASSET_PATH = 5;
+
+		private final ObjectIntMap<Class<?>> componentKinds = new ObjectIntMap<Class<?>>();
+		private final ObjectIntMap<Class<?>> assetKinds = new ObjectIntMap<Class<?>>();
+
+		/** Dependencies added by supports and font providers, may contain duplicates */
+		private final Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+		private final ObjectSet<String> keys = new ObjectSet<String>();
+		private boolean usesDistanceFieldShader;
+
+		void collect (EntityData entityData) {
+			Array<Component> components = entityData.components;
+			if (components == null) return;
+
+			for (int i = 0; i < components.size; i++)
+				collect(entityData, components.get(i));
+		}
+
+		void collect (EntityData entityData, Component component) {
+			switch (getComponentKind(component.getClass())) {
+				case COMPONENT_ASSET:
+					VisAssetDescriptor asset = ((AssetComponent) component).asset;
+					if (asset != null) collectAsset(asset);
+					break;
+				case COMPONENT_SHADER:
+					ShaderAsset shaderAsset = ((ShaderProtoComponent) component).asset;
+					if (shaderAsset != null) {
+						String path = shaderAsset.getFragPath().substring(0, shaderAsset.getFragPath().length() - 5);
+						add(path, ShaderProgram.class);
+					}
+					break;
+			}
+
+			for (int i = 0; i < supports.size; i++)
+				supports.get(i).resolveDependencies(dependencies, entityData, component);
+		}
+
+		private void collectAsset (VisAssetDescriptor asset) {
+			switch (getAssetKind(asset.getClass())) {
+				case ASSET_TEXTURE_REGION:
+					add("gfx/textures.atlas", TextureAtlas.class);
+					break;
+				case ASSET_ATLAS_REGION:
+					add(((AtlasRegionAsset) asset).getPath(), TextureAtlas.class);
+					break;
+				case ASSET_BMP_FONT:
+					usesDistanceFieldShader = true;
+					if (keys.add(BmpFontAsset.class.getName() + ":" + ((BmpFontAsset) asset).getPath()))
+						bmpFontProvider.load(dependencies, asset);
+					break;
+				case ASSET_TTF_FONT:
+					if (keys.add(TtfFontAsset.class.getName() + ":" + ((TtfFontAsset) asset).getArbitraryFontName()))
+						ttfFontProvider.load(dependencies, asset);
+					break;
+				case ASSET_PATH:
+					String path = ((PathAsset) asset).getPath();
+
+					if (path.startsWith("sound/")) add(path, Sound.class);
+					if (path.startsWith("music/")) add(path, Music.class);
+					if (path.startsWith("particle/")) add(path, ParticleEffect.class);
+					break;
+			}
+		}
+
+		private <T> void add (String path, Class<T> type) {
+			if (keys.add(type.getName() + ":" + path)) dependencies.add(new AssetDescriptor<T>(path, type));
+		}
+
+		private int getComponentKind (Class<?> type) {
+			int kind = componentKinds.get(type, -1);
+			if (kind != -1) return kind;
+
+			if (ClassReflection.isAssignableFrom(AssetComponent.class, type))
+				kind = COMPONENT_ASSET;
+			else if (ClassReflection.isAssignableFrom(ShaderProtoComponent.class, type))
+				kind = COMPONENT_SHADER;
+			else
+				kind = COMPONENT_OTHER;
+
+			componentKinds.put(type, kind);
+			return kind;
+		}
+
+		private int getAssetKind (Class<?> type) {
+			int kind = assetKinds.get(type, -1);
+			if (kind != -1) return kind;
+
+			//order matters, most specific classes must be checked first
+			if (ClassReflection.isAssignableFrom(TextureRegionAsset.class, type))
+				kind = ASSET_TEXTURE_REGION;
+			else if (ClassReflection.isAssignableFrom(AtlasRegionAsset.class, type))
+				kind = ASSET_ATLAS_REGION;
+			else if (ClassReflection.isAssignableFrom(BmpFontAsset.class, type))
+				kind = ASSET_BMP_FONT;
+			else if (ClassReflection.isAssignableFrom(TtfFontAsset.class, type))
+				kind = ASSET_TTF_FONT;
+			else if (ClassReflection.isAssignableFrom(PathAsset.class, type))
+				kind = ASSET_PATH;
+			else
+				kind = ASSET_OTHER;
+
+			assetKinds.put(type, kind);
+			return kind;
+		}
+	}
+
+	/**
+	 * Reads range of entities from JSON values (or uses already read entities) and collects their dependencies. Each task
+	 * uses it's own {@link Json} instance because Json caches class fields and is not thread safe. Tasks write read entities
+	 * only to their own range of shared array.
+	 */
+	private class EntityRangeTask implements AsyncTask<DependencyCollector> {
+		private final Array<EntityData> entities;
+		private final Array<JsonValue> values;
+		private final EntityData[] read;
+		private final int from;
+		private final int to;
+
+		/**
+		 * @param entities already read entities, used when values are null
+		 * @param values JSON values of entities, may be null
+		 * @param read array where entities read from values are stored, at the same indexes as their values
+		 */
+		EntityRangeTask (Array<EntityData> entities, Array<JsonValue> values, EntityData[] read, int from, int to) {
+			this.entities = entities;
+			this.values = values;
+			this.read = read;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public DependencyCollector call () throws Exception {
+			return run();
+		}
+
+		DependencyCollector run () {
+			DependencyCollector collector = new DependencyCollector();
+			Json json = values == null ? null : getJson();
+
+			for (int i = from; i < to; i++) {
+				EntityData entityData;
+
+				if (values == null)
+					entityData = entities.get(i);
+				else
+					entityData = read[i] = json.readValue(EntityData.class, null, values.get(i));
+
+				collector.collect(entityData);
+			}
+
+			return collector;
+		}
+	}
+
 	/** Allows to add additional system and managers into {@link EntityEngine} */
 	static public class SceneParameter extends AssetLoaderParameters<Scene> {
 		public Array<BaseSystem> systems = new Array<BaseSystem>();
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Transition between two scenes started by {@link VisAssetManager#transitionScene(String, String, SceneLoader.SceneParameter)}.
+ * Target scene is loaded while source scene stays loaded, after target scene was activated source scene is unloaded. Assets
+ * used by both scenes stay loaded, only assets used solely by source scene are disposed. If target scene fails to load,
+ * transition is failed and source scene stays loaded.
+ * @author Kotcrab
+ */
+public class SceneTransition {
+	private final String fromScenePath;
+	private final String toScenePath;
+
+	Scene scene;
+	final Array<String> sharedAssets = new Array<String>();
+	final Array<String> freedAssets = new Array<String>();
+	long freedTextureMemory;
+	Throwable error;
+
+	SceneTransition (String fromScenePath, String toScenePath) {
+		this.fromScenePath = fromScenePath;
+		this.toScenePath = toScenePath;
+	}
+
+	public String getFromScenePath () {
+		return fromScenePath;
+	}
+
+	public String getToScenePath () {
+		return toScenePath;
+	}
+
+	/** @return true if target scene was loaded and activated and source scene was unloaded */
+	public boolean isFinished () {
+		return scene != null;
+	}
+
+	/** @return true if target scene failed to load, see {@link #getError()} */
+	public boolean isFailed () {
+		return error != null;
+	}
+
+	/** @return error that caused target scene loading to fail or null if transition didn't fail */
+	public Throwable getError () {
+		return error;
+	}
+
+	/** @return target scene or null if transition isn't finished */
+	public Scene getScene () {
+		return scene;
+	}
+
+	/** @return paths of assets used by both scenes that were kept loaded, empty if transition isn't finished */
+	public Array<String> getSharedAssets () {
+		return sharedAssets;
+	}
+
+	/** @return paths of assets that were unloaded with source scene, empty if transition isn't finished */
+	public Array<String> getFreedAssets () {
+		return freedAssets;
+	}
+
+	/** @return estimated memory in bytes of textures that were unloaded with source scene */
+	public long getFreedTextureMemory () {
+		return freedTextureMemory;
+	}
+}
@@ -16,16 +16,27 @@
 
 package com.kotcrab.vis.runtime.scene;
 
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetErrorListener;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.kotcrab.vis.runtime.RuntimeConfiguration;
+import com.kotcrab.vis.runtime.data.ChunkData;
 import com.kotcrab.vis.runtime.font.FontProvider;
 import com.kotcrab.vis.runtime.font.FreeTypeFontProvider;
 import com.kotcrab.vis.runtime.plugin.EntitySupport;
 import com.kotcrab.vis.runtime.scene.SceneLoader.SceneParameter;
 import com.kotcrab.vis.runtime.util.ShaderLoader;
+import com.kotcrab.vis.runtime.util.ShaderRegistry;
 
 /**
  * Simplified {@link AssetManager} for VisRuntime. Automatically sets AssetManger required loaders, and allows to
@@ -34,17 +45,49 @@ import com.kotcrab.vis.runtime.util.ShaderLoader;
  */
 public class VisAssetManager extends AssetManager {
 	private SceneLoader sceneLoader;
+	private ShaderLoader shaderLoader;
+
+	private Array<SceneTransition> transitions = new Array<SceneTransition>();
+	private AssetErrorListener errorListener;
 
 	public VisAssetManager (Batch batch) {
 		this(new InternalFileHandleResolver(), batch);
 	}
 
 	public VisAssetManager (FileHandleResolver resolver, Batch batch) {
+		this(resolver, batch, new RuntimeConfiguration());
+	}
+
+	public VisAssetManager (Batch batch, RuntimeConfiguration configuration) {
+		this(new InternalFileHandleResolver(), batch, configuration);
+	}
+
+	public VisAssetManager (FileHandleResolver resolver, Batch batch, RuntimeConfiguration configuration) {
 		super(resolver);
-		sceneLoader = new SceneLoader();
+		sceneLoader = new SceneLoader(resolver, configuration);
 		sceneLoader.setBatch(batch);
 		setLoader(Scene.class, sceneLoader);
-		setLoader(ShaderProgram.class, new ShaderLoader());
+		setLoader(ChunkData.class, new ChunkLoader(resolver, sceneLoader));
+		shaderLoader = new ShaderLoader();
+		setLoader(ShaderProgram.class, shaderLoader);
+
+		super.setErrorListener(new AssetErrorListener() {
+			@Override
+			public void error (AssetDescriptor asset, Throwable throwable) {
+				failTransitions(throwable);
+
+				if (errorListener != null)
+					errorListener.error(asset, throwable);
+				else
+					throw new GdxRuntimeException(throwable);
+			}
+		});
+	}
+
+	/** Sets listener notified when asset fails to load. If listener is not set, {@link #update()} throws exception instead. */
+	@Override
+	public synchronized void setErrorListener (AssetErrorListener listener) {
+		this.errorListener = listener;
 	}
 
 	/**
@@ -74,4 +117,204 @@ public class VisAssetManager extends AssetManager {
 		return get(scenePath, Scene.class);
 	}
 
+	/**
+	 * Starts transition from loaded scene to other scene. Target scene is loaded by {@link #update()} while source scene stays
+	 * loaded, after target scene was loaded and activated source scene is unloaded. Assets used by both scenes are not reloaded.
+	 * @param fromScenePath path of loaded scene that will be unloaded
+	 * @param toScenePath path of scene that will be loaded
+	 * @param parameter parameter of target scene, may be null
+	 * @return transition that can be used to check whether target scene is ready or failed to load
+	 */
+	public synchronized SceneTransition transitionScene (String fromScenePath, String toScenePath, SceneParameter parameter) {
+		if (isLoaded(fromScenePath, Scene.class) == false)
+			throw new IllegalStateException("Scene is not loaded: " + fromScenePath);
+		if (fromScenePath.equals(toScenePath))
+			throw new IllegalArgumentException("Can't transition scene to itself: " + fromScenePath);
+
+		load(toScenePath, Scene.class, parameter);
+		SceneTransition transition = new SceneTransition(fromScenePath, toScenePath);
+		transitions.add(transition);
+		return transition;
+	}
+
+	/**
+	 * Same as {@link #transitionScene(String, String, SceneParameter)} but blocks until transition is finished.
+	 * @throws GdxRuntimeException if target scene failed to load
+	 */
+	public Scene transitionSceneNow (String fromScenePath, String toScenePath, SceneParameter parameter) {
+		SceneTransition transition = transitionScene(fromScenePath, toScenePath, parameter);
+		finishLoading();
+		if (transition.isFailed()) throw new GdxRuntimeException("Failed to load scene: " + toScenePath, transition.getError());
+		return transition.getScene();
+	}
+
+	/**
+	 * Updates loading of assets. If time sliced scene activation is enabled (see {@link RuntimeConfiguration#sceneActivationBudget})
+	 * loaded scenes are also activated, this method will not return true until all loaded scenes were activated. Source scenes of
+	 * pending transitions are unloaded once their target scenes are activated.
+	 * @return true if all loading, activation and scene transitions are finished
+	 */
+	@Override
+	public synchronized boolean update () {
+		boolean loaded = super.update();
+		boolean activated = sceneLoader.activateScenes();
+		updateTransitions();
+		return activated && loaded && transitions.size == 0;
+	}
+
+	/** Removes transitions whose target scenes were dropped by manager after loading error */
+	private void failTransitions (Throwable error) {
+		Array<String> failedScenes = sceneLoader.takeFailedScenes();
+
+		for (int i = transitions.size - 1; i >= 0; i--) {
+			SceneTransition transition = transitions.get(i);
+			String toScenePath = transition.getToScenePath();
+
+			if (failedScenes.contains(toScenePath, false) && isLoaded(toScenePath) == false) {
+				transition.error = error;
+				transitions.removeIndex(i);
+			}
+		}
+	}
+
+	private void updateTransitions () {
+		for (int i = transitions.size - 1; i >= 0; i--) {
+			SceneTransition transition = transitions.get(i);
+			String toScenePath = transition.getToScenePath();
+			if (isLoaded(toScenePath, Scene.class) == false) continue;
+
+			Scene scene = get(toScenePath, Scene.class);
+			if (scene.isActivated() == false) continue;
+
+			String fromScenePath = transition.getFromScenePath();
+			ObjectSet<String> sharedAssets = getAssetClosure(toScenePath);
+			getAssetsFreedByUnload(fromScenePath, transition.freedAssets);
+			for (String asset : getAssetClosure(fromScenePath))
+				if (sharedAssets.contains(asset)) transition.sharedAssets.add(asset);
+			transition.freedTextureMemory = getTextureMemory(transition.freedAssets);
+
+			if (isLoaded(fromScenePath)) unload(fromScenePath);
+			transition.scene = scene;
+			transitions.removeIndex(i);
+		}
+	}
+
+	/**
+	 * Computes assets that would be disposed if given asset was unloaded now. Assets that are also used by other loaded assets
+	 * are not included.
+	 * @param fileName path of loaded asset, usually scene
+	 * @param result array that paths of freed assets will be added to, including fileName
+	 */
+	public synchronized void getAssetsFreedByUnload (String fileName, Array<String> result) {
+		collectFreedAssets(fileName, new ObjectIntMap<String>(), result);
+	}
+
+	private void collectFreedAssets (String fileName, ObjectIntMap<String> referenceCounts, Array<String> result) {
+		int count = referenceCounts.get(fileName, getReferenceCount(fileName)) - 1;
+		referenceCounts.put(fileName, count);
+		if (count > 0) return;
+
+		result.add(fileName);
+		Array<String> dependencies = getDependencies(fileName);
+		if (dependencies == null) return;
+		for (int i = 0; i < dependencies.size; i++)
+			collectFreedAssets(dependencies.get(i), referenceCounts, result);
+	}
+
+	/**
+	 * @param fileName path of loaded asset, usually scene
+	 * @return estimated memory in bytes of textures used by asset and it's dependencies, including textures shared with other
+	 * assets. Only textures loaded as assets (for example texture atlas pages or bitmap font pages) are counted.
+	 */
+	public synchronized long getTextureMemory (String fileName) {
+		return getTextureMemory(getAssetClosure(fileName).iterator().toArray());
+	}
+
+	private ObjectSet<String> getAssetClosure (String fileName) {
+		ObjectSet<String> closure = new ObjectSet<String>();
+		collectAssetClosure(fileName, closure);
+		return closure;
+	}
+
+	private void collectAssetClosure (String fileName, ObjectSet<String> closure) {
+		if (closure.add(fileName) == false) return;
+		Array<String> dependencies = getDependencies(fileName);
+		if (dependencies == null) return;
+		for (int i = 0; i < dependencies.size; i++)
+			collectAssetClosure(dependencies.get(i), closure);
+	}
+
+	private long getTextureMemory (Array<String> fileNames) {
+		long memory = 0;
+		for (int i = 0; i < fileNames.size; i++) {
+			String fileName = fileNames.get(i);
+			if (isLoaded(fileName, Texture.class)) memory += getTextureMemory(get(fileName, Texture.class));
+		}
+		return memory;
+	}
+
+	private static long getTextureMemory (Texture texture) {
+		TextureData data = texture.getTextureData();
+		if (data.getFormat() == null) return (long) texture.getWidth() * texture.getHeight() * 4;
+
+		int bytesPerPixel;
+		switch (data.getFormat()) {
+			case Alpha:
+			case Intensity:
+				bytesPerPixel = 1;
+				break;
+			case LuminanceAlpha:
+			case RGB565:
+			case RGBA4444:
+				bytesPerPixel = 2;
+				break;
+			case RGB888:
+				bytesPerPixel = 3;
+				break;
+			default:
+				bytesPerPixel = 4;
+				break;
+		}
+
+		long memory = (long) texture.getWidth() * texture.getHeight() * bytesPerPixel;
+		if (data.useMipMaps()) memory += memory / 3;
+		return memory;
+	}
+
+	/**
+	 * @return activation progress of scenes that were loaded but are not activated yet, from 0 to 1. Returns 1 if there are no
+	 * such scenes.
+	 */
+	public synchronized float getSceneActivationProgress () {
+		return sceneLoader.getActivationProgress();
+	}
+
+	/**
+	 * @return registry of shader programs loaded by this manager. Programs of unloaded shaders are kept compiled until
+	 * {@link ShaderRegistry#disposeUnused()} is called or this manager is disposed.
+	 */
+	public ShaderRegistry getShaderRegistry () {
+		return shaderLoader.getRegistry();
+	}
+
+	/**
+	 * Unloads all assets. Scenes are unloaded first, because scene split into chunks unloads it's own chunks, which would be
+	 * otherwise unloaded twice.
+	 */
+	@Override
+	public synchronized void clear () {
+		Array<String> assets = getAssetNames();
+		for (String asset : assets) {
+			if (getAssetType(asset) == Scene.class && isLoaded(asset)) unload(asset);
+		}
+
+		super.clear();
+	}
+
+	@Override
+	public synchronized void dispose () {
+		super.dispose();
+		sceneLoader.dispose();
+		shaderLoader.getRegistry().dispose();
+	}
 }
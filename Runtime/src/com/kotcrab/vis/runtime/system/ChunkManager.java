@@ -0,0 +1,213 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.*;
+import com.artemis.EntitySubscription.SubscriptionListener;
+import com.artemis.annotations.Wire;
+import com.artemis.utils.ImmutableBag;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.kotcrab.vis.runtime.data.ChunkData;
+import com.kotcrab.vis.runtime.data.EntityData;
+import com.kotcrab.vis.runtime.scene.SceneChunker;
+import com.kotcrab.vis.runtime.util.EntityEngine;
+
+/**
+ * Streams entities of scene split into chunks by {@link SceneChunker}. Chunks intersecting camera view extended by load margin
+ * are loaded using {@link AssetManager} and their entities are added to engine. Chunks that are farther from camera view than
+ * twice the load margin are removed with their entities and unloaded together with assets used only by them.
+ * <p>
+ * Chunks are loaded asynchronously, {@link AssetManager#update()} must be called every frame for chunks to load. Entities of
+ * chunk are recreated every time chunk is loaded, VisIDs and groups of entities stay the same because they are stored in chunk
+ * file. Entity belongs to chunk it was exported in, if entity is moved it is still removed with it's original chunk. Chunk tracks
+ * ids of it's entities, entities removed from engine by game (or disabled) are no longer owned by chunk because Artemis reuses
+ * their ids and instances.
+ * @author Kotcrab
+ */
+@Wire
+public class ChunkManager extends BaseSystem {
+	private CameraManager cameraManager;
+	private AspectSubscriptionManager subscriptionManager;
+
+	private final AssetManager manager;
+	private final float chunkSize;
+	private final float loadMargin;
+
+	private final LongMap<Chunk> chunks = new LongMap<Chunk>();
+	/** Chunks that are loading or loaded */
+	private final Array<Chunk> residentChunks = new Array<Chunk>();
+	/** Chunks of entities by entity id */
+	private final IntMap<Chunk> entityChunks = new IntMap<Chunk>();
+
+	/**
+	 * @param scenePath path of scene file, used to resolve paths of chunk files
+	 * @param chunkCoordinates coordinates of all chunks of scene as x, y pairs
+	 * @param loadMargin distance from camera view in world units in which chunks are loaded, if 0 or less, half of chunk size
+	 * is used
+	 */
+	public ChunkManager (AssetManager manager, String scenePath, float chunkSize, int[] chunkCoordinates, float loadMargin) {
+		this.manager = manager;
+		this.chunkSize = chunkSize;
+		this.loadMargin = loadMargin <= 0 ? chunkSize / 2 : loadMargin;
+
+		for (int i = 0; i < chunkCoordinates.length; i += 2) {
+			int x = chunkCoordinates[i];
+			int y = chunkCoordinates[i + 1];
+			chunks.put(getKey(x, y), new Chunk(x, y, SceneChunker.getChunkPath(scenePath, x, y)));
+		}
+	}
+
+	@Override
+	protected void initialize () {
+		subscriptionManager.get(Aspect.all()).addSubscriptionListener(new SubscriptionListener() {
+			@Override
+			public void inserted (ImmutableBag<Entity> entities) {
+			}
+
+			@Override
+			public void removed (ImmutableBag<Entity> entities) {
+				for (Entity entity : entities) {
+					Chunk chunk = entityChunks.remove(entity.getId());
+					if (chunk != null) chunk.entityIds.removeValue(entity.getId());
+				}
+			}
+		});
+	}
+
+	/** @return key of chunk with given coordinates */
+	public static long getKey (int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	@Override
+	protected void processSystem () {
+		OrthographicCamera camera = cameraManager.getCamera();
+		float halfWidth = camera.viewportWidth * camera.zoom / 2;
+		float halfHeight = camera.viewportHeight * camera.zoom / 2;
+		float minX = camera.position.x - halfWidth, maxX = camera.position.x + halfWidth;
+		float minY = camera.position.y - halfHeight, maxY = camera.position.y + halfHeight;
+
+		int loadMinX = toChunk(minX - loadMargin), loadMaxX = toChunk(maxX + loadMargin);
+		int loadMinY = toChunk(minY - loadMargin), loadMaxY = toChunk(maxY + loadMargin);
+
+		for (int x = loadMinX; x <= loadMaxX; x++) {
+			for (int y = loadMinY; y <= loadMaxY; y++) {
+				Chunk chunk = chunks.get(getKey(x, y));
+				if (chunk == null || chunk.state != ChunkState.UNLOADED) continue;
+
+				manager.load(chunk.path, ChunkData.class);
+				chunk.state = ChunkState.LOADING;
+				residentChunks.add(chunk);
+			}
+		}
+
+		int keepMinX = toChunk(minX - loadMargin * 2), keepMaxX = toChunk(maxX + loadMargin * 2);
+		int keepMinY = toChunk(minY - loadMargin * 2), keepMaxY = toChunk(maxY + loadMargin * 2);
+
+		for (int i = residentChunks.size - 1; i >= 0; i--) {
+			Chunk chunk = residentChunks.get(i);
+
+			if (chunk.x < keepMinX || chunk.x > keepMaxX || chunk.y < keepMinY || chunk.y > keepMaxY) {
+				unload(chunk);
+				residentChunks.removeIndex(i);
+			} else if (chunk.state == ChunkState.LOADING && manager.isLoaded(chunk.path, ChunkData.class))
+				inflate(chunk);
+		}
+	}
+
+	private int toChunk (float position) {
+		return (int) Math.floor(position / chunkSize);
+	}
+
+	private void inflate (Chunk chunk) {
+		ChunkData data = manager.get(chunk.path, ChunkData.class);
+		EntityEngine engine = (EntityEngine) world;
+
+		for (EntityData entityData : data.entities) {
+			int id = entityData.build(engine, data.prefabs).getId();
+			chunk.entityIds.add(id);
+			entityChunks.put(id, chunk);
+		}
+
+		chunk.state = ChunkState.ACTIVE;
+	}
+
+	private void unload (Chunk chunk) {
+		for (int i = 0; i < chunk.entityIds.size; i++) {
+			int id = chunk.entityIds.get(i);
+			entityChunks.remove(id);
+			world.getEntity(id).deleteFromWorld();
+		}
+
+		chunk.entityIds.clear();
+		unloadAsset(chunk);
+	}
+
+	private void unloadAsset (Chunk chunk) {
+		//chunk may be already unloaded when asset manager is cleared
+		if (chunk.state == ChunkState.LOADING || manager.isLoaded(chunk.path, ChunkData.class)) manager.unload(chunk.path);
+		chunk.state = ChunkState.UNLOADED;
+	}
+
+	/** @return true if chunk with given coordinates exists and it's entities were added to engine */
+	public boolean isChunkActive (int x, int y) {
+		Chunk chunk = chunks.get(getKey(x, y));
+		return chunk != null && chunk.state == ChunkState.ACTIVE;
+	}
+
+	/** @return count of chunks that are loading or whose entities are in engine */
+	public int getResidentChunkCount () {
+		return residentChunks.size;
+	}
+
+	public float getChunkSize () {
+		return chunkSize;
+	}
+
+	@Override
+	protected void dispose () {
+		for (Chunk chunk : residentChunks) {
+			chunk.entityIds.clear();
+			unloadAsset(chunk);
+		}
+
+		residentChunks.clear();
+		entityChunks.clear();
+	}
+
+	private enum ChunkState {
+		UNLOADED, LOADING, ACTIVE
+	}
+
+	private static class Chunk {
+		final int x, y;
+		final String path;
+		final IntArray entityIds = new IntArray();
+		ChunkState state = ChunkState.UNLOADED;
+
+		Chunk (int x, int y, String path) {
+			this.x = x;
+			this.y = y;
+			this.path = path;
+		}
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.Manager;
+import com.artemis.annotations.Wire;
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Bits;
+import com.kotcrab.vis.runtime.component.LayerComponent;
+import com.kotcrab.vis.runtime.component.SpriteComponent;
+import com.kotcrab.vis.runtime.component.TextComponent;
+import com.kotcrab.vis.runtime.scene.LayerCordsSystem;
+import com.kotcrab.vis.runtime.util.BoundsListener;
+import com.kotcrab.vis.runtime.util.SpatialHash;
+
+/**
+ * View frustum culling for {@link RenderBatchingSystem}. Bounds of entities with {@link SpriteComponent} or {@link TextComponent}
+ * are stored in uniform grid {@link SpatialHash} (separate grid is used for world and screen coordinates layers, cell size of
+ * screen grid is based on UI camera). Each frame grid is queried using camera of layer coordinates system and only entities from
+ * visible cells are rendered. Entities without supported bounds (such as particles) are never culled. Bounds of other entities
+ * can be supplied by {@link BoundsProvider}.
+ * <p>
+ * Bounds are updated when entity is added, it's components have changed or when it's transform was changed using setters of
+ * {@link SpriteComponent} or {@link TextComponent}. If transform was changed in other way (for example directly using
+ * {@link SpriteComponent#sprite}) or entity bounds are supplied by {@link BoundsProvider}, {@link #markBoundsDirty(Entity)} must
+ * be called, otherwise entity may be culled while it is visible.
+ * @author Kotcrab
+ */
+@Wire(failOnNull = false)
+public class CullingManager extends Manager {
+	private CameraManager cameraManager;
+	private LayerManager layerManager;
+
+	private ComponentMapper<LayerComponent> layerCm;
+	private ComponentMapper<SpriteComponent> spriteCm;
+	private ComponentMapper<TextComponent> textCm;
+
+	private float cellSize;
+	private float screenCellSize;
+
+	private SpatialHash worldGrid;
+	private SpatialHash screenGrid;
+
+	private final Array<BoundsProvider> boundsProviders = new Array<BoundsProvider>();
+
+	private final IntBag dirtyEntities = new IntBag();
+	private final Bits dirtyFlags = new Bits();
+	private final BoundsListener boundsListener = new BoundsListener() {
+		@Override
+		public void boundsChanged (int entityId) {
+			markBoundsDirty(entityId);
+		}
+	};
+	private final IntBag queryResult = new IntBag();
+	private boolean allDirty;
+
+	private int[] visibleFrames = new int[64];
+	private int frame;
+
+	/** @param cellSize size of single grid cell in world units, if 0 or less, half of scene size will be used */
+	public CullingManager (float cellSize) {
+		this.cellSize = cellSize;
+	}
+
+	@Override
+	protected void initialize () {
+		if (cellSize <= 0) {
+			OrthographicCamera camera = cameraManager.getCamera();
+			cellSize = Math.max(camera.viewportWidth, camera.viewportHeight) / 2;
+		}
+
+		//screen layers use UI camera coordinates, world cell size would be too small for them
+		OrthographicCamera uiCamera = cameraManager.getUiCamera();
+		screenCellSize = Math.max(uiCamera.viewportWidth, uiCamera.viewportHeight) / 2;
+		if (screenCellSize <= 0) screenCellSize = cellSize;
+
+		worldGrid = new SpatialHash(cellSize);
+		screenGrid = new SpatialHash(screenCellSize);
+	}
+
+	@Override
+	public void added (Entity e) {
+		markBoundsDirty(e.getId());
+	}
+
+	@Override
+	public void changed (Entity e) {
+		markBoundsDirty(e.getId());
+	}
+
+	@Override
+	public void deleted (Entity e) {
+		worldGrid.remove(e.getId());
+		screenGrid.remove(e.getId());
+	}
+
+	/**
+	 * Adds provider of bounds for entities that don't have {@link SpriteComponent} or {@link TextComponent}. Providers are
+	 * queried in order they were added, first non null bounds are used.
+	 */
+	public void addBoundsProvider (BoundsProvider provider) {
+		boundsProviders.add(provider);
+	}
+
+	/** Must be called after transform of entity has changed so it's bounds can be updated before next render */
+	public void markBoundsDirty (Entity entity) {
+		markBoundsDirty(entity.getId());
+	}
+
+	private void markBoundsDirty (int id) {
+		if (dirtyFlags.getAndSet(id) == false) dirtyEntities.add(id);
+	}
+
+	/** Marks bounds of all entities as dirty, must be called after entities layers were changed */
+	public void markAllBoundsDirty () {
+		allDirty = true;
+	}
+
+	/** Updates dirty bounds and computes visible entities for current frame. Called by {@link RenderBatchingSystem}. */
+	public void update () {
+		if (allDirty) {
+			allDirty = false;
+			worldGrid.getIds(dirtyEntities);
+			screenGrid.getIds(dirtyEntities);
+		}
+
+		int[] dirty = dirtyEntities.getData();
+		for (int i = 0; i < dirtyEntities.size(); i++)
+			updateBounds(dirty[i]);
+		dirtyEntities.setSize(0);
+		dirtyFlags.clear();
+
+		if (++frame == 0) {
+			for (int i = 0; i < visibleFrames.length; i++) visibleFrames[i] = 0;
+			frame = 1;
+		}
+
+		queryResult.setSize(0);
+		query(worldGrid, cameraManager.getCamera());
+		query(screenGrid, cameraManager.getUiCamera());
+
+		int[] visible = queryResult.getData();
+		for (int i = 0; i < queryResult.size(); i++) {
+			int id = visible[i];
+			ensureCapacity(id);
+			visibleFrames[id] = frame;
+		}
+	}
+
+	private void query (SpatialHash grid, OrthographicCamera camera) {
+		if (grid.size() == 0) return;
+
+		Vector3[] points = camera.frustum.planePoints;
+		float minX = points[0].x, maxX = points[0].x;
+		float minY = points[0].y, maxY = points[0].y;
+
+		for (int i = 1; i < points.length; i++) {
+			Vector3 point = points[i];
+			minX = Math.min(minX, point.x);
+			maxX = Math.max(maxX, point.x);
+			minY = Math.min(minY, point.y);
+			maxY = Math.max(maxY, point.y);
+		}
+
+		grid.query(minX, minY, maxX - minX, maxY - minY, queryResult);
+	}
+
+	private void updateBounds (int id) {
+		if (world.getEntityManager().isActive(id) == false) {
+			worldGrid.remove(id);
+			screenGrid.remove(id);
+			return;
+		}
+
+		Entity entity = world.getEntity(id);
+		Rectangle bounds = null;
+		if (spriteCm.has(entity)) {
+			SpriteComponent sprite = spriteCm.get(entity);
+			sprite.setBoundsListener(boundsListener, id);
+			bounds = sprite.getBoundingRectangle();
+		} else if (textCm.has(entity)) {
+			TextComponent text = textCm.get(entity);
+			text.setBoundsListener(boundsListener, id);
+			bounds = text.getBoundingRectangle();
+		} else {
+			for (int i = 0; i < boundsProviders.size && bounds == null; i++)
+				bounds = boundsProviders.get(i).getBounds(entity);
+		}
+
+		SpatialHash grid = worldGrid;
+		SpatialHash otherGrid = screenGrid;
+
+		if (layerManager != null && layerCm.has(entity) && layerManager.getData(layerCm.get(entity).layerId).cordsSystem == LayerCordsSystem.SCREEN) {
+			grid = screenGrid;
+			otherGrid = worldGrid;
+		}
+
+		otherGrid.remove(id);
+
+		if (bounds == null)
+			grid.remove(id);
+		else
+			grid.update(id, bounds.x, bounds.y, bounds.width, bounds.height);
+	}
+
+	/** @return true if entity is not tracked by culling (has no supported bounds) or it's bounds are inside camera view */
+	public boolean isVisible (Entity entity) {
+		int id = entity.getId();
+		if (worldGrid.contains(id) == false && screenGrid.contains(id) == false) return true;
+		return id < visibleFrames.length && visibleFrames[id] == frame;
+	}
+
+	private void ensureCapacity (int id) {
+		if (id < visibleFrames.length) return;
+		int[] newVisibleFrames = new int[Math.max(id + 1, visibleFrames.length * 2)];
+		System.arraycopy(visibleFrames, 0, newVisibleFrames, 0, visibleFrames.length);
+		visibleFrames = newVisibleFrames;
+	}
+
+	/** Supplies bounds of entities that are not supported by {@link CullingManager} directly. */
+	public interface BoundsProvider {
+		/** @return bounds of entity in layer coordinates or null if entity isn't handled by this provider or doesn't have bounds yet */
+		Rectangle getBounds (Entity entity);
+	}
+}
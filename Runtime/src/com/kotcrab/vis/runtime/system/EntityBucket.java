@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.kotcrab.vis.runtime.util.EntityVisitor;
+
+/**
+ * Unordered set of entities used by {@link VisIDManager} and {@link VisGroupManager}. Position of every entity in array is
+ * indexed by entity id so entities are removed in constant time by replacing them with last entity.
+ * @author Kotcrab
+ */
+class EntityBucket {
+	final Array<Entity> entities = new Array<Entity>();
+	private final IntIntMap positions = new IntIntMap();
+
+	void add (Entity entity) {
+		if (positions.containsKey(entity.id)) return;
+		positions.put(entity.id, entities.size);
+		entities.add(entity);
+	}
+
+	void remove (Entity entity) {
+		int index = positions.remove(entity.id, -1);
+		if (index == -1) return;
+
+		Entity last = entities.pop();
+		if (index < entities.size) {
+			entities.set(index, last);
+			positions.put(last.id, index);
+		}
+	}
+
+	boolean isEmpty () {
+		return entities.size == 0;
+	}
+
+	void forEach (EntityVisitor visitor) {
+		for (int i = 0; i < entities.size; i++)
+			visitor.visit(entities.get(i));
+	}
+}
@@ -20,6 +20,9 @@ import com.artemis.*;
 import com.artemis.annotations.Wire;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.kotcrab.vis.runtime.RuntimeConfiguration;
 import com.kotcrab.vis.runtime.assets.PathAsset;
 import com.kotcrab.vis.runtime.component.AssetComponent;
@@ -27,13 +30,16 @@ import com.kotcrab.vis.runtime.component.ParticleComponent;
 import com.kotcrab.vis.runtime.component.ParticleProtoComponent;
 
 /**
- * Inflates {@link ParticleProtoComponent} into {@link ParticleComponent}
+ * Inflates {@link ParticleProtoComponent} into {@link ParticleComponent}. Every entity gets it's own effect instance obtained
+ * from pool of effect file (see {@link #getPool(String)}), pooled effects are already scaled by scene pixels per unit.
+ * When entity with pooled effect is deleted, effect is returned to it's pool.
  * @author Kotcrab
  */
 @Wire
 public class ParticleInflater extends Manager {
 	private ComponentMapper<AssetComponent> assetCm;
 	private ComponentMapper<ParticleProtoComponent> protoCm;
+	private ComponentMapper<ParticleComponent> particleCm;
 
 	private EntityTransmuter transmuter;
 
@@ -42,6 +48,8 @@ public class ParticleInflater extends Manager {
 
 	private float pixelsPerUnit;
 
+	private ObjectMap<String, ParticleEffectPool> pools = new ObjectMap<String, ParticleEffectPool>();
+
 	public ParticleInflater (RuntimeConfiguration configuration, AssetManager manager, float pixelsPerUnit) {
 		this.configuration = configuration;
 		this.manager = manager;
@@ -64,14 +72,46 @@ public class ParticleInflater extends Manager {
 
 		PathAsset path = (PathAsset) assetComponent.asset;
 
-		ParticleEffect effect = manager.get(path.getPath(), ParticleEffect.class);
-
-		ParticleComponent particleComponent = new ParticleComponent(effect);
+		ParticleComponent particleComponent = new ParticleComponent(getPool(path.getPath()).obtain());
 		particleComponent.setPosition(protoComponent.x, protoComponent.y);
 		particleComponent.active = protoComponent.active;
-		particleComponent.effect.scaleEffect(1f / pixelsPerUnit);
 
 		transmuter.transmute(e);
 		e.edit().add(particleComponent);
 	}
+
+	@Override
+	public void deleted (Entity e) {
+		ParticleComponent particleComponent = particleCm.getSafe(e);
+		if (particleComponent == null) return;
+
+		if (particleComponent.effect instanceof PooledEffect) {
+			((PooledEffect) particleComponent.effect).free();
+			particleComponent.effect = null;
+		}
+	}
+
+	/**
+	 * Returns pool of effects loaded from given file, pool is created when it's first needed. Effects obtained from pool are
+	 * scaled by scene pixels per unit. Pooled effect added to entity in {@link ParticleComponent} is automatically freed when entity
+	 * is deleted, it must not be used after that.
+	 * @param path path of particle effect file, effect must be loaded by {@link AssetManager}
+	 */
+	public ParticleEffectPool getPool (String path) {
+		ParticleEffectPool pool = pools.get(path);
+
+		if (pool == null) {
+			ParticleEffect template = new ParticleEffect(manager.get(path, ParticleEffect.class));
+			template.scaleEffect(1f / pixelsPerUnit);
+			pool = new ParticleEffectPool(template, 4, Integer.MAX_VALUE);
+			pools.put(path, pool);
+		}
+
+		return pool;
+	}
+
+	@Override
+	protected void dispose () {
+		pools.clear();
+	}
 }
@@ -20,7 +20,6 @@ import com.artemis.Aspect;
 import com.artemis.ComponentMapper;
 import com.artemis.Entity;
 import com.artemis.annotations.Wire;
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.kotcrab.vis.runtime.component.InvisibleComponent;
 import com.kotcrab.vis.runtime.component.ParticleComponent;
@@ -28,7 +27,7 @@ import net.mostlyoriginal.api.system.delegate.DeferredEntityProcessingSystem;
 import net.mostlyoriginal.api.system.delegate.EntityProcessPrincipal;
 
 /**
- * Renders entities with {@link ParticleComponent}
+ * Renders entities with {@link ParticleComponent}, effects are updated by {@link ParticleUpdateSystem}
  * @author Kotcrab
  */
 @Wire
@@ -37,11 +36,9 @@ public class ParticleRenderSystem extends DeferredEntityProcessingSystem {
 
 	private RenderBatchingSystem renderBatchingSystem;
 	private Batch batch;
-	private final boolean ignoreActive;
 
-	public ParticleRenderSystem (EntityProcessPrincipal principal, boolean ignoreParticleActiveState) {
+	public ParticleRenderSystem (EntityProcessPrincipal principal) {
 		super(Aspect.all(ParticleComponent.class).exclude(InvisibleComponent.class), principal);
-		this.ignoreActive = ignoreParticleActiveState;
 	}
 
 	@Override
@@ -51,14 +48,6 @@ public class ParticleRenderSystem extends DeferredEntityProcessingSystem {
 
 	@Override
 	protected void process (final Entity entity) {
-		ParticleComponent particle = particleCm.get(entity);
-
-		if (ignoreActive || particle.active)
-			particle.effect.update(Gdx.graphics.getDeltaTime());
-
-		particle.effect.draw(batch);
-
-		if (particle.effect.isComplete())
-			particle.effect.reset();
+		particleCm.get(entity).effect.draw(batch);
 	}
 }
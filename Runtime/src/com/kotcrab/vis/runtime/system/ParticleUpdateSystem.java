@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.Aspect;
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.annotations.Wire;
+import com.artemis.systems.EntityProcessingSystem;
+import com.artemis.utils.Bag;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.kotcrab.vis.runtime.component.InvisibleComponent;
+import com.kotcrab.vis.runtime.component.ParticleComponent;
+import com.kotcrab.vis.runtime.system.CullingManager.BoundsProvider;
+import com.kotcrab.vis.runtime.util.SimulatedSystem;
+
+/**
+ * Updates effects of entities with {@link ParticleComponent} using engine delta. Effects are rendered by {@link ParticleRenderSystem}.
+ * <p>
+ * If culled effects are skipped and {@link CullingManager} is present, effects outside of camera view are not updated and
+ * are paused until they become visible again. Bounds of current particles of updated effects are provided to {@link CullingManager}.
+ * @author Kotcrab
+ */
+@Wire(failOnNull = false)
+public class ParticleUpdateSystem extends EntityProcessingSystem implements SimulatedSystem, BoundsProvider {
+	private ComponentMapper<ParticleComponent> particleCm;
+	private CullingManager cullingManager;
+
+	private final boolean ignoreActive;
+	private final boolean skipCulled;
+
+	private final Bag<EffectBounds> bounds = new Bag<EffectBounds>();
+
+	public ParticleUpdateSystem (boolean ignoreParticleActiveState) {
+		this(ignoreParticleActiveState, false);
+	}
+
+	/**
+	 * @param ignoreParticleActiveState if true effects are updated even if {@link ParticleComponent#active} is false
+	 * @param skipCulled if true effects culled by {@link CullingManager} won't be updated, has no effect if culling is not used
+	 */
+	public ParticleUpdateSystem (boolean ignoreParticleActiveState, boolean skipCulled) {
+		super(Aspect.all(ParticleComponent.class).exclude(InvisibleComponent.class));
+		this.ignoreActive = ignoreParticleActiveState;
+		this.skipCulled = skipCulled;
+	}
+
+	@Override
+	protected void initialize () {
+		if (skipCulled == false) cullingManager = null;
+		if (cullingManager != null) cullingManager.addBoundsProvider(this);
+	}
+
+	@Override
+	protected void process (Entity entity) {
+		ParticleComponent particle = particleCm.get(entity);
+
+		if (cullingManager != null && cullingManager.isVisible(entity) == false) {
+			EffectBounds effectBounds = bounds.safeGet(entity.getId());
+			if (effectBounds != null && effectBounds.move(particle)) cullingManager.markBoundsDirty(entity);
+			return;
+		}
+
+		if (ignoreActive || particle.active)
+			particle.effect.update(world.getDelta());
+
+		if (particle.effect.isComplete()) {
+			if (particle.deleteOnComplete) {
+				entity.deleteFromWorld();
+				return;
+			}
+
+			particle.effect.reset();
+		}
+
+		if (cullingManager != null) {
+			EffectBounds effectBounds = bounds.safeGet(entity.getId());
+			if (effectBounds == null) bounds.set(entity.getId(), effectBounds = new EffectBounds());
+			effectBounds.update(particle);
+			cullingManager.markBoundsDirty(entity);
+		}
+	}
+
+	@Override
+	protected void removed (Entity entity) {
+		if (entity.getId() < bounds.getCapacity()) bounds.set(entity.getId(), null);
+	}
+
+	@Override
+	public Rectangle getBounds (Entity entity) {
+		EffectBounds effectBounds = bounds.safeGet(entity.getId());
+		return effectBounds == null ? null : effectBounds.rectangle;
+	}
+
+	/** Bounds of effect particles and effect position at the time they were calculated */
+	private static class EffectBounds {
+		final Rectangle rectangle = new Rectangle();
+		float x;
+		float y;
+
+		void update (ParticleComponent particle) {
+			x = particle.getX();
+			y = particle.getY();
+
+			BoundingBox box = particle.effect.getBoundingBox();
+			//box without particles is empty, use effect position so effect is culled when it's position is not visible
+			if (box.min.x > box.max.x || box.min.y > box.max.y)
+				rectangle.set(x, y, 0, 0);
+			else
+				rectangle.set(box.min.x, box.min.y, box.max.x - box.min.x, box.max.y - box.min.y);
+		}
+
+		/** Moves bounds by distance that effect was moved since bounds were calculated, used for effects that aren't updated */
+		boolean move (ParticleComponent particle) {
+			if (x == particle.getX() && y == particle.getY()) return false;
+			rectangle.x += particle.getX() - x;
+			rectangle.y += particle.getY() - y;
+			x = particle.getX();
+			y = particle.getY();
+			return true;
+		}
+	}
+}
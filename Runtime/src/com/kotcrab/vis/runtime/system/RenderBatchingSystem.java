@@ -22,31 +22,97 @@ import com.artemis.Entity;
 import com.artemis.annotations.Wire;
 import com.artemis.utils.Bag;
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.kotcrab.vis.runtime.component.LayerComponent;
-import com.kotcrab.vis.runtime.component.RenderableComponent;
-import com.kotcrab.vis.runtime.component.ShaderComponent;
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.kotcrab.vis.runtime.component.*;
 import com.kotcrab.vis.runtime.scene.LayerCordsSystem;
 import net.mostlyoriginal.api.system.delegate.EntityProcessAgent;
 import net.mostlyoriginal.api.system.delegate.EntityProcessPrincipal;
-import net.mostlyoriginal.api.utils.BagUtils;
+
+import java.util.Arrays;
 
 /**
  * Plugable render system that uses subsystems to render entities. Entities are rendered sorted by their layer and zIndex
- * , if entity layer or zIndex has changed, {@link #markDirty()} must be called in order to resort the scene. System
- * will automatically resort if entity was added.
+ * , if entity layer or zIndex has changed, {@link #markDirty(Entity)} (or {@link #markDirty()} if many entities were changed)
+ * must be called in order to resort the scene. System will automatically update render order if entity was added or removed.
+ * <p>
+ * Render order is kept incrementally: every job has packed (layerId, zIndex, insertion) long key, new and re-keyed jobs are
+ * merged into already sorted job list and removed jobs are dropped during next merge. Full resort is only performed after
+ * {@link #markDirty()}.
+ * <p>
+ * Optional state aware ordering mode (see {@link #setStateAwareOrdering(boolean)}) groups entities that have same layer and
+ * zIndex by their coordinate system, shader, texture and render agent to minimize batch flushes and GL state changes.
+ * <p>
+ * If {@link CullingManager} was added to engine, entities outside of camera view are not dispatched to their agents. If
+ * {@link StaticSpriteCacheManager} was added, ranges of baked static sprites are drawn from their SpriteCache.
  * @author Daan van Yperen
+ * @author Kotcrab
  */
 @Wire(failOnNull = false)
 public class RenderBatchingSystem extends BaseSystem implements EntityProcessPrincipal {
 	private CameraManager cameraManager;
 	private LayerManager layerManager;
+	private CullingManager cullingManager;
+	private StaticSpriteCacheManager staticSpriteCacheManager;
 
 	private ComponentMapper<LayerComponent> layerCm;
 	private ComponentMapper<RenderableComponent> renderableCm;
 	private ComponentMapper<ShaderComponent> shaderCm;
+	private ComponentMapper<SpriteComponent> spriteCm;
+	private ComponentMapper<TextComponent> textCm;
+
+	private static final int SEQ_BITS = 24;
+	private static final long SEQ_MASK = (1L << SEQ_BITS) - 1;
+	private static final int Z_INDEX_BITS = 24;
+	private static final int Z_INDEX_MIN = -(1 << (Z_INDEX_BITS - 1));
+	private static final int Z_INDEX_MAX = (1 << (Z_INDEX_BITS - 1)) - 1;
+	private static final int LAYER_MAX = 0x7FFF;
 
 	private boolean sortedDirty = false;
-	private final Bag<Job> sortedJobs = new Bag<Job>();
+
+	/** Sorted jobs, may contain null holes left by removed or re-keyed jobs until next {@link #updateRenderOrder()} */
+	private Job[] sortedJobs = new Job[64];
+	private Job[] mergeBuffer = new Job[64];
+	private int sortedJobsSize;
+	private int holes;
+
+	/** Jobs that were added or re-keyed and are waiting to be merged into {@link #sortedJobs} */
+	private final Bag<Job> pendingJobs = new Bag<Job>();
+	/** First job of entity, indexed by entity id. Next jobs of same entity are linked using {@link Job#nextForEntity} */
+	private final Bag<Job> entityJobs = new Bag<Job>();
+	private int nextSeq;
+
+	private static final int SHADER_ID_MAX = 0x3FFF;
+	private static final int TEXTURE_ID_MAX = 0xFFFFFF;
+	private static final int AGENT_ID_MAX = 0xFFFFFF;
+	/** Count of state ids that can be assigned above count of live jobs before stale states are released by resort */
+	private static final int STATE_IDS_SLACK = 64;
+
+	private boolean stateAwareOrdering;
+	/**
+	 * Small ids of render state objects used to build state keys. Maps keep references to states of removed jobs until next
+	 * resort, which reassigns ids of states that are still used.
+	 */
+	private final ObjectIntMap<Object> shaderIds = new ObjectIntMap<Object>();
+	private final ObjectIntMap<Object> textureIds = new ObjectIntMap<Object>();
+	private final ObjectIntMap<Object> agentIds = new ObjectIntMap<Object>();
+	private boolean resorting;
+	private static final Object DISTANCE_FIELD_SHADER_STATE = new Object();
+
+	private ShaderProgram activeShader;
+	private int flushCount;
+	/** Render calls of batch that were already added to {@link #flushCount} since batch was started */
+	private int countedRenderCalls;
+	private int shaderSwitchCount;
+	private int matrixSwitchCount;
+	private int drawnCount;
+	private int culledCount;
+	/** Entities processed by each agent during last frame */
+	private final ObjectIntMap<EntityProcessAgent> agentCounts = new ObjectIntMap<EntityProcessAgent>();
+	private int agentRun;
 
 	private Batch batch;
 	private boolean usingFromEditor;
@@ -68,9 +134,14 @@ public class RenderBatchingSystem extends BaseSystem implements EntityProcessPri
 	public void registerAgent (Entity e, EntityProcessAgent agent) {
 		if (!renderableCm.has(e))
 			throw new RuntimeException("RenderBatchingSystem requires agents entities to have component Renderable.");
-		// register new job. this will influence sorting order.
-		sortedJobs.add(new Job(e, agent));
-		sortedDirty = true;
+		if (nextSeq > SEQ_MASK) resequence();
+
+		// register new job, it will be merged into render order during next update
+		Job job = new Job(e, agent, nextSeq++);
+		job.key = computeKey(job);
+		job.nextForEntity = entityJobs.safeGet(e.getId());
+		entityJobs.set(e.getId(), job);
+		pendingJobs.add(job);
 	}
 
 	/**
@@ -84,14 +155,23 @@ public class RenderBatchingSystem extends BaseSystem implements EntityProcessPri
 	@Override
 	public void unregisterAgent (Entity e, EntityProcessAgent agent) {
 		// forget about the job.
-		final Object[] data = sortedJobs.getData();
-		for (int i = 0, s = sortedJobs.size(); i < s; i++) {
-			final Job e2 = (Job) data[i];
-			if (e2.entity == e && e2.agent == agent) {
-				sortedJobs.remove(i);
-				sortedDirty = true;
-				break;
+		Job previous = null;
+		Job job = entityJobs.safeGet(e.getId());
+
+		while (job != null) {
+			if (job.entity == e && job.agent == agent) {
+				if (previous == null)
+					entityJobs.set(e.getId(), job.nextForEntity);
+				else
+					previous.nextForEntity = job.nextForEntity;
+
+				removeFromOrder(job);
+				job.nextForEntity = null;
+				return;
 			}
+
+			previous = job;
+			job = job.nextForEntity;
 		}
 	}
 
@@ -100,45 +180,42 @@ public class RenderBatchingSystem extends BaseSystem implements EntityProcessPri
 		cameraManager.getCamera().update();
 		cameraManager.getUiCamera().update();
 
+		flushCount = 0;
+		shaderSwitchCount = 0;
+		matrixSwitchCount = 0;
+		drawnCount = 0;
+		culledCount = 0;
+		agentCounts.clear();
+		agentRun = 0;
+
+		if (cullingManager != null) cullingManager.update();
+		if (staticSpriteCacheManager != null) staticSpriteCacheManager.update();
+
 		LayerCordsSystem activeCordsSystem = LayerCordsSystem.WORLD;
 		batch.setProjectionMatrix(cameraManager.getCombined());
 
 		if (usingFromEditor == false) batch.begin();
+		countedRenderCalls = getRenderCalls();
 
-		if (sortedDirty) {
-			sortedDirty = false;
-			BagUtils.sort(sortedJobs);
-		}
+		updateRenderOrder();
 
 		// iterate through all the jobs.
 		EntityProcessAgent activeAgent = null;
-		final Object[] data = sortedJobs.getData();
-		for (int i = 0, s = sortedJobs.size(); i < s; i++) {
-			final Job job = (Job) data[i];
+		final Job[] data = sortedJobs;
+		for (int i = 0, s = sortedJobsSize; i < s; i++) {
+			final Job job = data[i];
 			final EntityProcessAgent agent = job.agent;
 
-			boolean changedBatchState = false;
-			final boolean shaderUsed = shaderCm.has(job.entity);
+			if (job.chunk == null && cullingManager != null && cullingManager.isVisible(job.entity) == false) {
+				culledCount++;
+				continue;
+			}
+
 			LayerCordsSystem cordsSystem = null;
 
 			if (usingFromEditor == false)
 				cordsSystem = layerManager.getData(layerCm.get(job.entity).layerId).cordsSystem;
 
-			// agent changed? end() the last agent, and begin() the next agent.
-			if (agent != activeAgent) {
-				if (activeAgent != null) {
-					activeAgent.end();
-				}
-				activeAgent = agent;
-				activeAgent.begin();
-			}
-
-			if (shaderUsed) {
-				changedBatchState = true;
-				batch.end();
-				batch.setShader(shaderCm.get(job.entity).shader);
-			}
-
 			if (usingFromEditor == false && cordsSystem != activeCordsSystem) {
 				activeCordsSystem = cordsSystem;
 
@@ -150,57 +227,435 @@ public class RenderBatchingSystem extends BaseSystem implements EntityProcessPri
 						batch.setProjectionMatrix(cameraManager.getUiCombined());
 						break;
 				}
+
+				matrixSwitchCount++;
 			}
 
-			if (changedBatchState) batch.begin();
+			if (job.chunk != null) {
+				// baked static sprites are drawn using their own SpriteCache, agent is not used for them
+				if (activeAgent != null) {
+					endAgent(activeAgent);
+					activeAgent = null;
+				}
 
-			agent.process(job.entity);
+				int drawn = staticSpriteCacheManager.draw(batch, data, i, s);
+				if (drawn > 0) {
+					i += drawn - 1;
+					drawnCount += drawn;
+					continue;
+				}
+			}
+
+			final ShaderProgram shader = shaderCm.has(job.entity) ? shaderCm.get(job.entity).shader : null;
+
+			// agent changed? end() the last agent, and begin() the next agent.
+			if (agent != activeAgent) {
+				if (activeAgent != null) {
+					endAgent(activeAgent);
+				}
+				activeAgent = agent;
+				activeAgent.begin();
+			}
 
-			if (shaderUsed) batch.setShader(null);
+			// only switch shader when it differs from shader used by previous job
+			if (shader != activeShader) {
+				activeShader = shader;
+				batch.setShader(shader);
+				shaderSwitchCount++;
+			}
+
+			agent.process(job.entity);
+			agentRun++;
+			drawnCount++;
 		}
 
 		// finished, terminate final agent.
 		if (activeAgent != null) {
-			activeAgent.end();
+			endAgent(activeAgent);
+		}
+
+		if (activeShader != null) {
+			activeShader = null;
+			batch.setShader(null);
+			shaderSwitchCount++;
+		}
+
+		if (usingFromEditor == false)
+			endBatch();
+		else
+			countRenderCalls();
+	}
+
+	private void endAgent (EntityProcessAgent agent) {
+		agent.end();
+		agentCounts.getAndIncrement(agent, 0, agentRun);
+		agentRun = 0;
+		countRenderCalls();
+	}
+
+	/** Ends batch during rendering, render calls done by batch are counted before they are reset by next begin() */
+	void endBatch () {
+		countRenderCalls();
+		batch.end();
+	}
+
+	/** Begins batch that was ended by {@link #endBatch()} */
+	void beginBatch () {
+		batch.begin();
+		countedRenderCalls = getRenderCalls();
+	}
+
+	/** Adds render calls that were not done using batch, for example by {@link SpriteCache}, to flush count */
+	void addRenderCalls (int renderCalls) {
+		flushCount += renderCalls;
+	}
+
+	/**
+	 * Adds render calls done by batch since last count to flush count. Agent that ends and begins batch resets it's render
+	 * calls, in such case calls done before restart that weren't counted yet are lost.
+	 */
+	private void countRenderCalls () {
+		int renderCalls = getRenderCalls();
+		if (renderCalls < countedRenderCalls) countedRenderCalls = 0;
+		flushCount += renderCalls - countedRenderCalls;
+		countedRenderCalls = renderCalls;
+	}
+
+	/** @return render calls of batch since last begin() or 0 if batch type does not report them */
+	private int getRenderCalls () {
+		if (batch instanceof SpriteBatch) return ((SpriteBatch) batch).renderCalls;
+		if (batch instanceof PolygonSpriteBatch) return ((PolygonSpriteBatch) batch).renderCalls;
+		return 0;
+	}
+
+	private long computeKey (Job job) {
+		int layerId = Math.min(Math.max(layerCm.get(job.entity).layerId, 0), LAYER_MAX);
+		int zIndex = Math.min(Math.max(renderableCm.get(job.entity).zIndex, Z_INDEX_MIN), Z_INDEX_MAX);
+
+		if (stateAwareOrdering) job.stateKey = computeStateKey(job);
+
+		return ((long) layerId << (Z_INDEX_BITS + SEQ_BITS)) | ((long) (zIndex - Z_INDEX_MIN) << SEQ_BITS) | (job.seq & SEQ_MASK);
+	}
+
+	/**
+	 * Computes key used to order jobs with the same layer and zIndex in state aware mode. Key is packed (cordsSystem, shader,
+	 * texture, agent), jobs are grouped by those values in that order.
+	 */
+	private long computeStateKey (Job job) {
+		Entity entity = job.entity;
+
+		int cords = 0;
+		if (usingFromEditor == false && layerManager.getData(layerCm.get(entity).layerId).cordsSystem == LayerCordsSystem.SCREEN)
+			cords = 1;
+
+		Object shader = null;
+		if (shaderCm.has(entity))
+			shader = shaderCm.get(entity).shader;
+		else if (textCm.has(entity) && textCm.get(entity).isDistanceFieldShaderEnabled())
+			shader = DISTANCE_FIELD_SHADER_STATE;
+
+		Object texture = null;
+		if (spriteCm.has(entity))
+			texture = spriteCm.get(entity).sprite.getTexture();
+		else if (textCm.has(entity))
+			texture = textCm.get(entity).getCache().getFont().getRegion().getTexture();
+
+		return ((long) cords << 62) | ((long) getStateId(shaderIds, shader, SHADER_ID_MAX) << 48)
+				| ((long) getStateId(textureIds, texture, TEXTURE_ID_MAX) << 24) | getStateId(agentIds, job.agent, AGENT_ID_MAX);
+	}
+
+	private int getStateId (ObjectIntMap<Object> ids, Object state, int maxId) {
+		if (state == null) return 0;
+
+		int id = ids.get(state, -1);
+		if (id == -1) {
+			id = ids.size + 1;
+			ids.put(state, id);
+
+			//map outgrew live jobs (holds removed states) or ran out of ids, resort before next render to release and compact ids
+			if (resorting == false && (id > maxId || ids.size > getLiveJobCount() + STATE_IDS_SLACK)) sortedDirty = true;
 		}
 
-		if (usingFromEditor == false) batch.end();
+		//only possible if there are more distinct live states than available ids, such states share last id
+		return Math.min(id, maxId);
+	}
+
+	private int getLiveJobCount () {
+		return sortedJobsSize - holes + pendingJobs.size();
+	}
+
+	private void removeFromOrder (Job job) {
+		if (job.slot >= 0) {
+			sortedJobs[job.slot] = null;
+			job.slot = -1;
+			holes++;
+		} else {
+			//job is still pending, it will be skipped during merge
+			job.removed = true;
+		}
+	}
+
+	/** Merges pending jobs into sorted job list and removes holes, performs full resort if {@link #markDirty()} was called */
+	void updateRenderOrder () {
+		if (sortedDirty) {
+			sortedDirty = false;
+			resort();
+			return;
+		}
+
+		if (pendingJobs.size() == 0 && holes == 0) return;
+
+		final Object[] pending = pendingJobs.getData();
+		final int pendingSize = pendingJobs.size();
+		if (pendingSize > 1) Arrays.sort(pending, 0, pendingSize);
+
+		ensureMergeBufferCapacity(sortedJobsSize - holes + pendingSize);
+
+		final Job[] source = sortedJobs;
+		final Job[] target = mergeBuffer;
+		int sourceIndex = 0;
+		int pendingIndex = 0;
+		int targetIndex = 0;
+
+		while (true) {
+			while (sourceIndex < sortedJobsSize && source[sourceIndex] == null) sourceIndex++;
+			while (pendingIndex < pendingSize && ((Job) pending[pendingIndex]).removed) pendingIndex++;
+
+			Job next;
+			if (sourceIndex < sortedJobsSize) {
+				if (pendingIndex < pendingSize && ((Job) pending[pendingIndex]).compareTo(source[sourceIndex]) < 0)
+					next = (Job) pending[pendingIndex++];
+				else
+					next = source[sourceIndex++];
+			} else if (pendingIndex < pendingSize)
+				next = (Job) pending[pendingIndex++];
+			else
+				break;
+
+			next.slot = targetIndex;
+			target[targetIndex++] = next;
+		}
+
+		Arrays.fill(source, 0, sortedJobsSize, null);
+		sortedJobs = target;
+		mergeBuffer = source;
+		sortedJobsSize = targetIndex;
+		holes = 0;
+		pendingJobs.clear();
+	}
+
+	/** Recomputes keys of all jobs and sorts them from scratch */
+	private void resort () {
+		final Object[] pending = pendingJobs.getData();
+		final int pendingSize = pendingJobs.size();
+
+		ensureMergeBufferCapacity(sortedJobsSize - holes + pendingSize);
+
+		final Job[] source = sortedJobs;
+		final Job[] target = mergeBuffer;
+		int size = 0;
+
+		for (int i = 0; i < sortedJobsSize; i++) {
+			if (source[i] != null) target[size++] = source[i];
+		}
+
+		for (int i = 0; i < pendingSize; i++) {
+			Job job = (Job) pending[i];
+			if (job.removed == false) target[size++] = job;
+		}
+
+		shaderIds.clear();
+		textureIds.clear();
+		agentIds.clear();
+		resorting = true;
+		for (int i = 0; i < size; i++)
+			target[i].key = computeKey(target[i]);
+		resorting = false;
+
+		Arrays.sort(target, 0, size);
+
+		for (int i = 0; i < size; i++)
+			target[i].slot = i;
+
+		Arrays.fill(source, 0, sortedJobsSize, null);
+		sortedJobs = target;
+		mergeBuffer = source;
+		sortedJobsSize = size;
+		holes = 0;
+		pendingJobs.clear();
+	}
+
+	/** Called when insertion counter would overflow key bits, assigns new insertion numbers while keeping current order */
+	private void resequence () {
+		updateRenderOrder();
+
+		for (int i = 0; i < sortedJobsSize; i++) {
+			Job job = sortedJobs[i];
+			job.seq = i;
+			job.key = (job.key & ~SEQ_MASK) | i;
+		}
+
+		nextSeq = sortedJobsSize;
+	}
+
+	private void ensureMergeBufferCapacity (int size) {
+		if (mergeBuffer.length < size) mergeBuffer = new Job[Math.max(size, (int) (mergeBuffer.length * 1.75f))];
+	}
+
+	/** @return sorted jobs, valid only right after {@link #updateRenderOrder()} */
+	Job[] getSortedJobs () {
+		return sortedJobs;
+	}
+
+	int getSortedJobsSize () {
+		return sortedJobsSize;
+	}
+
+	/** @return count of agents that process this entity */
+	int getJobCount (Entity entity) {
+		int count = 0;
+		for (Job job = entityJobs.safeGet(entity.getId()); job != null; job = job.nextForEntity)
+			if (job.entity == entity) count++;
+		return count;
 	}
 
 	public Batch getBatch () {
 		return batch;
 	}
 
+	/**
+	 * Marks entire render order as dirty, keys of all entities will be recomputed and all entities will be resorted before
+	 * next render. Use {@link #markDirty(Entity)} if only few entities were changed.
+	 */
 	public void markDirty () {
 		sortedDirty = true;
+		if (cullingManager != null) cullingManager.markAllBoundsDirty();
+	}
+
+	/**
+	 * Recomputes render order key of single entity, must be called after entity layer or zIndex was changed. Entity will be
+	 * moved to it's new position before next render without resorting all entities.
+	 */
+	public void markDirty (Entity entity) {
+		if (staticSpriteCacheManager != null) staticSpriteCacheManager.invalidate(entity);
+
+		Job job = entityJobs.safeGet(entity.getId());
+
+		while (job != null) {
+			if (job.entity == entity) {
+				long stateKey = job.stateKey;
+				long key = computeKey(job);
+
+				if (key != job.key || stateKey != job.stateKey) {
+					if (job.slot >= 0) {
+						sortedJobs[job.slot] = null;
+						job.slot = -1;
+						holes++;
+						job.key = key;
+						pendingJobs.add(job);
+					} else {
+						job.key = key; //already pending, will be sorted with new key
+					}
+				}
+			}
+
+			job = job.nextForEntity;
+		}
 	}
 
 	public boolean isDirty () {
-		return sortedDirty;
+		return sortedDirty || pendingJobs.size() > 0 || holes > 0;
+	}
+
+	/**
+	 * Enables or disables state aware ordering. When enabled entities with the same layer and zIndex are grouped by their
+	 * coordinate system, shader, texture and agent instead of being rendered in insertion order. This minimizes batch flushes
+	 * but render order of overlapping entities with equal zIndex is no longer defined. Disabled by default.
+	 */
+	public void setStateAwareOrdering (boolean stateAwareOrdering) {
+		if (this.stateAwareOrdering == stateAwareOrdering) return;
+		this.stateAwareOrdering = stateAwareOrdering;
+		markDirty();
+	}
+
+	public boolean isStateAwareOrdering () {
+		return stateAwareOrdering;
+	}
+
+	/**
+	 * @return number of batch flushes (render calls) during last frame, including draws of static sprite caches. Flushes of batch
+	 * are counted only if batch is {@link SpriteBatch} or {@link PolygonSpriteBatch}.
+	 */
+	public int getFlushCount () {
+		return flushCount;
+	}
+
+	/** @return number of shader switches during last frame */
+	public int getShaderSwitchCount () {
+		return shaderSwitchCount;
+	}
+
+	/** @return number of projection matrix switches between world and screen coordinates during last frame */
+	public int getMatrixSwitchCount () {
+		return matrixSwitchCount;
+	}
+
+	/** @return number of entities dispatched to agents during last frame */
+	public int getDrawnCount () {
+		return drawnCount;
+	}
+
+	/** @return number of entities skipped during last frame because they were outside of camera view */
+	public int getCulledCount () {
+		return culledCount;
+	}
+
+	/** @return number of entities processed by given agent during last frame */
+	public int getProcessedCount (EntityProcessAgent agent) {
+		return agentCounts.get(agent, 0);
+	}
+
+	/** @return shader that is currently set by this system for processed entity, null if default batch shader is used */
+	public ShaderProgram getActiveShader () {
+		return activeShader;
 	}
 
 	/** Rendering job wrapper. */
-	public class Job implements Comparable<Job> {
+	public static class Job implements Comparable<Job> {
 		public final Entity entity;
 		public final EntityProcessAgent agent;
 
+		/** Packed (layerId, zIndex, seq) render order key */
+		long key;
+		/** Packed render state key, used only in state aware ordering mode to order jobs with the same layerId and zIndex */
+		long stateKey;
+		/** Insertion number, used to preserve insertion order of entities with same layer and zIndex */
+		int seq;
+		/** Index in sorted job list, -1 if job is pending */
+		int slot = -1;
+		boolean removed;
+		Job nextForEntity;
+		/** Static sprites chunk that this job was baked into, null if job is rendered by it's agent */
+		StaticSpriteCacheManager.Chunk chunk;
+
 		/**
 		 * @param entity entity we will process
 		 * @param agent agent responsible for processing.
+		 * @param seq insertion number of this job
 		 */
-		public Job (final Entity entity, final EntityProcessAgent agent) {
+		Job (final Entity entity, final EntityProcessAgent agent, int seq) {
 			this.entity = entity;
 			this.agent = agent;
+			this.seq = seq;
 		}
 
 		@Override
 		public int compareTo (Job o) {
-			int layerResult = (int) Math.signum(layerCm.get(this.entity).layerId - layerCm.get(o.entity).layerId);
-
-			if (layerResult == 0)
-				return (int) Math.signum(renderableCm.get(this.entity).zIndex - renderableCm.get(o.entity).zIndex);
-			else
-				return layerResult;
+			long order = key >>> SEQ_BITS;
+			long otherOrder = o.key >>> SEQ_BITS;
+			if (order != otherOrder) return order < otherOrder ? -1 : 1;
+			if (stateKey != o.stateKey) return stateKey < o.stateKey ? -1 : 1;
+			return seq < o.seq ? -1 : (seq == o.seq ? 0 : 1);
 		}
 	}
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.BaseSystem;
+import com.badlogic.gdx.utils.Array;
+import com.kotcrab.vis.runtime.RuntimeConfiguration;
+import com.kotcrab.vis.runtime.util.SimulatedSystem;
+
+/**
+ * Separates simulation from rendering. Processes all passive systems implementing {@link SimulatedSystem} before render systems.
+ * If fixed timestep is set, simulation is performed in fixed steps (possibly multiple times per frame or not at all) and
+ * engine delta is set to step length while simulated systems are processed. Remaining time that was not yet simulated is
+ * available as {@link #getAlpha()} and can be used by custom render systems to interpolate rendered state. Built-in render
+ * systems don't interpolate, they render state from last simulation step.
+ * @author Kotcrab
+ */
+public class SimulationSystem extends BaseSystem {
+	private final float timestep;
+	private final int maxSteps;
+
+	private Array<BaseSystem> systems = new Array<BaseSystem>();
+
+	private float accumulator;
+	private float alpha = 1;
+	private int steps;
+
+	/** @see RuntimeConfiguration#simulationTimestep */
+	public SimulationSystem (float timestep, int maxSteps) {
+		this.timestep = timestep;
+		this.maxSteps = Math.max(maxSteps, 1);
+	}
+
+	@Override
+	protected void initialize () {
+		for (BaseSystem system : world.getSystems()) {
+			if (system instanceof SimulatedSystem == false) continue;
+
+			if (system.isPassive() == false)
+				throw new IllegalStateException("Simulated system must be registered as passive: " + system.getClass().getName());
+
+			systems.add(system);
+		}
+	}
+
+	@Override
+	protected void processSystem () {
+		if (timestep <= 0) {
+			steps = 1;
+			alpha = 1;
+			simulate();
+			return;
+		}
+
+		float frameDelta = world.getDelta();
+		accumulator += frameDelta;
+		steps = 0;
+
+		world.setDelta(timestep);
+		while (accumulator >= timestep && steps < maxSteps) {
+			simulate();
+			accumulator -= timestep;
+			steps++;
+		}
+		world.setDelta(frameDelta);
+
+		//simulation can't keep up, drop time that wasn't simulated instead of accumulating it
+		if (accumulator >= timestep) accumulator %= timestep;
+
+		alpha = accumulator / timestep;
+	}
+
+	private void simulate () {
+		for (int i = 0; i < systems.size; i++)
+			systems.get(i).process();
+	}
+
+	/** @return fraction of fixed step that was not yet simulated, from 0 to 1. Always 1 if fixed timestep is not used. */
+	public float getAlpha () {
+		return alpha;
+	}
+
+	/** @return count of simulation steps performed during last frame */
+	public int getSteps () {
+		return steps;
+	}
+
+	public float getTimestep () {
+		return timestep;
+	}
+}
@@ -21,6 +21,11 @@ import com.artemis.annotations.Wire;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
 import com.kotcrab.vis.runtime.RuntimeConfiguration;
 import com.kotcrab.vis.runtime.assets.AtlasRegionAsset;
 import com.kotcrab.vis.runtime.assets.TextureRegionAsset;
@@ -31,22 +36,42 @@ import com.kotcrab.vis.runtime.component.SpriteProtoComponent;
 import com.kotcrab.vis.runtime.util.UnsupportedAssetDescriptorException;
 
 /**
- * Inflates {@link SpriteProtoComponent} into {@link SpriteComponent}
+ * Inflates {@link SpriteProtoComponent} into {@link SpriteComponent}. Regions are found using index of atlas regions built once
+ * per atlas. If {@link RuntimeConfiguration#useSpritePool} is enabled, sprites of deleted entities are reused.
  * @author Kotcrab
  */
 @Wire
 public class SpriteInflater extends Manager {
+	private static final String TEXTURES_ATLAS = "gfx/textures.atlas";
+
 	private ComponentMapper<SpriteProtoComponent> protoCm;
 	private ComponentMapper<AssetComponent> assetCm;
+	private ComponentMapper<SpriteComponent> spriteCm;
 
 	private EntityTransmuter transmuter;
 
 	private RuntimeConfiguration configuration;
 	private AssetManager manager;
 
+	/** Region names of {@link TextureRegionAsset} paths */
+	private ObjectMap<String, String> textureRegionNames = new ObjectMap<String, String>();
+	/** Regions of atlas by name, for duplicated names first region is stored (same as {@link TextureAtlas#findRegion(String)}) */
+	private ObjectMap<String, ObjectMap<String, AtlasRegion>> atlasIndexes = new ObjectMap<String, ObjectMap<String, AtlasRegion>>();
+
+	private Pool<Sprite> spritePool;
+
 	public SpriteInflater (RuntimeConfiguration configuration, AssetManager manager) {
 		this.configuration = configuration;
 		this.manager = manager;
+
+		if (configuration.useSpritePool) {
+			spritePool = new Pool<Sprite>() {
+				@Override
+				protected Sprite newObject () {
+					return new Sprite();
+				}
+			};
+		}
 	}
 
 	@Override
@@ -65,13 +90,47 @@ public class SpriteInflater extends Manager {
 
 		VisAssetDescriptor asset = assetComponent.asset;
 
+		TextureRegion region = findRegion(asset);
+
+		Sprite sprite;
+		if (spritePool != null) {
+			sprite = spritePool.obtain();
+			sprite.setRegion(region);
+		} else
+			sprite = new Sprite(region);
+
+		SpriteComponent spriteComponent = new SpriteComponent(sprite);
+
+		sprite.setPosition(proto.x, proto.y);
+		sprite.setSize(proto.width, proto.height);
+		sprite.setOrigin(proto.originX, proto.originY);
+		sprite.setRotation(proto.rotation);
+		sprite.setScale(proto.scaleX, proto.scaleY);
+		sprite.setColor(proto.tint);
+		sprite.setFlip(proto.flipX, proto.flipY);
+
+		transmuter.transmute(e);
+		e.edit().add(spriteComponent);
+	}
+
+	@Override
+	public void deleted (Entity e) {
+		if (spritePool != null && spriteCm.has(e)) spritePool.free(spriteCm.get(e).sprite);
+	}
+
+	private TextureRegion findRegion (VisAssetDescriptor asset) {
 		String atlasPath;
 		String atlasRegion;
 
 		if (asset instanceof TextureRegionAsset) {
-			TextureRegionAsset regionAsset = (TextureRegionAsset) asset;
-			atlasPath = "gfx/textures.atlas";
-			atlasRegion = regionAsset.getPath().substring(4, regionAsset.getPath().length() - 4); //remove gfx/ and file extension
+			String path = ((TextureRegionAsset) asset).getPath();
+			atlasPath = TEXTURES_ATLAS;
+			atlasRegion = textureRegionNames.get(path);
+
+			if (atlasRegion == null) {
+				atlasRegion = path.substring(4, path.length() - 4); //remove gfx/ and file extension
+				textureRegionNames.put(path, atlasRegion);
+			}
 
 		} else if (asset instanceof AtlasRegionAsset) {
 			AtlasRegionAsset regionAsset = (AtlasRegionAsset) asset;
@@ -82,21 +141,22 @@ public class SpriteInflater extends Manager {
 			throw new UnsupportedAssetDescriptorException(asset);
 		}
 
-		TextureAtlas atlas = manager.get(atlasPath, TextureAtlas.class);
+		if (atlasRegion == null) return manager.get(atlasPath, TextureAtlas.class).findRegion(null);
+		return getAtlasIndex(atlasPath).get(atlasRegion);
+	}
 
-		Sprite sprite = new Sprite(atlas.findRegion(atlasRegion));
+	private ObjectMap<String, AtlasRegion> getAtlasIndex (String atlasPath) {
+		ObjectMap<String, AtlasRegion> index = atlasIndexes.get(atlasPath);
+		if (index != null) return index;
 
-		SpriteComponent spriteComponent = new SpriteComponent(sprite);
+		Array<AtlasRegion> atlasRegions = manager.get(atlasPath, TextureAtlas.class).getRegions();
+		index = new ObjectMap<String, AtlasRegion>(atlasRegions.size);
 
-		sprite.setPosition(proto.x, proto.y);
-		sprite.setSize(proto.width, proto.height);
-		sprite.setOrigin(proto.originX, proto.originY);
-		sprite.setRotation(proto.rotation);
-		sprite.setScale(proto.scaleX, proto.scaleY);
-		sprite.setColor(proto.tint);
-		sprite.setFlip(proto.flipX, proto.flipY);
+		for (AtlasRegion region : atlasRegions) {
+			if (index.containsKey(region.name) == false) index.put(region.name, region);
+		}
 
-		transmuter.transmute(e);
-		e.edit().add(spriteComponent);
+		atlasIndexes.put(atlasPath, index);
+		return index;
 	}
 }
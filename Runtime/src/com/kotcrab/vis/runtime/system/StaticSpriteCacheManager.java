@@ -0,0 +1,264 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.ComponentMapper;
+import com.artemis.Entity;
+import com.artemis.Manager;
+import com.artemis.annotations.Wire;
+import com.artemis.utils.Bag;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.kotcrab.vis.runtime.RuntimeConfiguration;
+import com.kotcrab.vis.runtime.component.*;
+import com.kotcrab.vis.runtime.scene.Scene;
+import com.kotcrab.vis.runtime.system.RenderBatchingSystem.Job;
+import com.kotcrab.vis.runtime.util.AfterSceneInit;
+
+/**
+ * Bakes sprites of static entities into {@link SpriteCache} after {@link Scene} was initialized so they are stored on GPU and
+ * rendered using single draw call per chunk. Entity is static if it's layer name is in {@link RuntimeConfiguration#staticLayers}
+ * or it's id is in {@link RuntimeConfiguration#staticEntityIds}.
+ * <p>
+ * Entities with {@link ShaderComponent} are not baked, their shaders are written for {@link Batch} and can't be used by
+ * {@link SpriteCache}.
+ * <p>
+ * Chunk is created for every range of static sprites that are rendered one after another and have the same layer and
+ * texture. Chunk is invalidated when any of it's entities is removed, it's components are changed or when
+ * {@link #invalidate(Entity)} was called. Entities of invalidated chunk are rendered normally by {@link SpriteRenderSystem}
+ * until static sprites are baked again. Rebake is done at the beginning of frame after first frame during which no chunk
+ * was invalidated, so entities that are changed during multiple frames in row are not baked after every change.
+ * @author Kotcrab
+ */
+@Wire
+public class StaticSpriteCacheManager extends Manager implements AfterSceneInit {
+	/** Max sprites count of single {@link SpriteCache} when indices are used */
+	private static final int MAX_CACHE_SIZE = 8191;
+
+	private RenderBatchingSystem renderBatchingSystem;
+	private LayerManager layerManager;
+
+	private ComponentMapper<SpriteComponent> spriteCm;
+	private ComponentMapper<LayerComponent> layerCm;
+	private ComponentMapper<ShaderComponent> shaderCm;
+	private ComponentMapper<IDComponent> idCm;
+
+	private ObjectSet<String> staticLayers = new ObjectSet<String>();
+	private ObjectSet<String> staticEntityIds = new ObjectSet<String>();
+
+	private Array<SpriteCache> caches = new Array<SpriteCache>();
+	private Array<Chunk> chunks = new Array<Chunk>();
+	private Bag<Chunk> entityChunks = new Bag<Chunk>();
+
+	private boolean rebakeRequested;
+	private boolean invalidatedDuringFrame;
+
+	public StaticSpriteCacheManager (RuntimeConfiguration configuration) {
+		staticLayers.addAll(configuration.staticLayers);
+		staticEntityIds.addAll(configuration.staticEntityIds);
+	}
+
+	@Override
+	public void afterSceneInit () {
+		bake();
+	}
+
+	/** Called by {@link RenderBatchingSystem} at the beginning of every frame, rebakes invalidated chunks if they are stable */
+	void update () {
+		if (rebakeRequested && invalidatedDuringFrame == false) {
+			rebakeRequested = false;
+			clear();
+			bake();
+		}
+
+		invalidatedDuringFrame = false;
+	}
+
+	private void bake () {
+		renderBatchingSystem.updateRenderOrder();
+		Job[] jobs = renderBatchingSystem.getSortedJobs();
+		int jobsSize = renderBatchingSystem.getSortedJobsSize();
+
+		Chunk current = null;
+
+		for (int i = 0; i < jobsSize; i++) {
+			Job job = jobs[i];
+
+			if (isStatic(job) == false) {
+				current = null;
+				continue;
+			}
+
+			Entity entity = job.entity;
+			int layerId = layerCm.get(entity).layerId;
+			Texture texture = spriteCm.get(entity).sprite.getTexture();
+
+			if (current == null || current.layerId != layerId || current.texture != texture || current.jobs.size == MAX_CACHE_SIZE) {
+				current = new Chunk(layerId, texture);
+				chunks.add(current);
+			}
+
+			current.jobs.add(job);
+		}
+
+		int chunkIndex = 0;
+		while (chunkIndex < chunks.size) {
+			int cacheSize = 0;
+			int lastChunk = chunkIndex;
+			while (lastChunk < chunks.size && cacheSize + chunks.get(lastChunk).jobs.size <= MAX_CACHE_SIZE)
+				cacheSize += chunks.get(lastChunk++).jobs.size;
+
+			SpriteCache cache = new SpriteCache(cacheSize, true);
+			caches.add(cache);
+
+			for (int i = chunkIndex; i < lastChunk; i++) {
+				Chunk chunk = chunks.get(i);
+				chunk.cache = cache;
+
+				cache.beginCache();
+				for (int j = 0; j < chunk.jobs.size; j++) {
+					Job job = chunk.jobs.get(j);
+					cache.add(spriteCm.get(job.entity).sprite);
+					job.chunk = chunk;
+					entityChunks.set(job.entity.getId(), chunk);
+				}
+				chunk.cacheId = cache.endCache();
+			}
+
+			chunkIndex = lastChunk;
+		}
+	}
+
+	private boolean isStatic (Job job) {
+		Entity entity = job.entity;
+		if (spriteCm.has(entity) == false) return false;
+		if (shaderCm.has(entity)) return false;
+		if (renderBatchingSystem.getJobCount(entity) != 1) return false; //entity is also rendered by other agent
+
+		if (staticEntityIds.size > 0 && idCm.has(entity) && staticEntityIds.contains(idCm.get(entity).id)) return true;
+		return staticLayers.size > 0 && staticLayers.contains(layerManager.getData(layerCm.get(entity).layerId).name);
+	}
+
+	/** Invalidates chunk that contains this entity, must be called after static entity was changed */
+	public void invalidate (Entity entity) {
+		Chunk chunk = entityChunks.safeGet(entity.getId());
+		if (chunk != null) invalidate(chunk);
+	}
+
+	private void invalidate (Chunk chunk) {
+		Array<Job> jobs = chunk.jobs;
+		for (int i = 0; i < jobs.size; i++) {
+			Job job = jobs.get(i);
+			if (job.chunk == chunk) job.chunk = null;
+			if (entityChunks.safeGet(job.entity.getId()) == chunk) entityChunks.set(job.entity.getId(), null);
+		}
+
+		rebakeRequested = true;
+		invalidatedDuringFrame = true;
+	}
+
+	private void clear () {
+		for (Chunk chunk : chunks) {
+			Array<Job> jobs = chunk.jobs;
+			for (int i = 0; i < jobs.size; i++) {
+				Job job = jobs.get(i);
+				if (job.chunk == chunk) job.chunk = null;
+			}
+		}
+
+		chunks.clear();
+		entityChunks.clear();
+		dispose();
+	}
+
+	@Override
+	public void changed (Entity e) {
+		invalidate(e);
+	}
+
+	@Override
+	public void deleted (Entity e) {
+		invalidate(e);
+	}
+
+	@Override
+	protected void dispose () {
+		for (SpriteCache cache : caches)
+			cache.dispose();
+
+		caches.clear();
+	}
+
+	/**
+	 * Draws chunk starting at given index of sorted jobs if it is still valid and all it's jobs are rendered one after another.
+	 * Otherwise chunk is invalidated.
+	 * @return count of rendered jobs, 0 if chunk was not drawn and jobs must be rendered normally
+	 */
+	int draw (Batch batch, Job[] jobs, int index, int jobsSize) {
+		Chunk chunk = jobs[index].chunk;
+		int count = chunk.jobs.size;
+
+		if (index + count > jobsSize) {
+			invalidate(chunk);
+			return 0;
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (jobs[index + i] != chunk.jobs.get(i)) {
+				invalidate(chunk);
+				return 0;
+			}
+		}
+
+		SpriteCache cache = chunk.cache;
+
+		renderBatchingSystem.endBatch();
+
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		cache.setProjectionMatrix(batch.getProjectionMatrix());
+		cache.setTransformMatrix(batch.getTransformMatrix());
+		cache.begin();
+		cache.draw(chunk.cacheId);
+		cache.end();
+		renderBatchingSystem.addRenderCalls(cache.renderCalls);
+
+		renderBatchingSystem.beginBatch();
+
+		return count;
+	}
+
+	/** Range of static sprites baked into single {@link SpriteCache} cache */
+	static class Chunk {
+		final int layerId;
+		final Texture texture;
+		final Array<Job> jobs = new Array<Job>();
+
+		SpriteCache cache;
+		int cacheId;
+
+		public Chunk (int layerId, Texture texture) {
+			this.layerId = layerId;
+			this.texture = texture;
+		}
+	}
+}
@@ -20,6 +20,7 @@ import com.artemis.*;
 import com.artemis.annotations.Wire;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.kotcrab.vis.runtime.RuntimeConfiguration;
 import com.kotcrab.vis.runtime.assets.BmpFontAsset;
 import com.kotcrab.vis.runtime.assets.TtfFontAsset;
@@ -44,6 +45,9 @@ public class TextInflater extends Manager {
 	private AssetManager manager;
 	private float pixelsPerUnit;
 
+	/** Already configured fonts by their asset manager path */
+	private ObjectMap<String, BitmapFont> fonts = new ObjectMap<String, BitmapFont>();
+
 	public TextInflater (RuntimeConfiguration configuration, AssetManager manager, float pixelsPerUnit) {
 		this.configuration = configuration;
 		this.manager = manager;
@@ -64,20 +68,7 @@ public class TextInflater extends Manager {
 		VisAssetDescriptor asset = assetCm.get(e).asset;
 		TextProtoComponent protoComponent = protoCm.get(e);
 
-		BitmapFont font;
-
-		if (asset instanceof BmpFontAsset) {
-			BmpFontAsset fontAsset = (BmpFontAsset) asset;
-			font = manager.get(fontAsset.getPath(), BitmapFont.class);
-		} else if (asset instanceof TtfFontAsset) {
-			TtfFontAsset fontAsset = (TtfFontAsset) asset;
-			font = manager.get(fontAsset.getArbitraryFontName(), BitmapFont.class);
-		} else
-			throw new UnsupportedAssetDescriptorException(asset);
-
-		font.setUseIntegerPositions(false);
-		font.getData().setScale(1f / pixelsPerUnit);
-
+		BitmapFont font = getFont(asset);
 		TextComponent textComponent = new TextComponent(font, protoComponent.text);
 
 		textComponent.setPosition(protoComponent.x, protoComponent.y);
@@ -95,4 +86,24 @@ public class TextInflater extends Manager {
 		transmuter.transmute(e);
 		e.edit().add(textComponent);
 	}
+
+	private BitmapFont getFont (VisAssetDescriptor asset) {
+		String path;
+
+		if (asset instanceof BmpFontAsset)
+			path = ((BmpFontAsset) asset).getPath();
+		else if (asset instanceof TtfFontAsset)
+			path = ((TtfFontAsset) asset).getArbitraryFontName();
+		else
+			throw new UnsupportedAssetDescriptorException(asset);
+
+		BitmapFont font = fonts.get(path);
+		if (font != null) return font;
+
+		font = manager.get(path, BitmapFont.class);
+		fonts.put(path, font);
+		font.setUseIntegerPositions(false);
+		font.getData().setScale(1f / pixelsPerUnit);
+		return font;
+	}
 }
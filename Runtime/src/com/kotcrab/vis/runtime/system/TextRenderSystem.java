@@ -22,26 +22,28 @@ import com.artemis.Entity;
 import com.artemis.annotations.Wire;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
-import com.badlogic.gdx.math.Matrix4;
 import com.kotcrab.vis.runtime.component.InvisibleComponent;
 import com.kotcrab.vis.runtime.component.TextComponent;
 import net.mostlyoriginal.api.system.delegate.DeferredEntityProcessingSystem;
 import net.mostlyoriginal.api.system.delegate.EntityProcessPrincipal;
 
 /**
- * Renders entities with {@link TextComponent}
+ * Renders entities with {@link TextComponent}. Texts are drawn using vertices already transformed into world space so batch is
+ * not flushed between texts. Distance field shader is switched only when consecutive texts differ in distance field usage.
  * @author Kotcrab
  */
 @Wire
 public class TextRenderSystem extends DeferredEntityProcessingSystem {
-	private static final Matrix4 IDT_MATRIX = new Matrix4();
-
 	private ComponentMapper<TextComponent> textCm;
 
 	private RenderBatchingSystem renderBatchingSystem;
 	private Batch batch;
 	private ShaderProgram distanceFieldShader;
 
+	private boolean distanceFieldActive;
+	/** Shader of {@link RenderBatchingSystem} that was active when distance field shader was set */
+	private ShaderProgram shaderBeforeDistanceField;
+
 	public TextRenderSystem (EntityProcessPrincipal principal, ShaderProgram distanceFieldShader) {
 		super(Aspect.all(TextComponent.class).exclude(InvisibleComponent.class), principal);
 		this.distanceFieldShader = distanceFieldShader;
@@ -54,16 +56,29 @@ public class TextRenderSystem extends DeferredEntityProcessingSystem {
 
 	@Override
 	protected void process (final Entity entity) {
-		//TODO: optimize texts
 		TextComponent text = textCm.get(entity);
-		batch.setTransformMatrix(text.translationMatrix);
-		if (text.isDistanceFieldShaderEnabled()) batch.setShader(distanceFieldShader);
-		text.getCache().draw(batch);
-		if (text.isDistanceFieldShaderEnabled()) batch.setShader(null);
+		ShaderProgram activeShader = renderBatchingSystem.getActiveShader();
+
+		//render batching system has set it's own shader after distance field shader was set
+		if (distanceFieldActive && activeShader != shaderBeforeDistanceField) distanceFieldActive = false;
+
+		if (text.isDistanceFieldShaderEnabled() && distanceFieldActive == false) {
+			batch.setShader(distanceFieldShader);
+			distanceFieldActive = true;
+			shaderBeforeDistanceField = activeShader;
+		} else if (text.isDistanceFieldShaderEnabled() == false && distanceFieldActive) {
+			batch.setShader(activeShader);
+			distanceFieldActive = false;
+		}
+
+		text.draw(batch);
 	}
 
 	@Override
 	protected void end () {
-		batch.setTransformMatrix(IDT_MATRIX);
+		if (distanceFieldActive) {
+			batch.setShader(renderBatchingSystem.getActiveShader());
+			distanceFieldActive = false;
+		}
 	}
 }
@@ -23,10 +23,14 @@ import com.artemis.utils.ImmutableBag;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntMap.Entry;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.kotcrab.vis.runtime.component.GroupComponent;
+import com.kotcrab.vis.runtime.util.EntityVisitor;
 
 /**
- * Allows to get entities by their string id that was set in VisEditor
+ * Allows to get entities by their group id that was set in VisEditor. Order of entities in group is not preserved when
+ * entities are removed.
  * @author Kotcrab
  */
 @Wire
@@ -34,11 +38,16 @@ public class VisGroupManager extends Manager {
 	private ComponentMapper<GroupComponent> groupCm;
 	private AspectSubscriptionManager subscriptionManager;
 
-	private IntMap<String> groupsIds;
-	private IntMap<Array<Entity>> groups = new IntMap<Array<Entity>>();
+	private ObjectIntMap<String> groupsIds = new ObjectIntMap<String>();
+	private IntMap<EntityBucket> groups = new IntMap<EntityBucket>();
 
 	public VisGroupManager (IntMap<String> groupsIds) {
-		this.groupsIds = groupsIds;
+		if (groupsIds == null) return;
+
+		for (Entry<String> entry : groupsIds.entries()) {
+			//if names are duplicated, first group is used
+			if (this.groupsIds.containsKey(entry.value) == false) this.groupsIds.put(entry.value, entry.key);
+		}
 	}
 
 	@Override
@@ -54,14 +63,14 @@ public class VisGroupManager extends Manager {
 					for (int i = 0; i < groupIds.size; i++) {
 						int gid = groupIds.get(i);
 
-						Array<Entity> groupList = groups.get(gid);
+						EntityBucket group = groups.get(gid);
 
-						if (groupList == null) {
-							groupList = new Array<Entity>();
-							groups.put(gid, groupList);
+						if (group == null) {
+							group = new EntityBucket();
+							groups.put(gid, group);
 						}
 
-						groupList.add(entity);
+						group.add(entity);
 					}
 				}
 			}
@@ -72,29 +81,49 @@ public class VisGroupManager extends Manager {
 					IntArray groupIds = groupCm.get(entity).groupIds;
 
 					for (int i = 0; i < groupIds.size; i++) {
-						int gid = groupIds.get(i);
-
-						Array<Entity> groupList = groups.get(gid);
-						groupList.removeValue(entity, true);
-
-						if (groupList.size == 0) {
-							groups.remove(gid);
-						}
+						EntityBucket group = groups.get(groupIds.get(i));
+						if (group != null) group.remove(entity);
 					}
 				}
 			}
 		});
 	}
 
+	/** @return entities in group or null if group has no entities. Returned array must not be modified. */
 	public Array<Entity> get (int intId) {
-		return groups.get(intId);
+		EntityBucket group = groups.get(intId);
+		return group == null || group.isEmpty() ? null : group.entities;
 	}
 
+	/** @return entities in group or null if group has no entities. Returned array must not be modified. */
 	public Array<Entity> get (String stringId) {
-		int gid = groupsIds.findKey(stringId, false, Integer.MIN_VALUE);
+		int gid = getGroupId(stringId);
 		if (gid == Integer.MIN_VALUE)
 			throw new IllegalStateException("Group with ID: " + stringId + " does not exists!");
 
-		return groups.get(gid);
+		return get(gid);
+	}
+
+	/** @return int id of group with given string id, or {@link Integer#MIN_VALUE} if there is no such group */
+	public int getGroupId (String stringId) {
+		return groupsIds.get(stringId, Integer.MIN_VALUE);
+	}
+
+	/** Same as {@link #get(String)} but returns null instead of throwing exception if group does not exist */
+	public Array<Entity> find (String stringId) {
+		int gid = getGroupId(stringId);
+		return gid == Integer.MIN_VALUE ? null : get(gid);
+	}
+
+	/** Calls visitor for every entity in group. Entities must not be added or removed by visitor. */
+	public void forEach (int intId, EntityVisitor visitor) {
+		EntityBucket group = groups.get(intId);
+		if (group != null) group.forEach(visitor);
+	}
+
+	/** Calls visitor for every entity in group, does nothing if group does not exist */
+	public void forEach (String stringId, EntityVisitor visitor) {
+		int gid = getGroupId(stringId);
+		if (gid != Integer.MIN_VALUE) forEach(gid, visitor);
 	}
 }
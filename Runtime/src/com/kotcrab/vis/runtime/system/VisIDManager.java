@@ -21,11 +21,14 @@ import com.artemis.EntitySubscription.SubscriptionListener;
 import com.artemis.annotations.Wire;
 import com.artemis.utils.ImmutableBag;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.kotcrab.vis.runtime.component.IDComponent;
+import com.kotcrab.vis.runtime.util.EntityVisitor;
 
 /**
- * Allows to get entities by their string id that was set in VisEditor
+ * Allows to get entities by their string id that was set in VisEditor. String ids are interned into int handles when entities
+ * are added, handle can be retrieved using {@link #getHandle(String)} and used for lookups that don't require hashing string.
+ * Order of entities with the same id is not preserved when entities are removed.
  * @author Kotcrab
  */
 @Wire
@@ -33,7 +36,8 @@ public class VisIDManager extends Manager {
 	private ComponentMapper<IDComponent> idCm;
 	private AspectSubscriptionManager subscriptionManager;
 
-	private ObjectMap<String, Array<Entity>> idStore = new ObjectMap<String, Array<Entity>>();
+	private ObjectIntMap<String> handles = new ObjectIntMap<String>();
+	private Array<EntityBucket> buckets = new Array<EntityBucket>();
 
 	@Override
 	protected void initialize () {
@@ -44,29 +48,23 @@ public class VisIDManager extends Manager {
 			public void inserted (ImmutableBag<Entity> entities) {
 				for (Entity entity : entities) {
 					String id = idCm.get(entity).id;
+					int handle = handles.get(id, -1);
 
-					Array<Entity> idList = idStore.get(id);
-
-					if (idList == null) {
-						idList = new Array<Entity>();
-						idStore.put(id, idList);
+					if (handle == -1) {
+						handle = buckets.size;
+						handles.put(id, handle);
+						buckets.add(new EntityBucket());
 					}
 
-					idList.add(entity);
+					buckets.get(handle).add(entity);
 				}
 			}
 
 			@Override
 			public void removed (ImmutableBag<Entity> entities) {
 				for (Entity entity : entities) {
-					String id = idCm.get(entity).id;
-
-					Array<Entity> idList = idStore.get(id);
-					idList.removeValue(entity, true);
-
-					if (idList.size == 0) {
-						idStore.remove(id);
-					}
+					int handle = handles.get(idCm.get(entity).id, -1);
+					if (handle != -1) buckets.get(handle).remove(entity);
 				}
 			}
 		});
@@ -85,8 +83,45 @@ public class VisIDManager extends Manager {
 	 * @see #get(String)
 	 */
 	public Array<Entity> getMultiple (String id) {
-		Array<Entity> entities = idStore.get(id);
+		Array<Entity> entities = findMultiple(getHandle(id));
 		if (entities == null) throw new IllegalStateException("Could not find any entity with ID: " + id);
 		return entities;
 	}
+
+	/** @return int handle of string id or -1 if entity with such id was never added */
+	public int getHandle (String id) {
+		return handles.get(id, -1);
+	}
+
+	/** @return entity with given ID or null if there is no such entity. Does not throw exception unlike {@link #get(String)}. */
+	public Entity find (String id) {
+		return find(getHandle(id));
+	}
+
+	/** @return entity with id of given handle or null if there is no such entity, see {@link #getHandle(String)} */
+	public Entity find (int handle) {
+		Array<Entity> entities = findMultiple(handle);
+		return entities == null ? null : entities.first();
+	}
+
+	/**
+	 * @return all entities with id of given handle or null if there are no such entities. Returned array must not be
+	 * modified. See {@link #getHandle(String)}.
+	 */
+	public Array<Entity> findMultiple (int handle) {
+		if (handle < 0 || handle >= buckets.size) return null;
+		EntityBucket bucket = buckets.get(handle);
+		return bucket.isEmpty() ? null : bucket.entities;
+	}
+
+	/** Calls visitor for every entity with given ID. Entities must not be added or removed by visitor. */
+	public void forEach (String id, EntityVisitor visitor) {
+		forEach(getHandle(id), visitor);
+	}
+
+	/** Calls visitor for every entity with id of given handle, see {@link #getHandle(String)} */
+	public void forEach (int handle, EntityVisitor visitor) {
+		if (handle < 0 || handle >= buckets.size) return;
+		buckets.get(handle).forEach(visitor);
+	}
 }
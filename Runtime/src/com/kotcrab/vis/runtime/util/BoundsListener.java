@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.util;
+
+import com.kotcrab.vis.runtime.component.SpriteComponent;
+import com.kotcrab.vis.runtime.component.TextComponent;
+import com.kotcrab.vis.runtime.system.CullingManager;
+
+/**
+ * Notified by {@link SpriteComponent} and {@link TextComponent} setters when bounds of component may have changed, used by
+ * {@link CullingManager} to update bounds of moved entities.
+ * @author Kotcrab
+ */
+public interface BoundsListener {
+	void boundsChanged (int entityId);
+}
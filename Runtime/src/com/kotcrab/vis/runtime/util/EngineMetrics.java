@@ -0,0 +1,288 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.util;
+
+import com.artemis.BaseSystem;
+import com.artemis.SystemInvocationStrategy;
+import com.artemis.utils.Bag;
+import com.artemis.utils.ImmutableBag;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.kotcrab.vis.runtime.system.RenderBatchingSystem;
+import net.mostlyoriginal.api.system.delegate.DeferredEntityProcessingSystem;
+import net.mostlyoriginal.api.system.delegate.EntityProcessAgent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Records per frame metrics of {@link EntityEngine} into fixed size ring buffer. Metrics are recorded only when engine is
+ * processed using strategy returned by {@link #createInvocationStrategy()}, typically enabled by Scene#enableMetrics(int).
+ * <p>
+ * Every frame is stored as row of long values. First columns are fixed (see {@link #FRAME_TIME} and following constants),
+ * then there is process time of every non passive system in nanoseconds (column named "SystemName.time") and count of
+ * entities processed by every {@link DeferredEntityProcessingSystem} through {@link RenderBatchingSystem} (column named
+ * "SystemName.entities").
+ * <p>
+ * Values of current frame are collected without synchronization by thread processing engine and copied into buffer once
+ * per frame while holding buffer lock. Frames can be read from any thread, read methods take the same lock. Recorded frames
+ * can be dumped to CSV using {@link #writeCsv(FileHandle)}.
+ * @author Kotcrab
+ */
+public class EngineMetrics {
+	/** Time of processing all systems in nanoseconds */
+	public static final int FRAME_TIME = 0;
+	/** Batch flushes (render calls), see {@link RenderBatchingSystem#getFlushCount()} */
+	public static final int RENDER_CALLS = 1;
+	public static final int SHADER_SWITCHES = 2;
+	public static final int MATRIX_SWITCHES = 3;
+	public static final int DRAWN = 4;
+	public static final int CULLED = 5;
+	/** Count of active entities in engine */
+	public static final int ENTITIES = 6;
+
+	private static final String[] FIXED_COLUMNS = {"frameTime", "renderCalls", "shaderSwitches", "matrixSwitches", "drawn",
+			"culled", "entities"};
+
+	private final EntityEngine engine;
+	private final RenderBatchingSystem renderBatchingSystem;
+
+	private final int capacity;
+	private final int columnCount;
+	private final String[] columnNames;
+	/** Column of system by index in engine systems, -1 if system is not measured */
+	private final int[] systemColumns;
+	private final EntityProcessAgent[] agents;
+	private final int firstAgentColumn;
+
+	/** Values of frame that is being recorded, accessed only by thread processing engine */
+	private final long[] current;
+	/** Guarded by itself, frame n is stored in row n % capacity */
+	private final long[] data;
+	/** Count of published frames, modified only while holding lock of {@link #data} */
+	private volatile long frameCount;
+
+	/** @param capacity count of last frames that are kept in buffer */
+	public EngineMetrics (EntityEngine engine, int capacity) {
+		if (capacity <= 0) throw new IllegalArgumentException("capacity must be greater than 0");
+
+		this.engine = engine;
+		this.capacity = capacity;
+
+		ImmutableBag<BaseSystem> systems = engine.getSystems();
+		renderBatchingSystem = engine.getSystem(RenderBatchingSystem.class);
+
+		Array<String> names = new Array<String>(FIXED_COLUMNS);
+
+		systemColumns = new int[systems.size()];
+		for (int i = 0; i < systems.size(); i++) {
+			BaseSystem system = systems.get(i);
+
+			if (system.isPassive()) {
+				systemColumns[i] = -1;
+				continue;
+			}
+
+			systemColumns[i] = names.size;
+			names.add(ClassReflection.getSimpleName(system.getClass()) + ".time");
+		}
+
+		Array<EntityProcessAgent> agents = new Array<EntityProcessAgent>(EntityProcessAgent.class);
+		firstAgentColumn = names.size;
+		if (renderBatchingSystem != null) {
+			for (int i = 0; i < systems.size(); i++) {
+				BaseSystem system = systems.get(i);
+				if (system instanceof DeferredEntityProcessingSystem == false) continue;
+
+				agents.add(((DeferredEntityProcessingSystem) system).getProcessingAgent());
+				names.add(ClassReflection.getSimpleName(system.getClass()) + ".entities");
+			}
+		}
+
+		this.agents = agents.toArray();
+		columnNames = names.toArray(String.class);
+		columnCount = columnNames.length;
+		current = new long[columnCount];
+		data = new long[capacity * columnCount];
+	}
+
+	/** @return strategy that processes systems in the same way as default Artemis strategy and records metrics of every frame */
+	public SystemInvocationStrategy createInvocationStrategy () {
+		return new MetricsInvocationStrategy();
+	}
+
+	private void endFrame (long frameTime) {
+		long[] current = this.current;
+		current[FRAME_TIME] = frameTime;
+		current[ENTITIES] = engine.getEntityManager().getActiveEntityCount();
+
+		RenderBatchingSystem renderSystem = renderBatchingSystem;
+		if (renderSystem != null) {
+			current[RENDER_CALLS] = renderSystem.getFlushCount();
+			current[SHADER_SWITCHES] = renderSystem.getShaderSwitchCount();
+			current[MATRIX_SWITCHES] = renderSystem.getMatrixSwitchCount();
+			current[DRAWN] = renderSystem.getDrawnCount();
+			current[CULLED] = renderSystem.getCulledCount();
+
+			for (int i = 0; i < agents.length; i++)
+				current[firstAgentColumn + i] = renderSystem.getProcessedCount(agents[i]);
+		}
+
+		synchronized (data) {
+			System.arraycopy(current, 0, data, (int) (frameCount % capacity) * columnCount, columnCount);
+			frameCount++;
+		}
+	}
+
+	public int getCapacity () {
+		return capacity;
+	}
+
+	public int getColumnCount () {
+		return columnCount;
+	}
+
+	public String getColumnName (int column) {
+		return columnNames[column];
+	}
+
+	/** @return index of column with given name or -1 if there is no such column */
+	public int findColumn (String name) {
+		for (int i = 0; i < columnCount; i++)
+			if (columnNames[i].equals(name)) return i;
+
+		return -1;
+	}
+
+	/** @return total count of recorded frames, including frames that were already overwritten */
+	public long getFrameCount () {
+		return frameCount;
+	}
+
+	/** @return index of oldest frame that is still stored in buffer */
+	public long getOldestFrame () {
+		return Math.max(frameCount - capacity, 0);
+	}
+
+	/**
+	 * Copies values of recorded frame.
+	 * @param frame frame index, must be between {@link #getOldestFrame()} and {@link #getFrameCount()} (exclusive)
+	 * @param row array that will receive values, must have at least {@link #getColumnCount()} elements
+	 * @return true if row was read, false if frame was not recorded yet or was already overwritten
+	 */
+	public boolean read (long frame, long[] row) {
+		synchronized (data) {
+			if (frame < getOldestFrame() || frame >= frameCount) return false;
+
+			System.arraycopy(data, (int) (frame % capacity) * columnCount, row, 0, columnCount);
+			return true;
+		}
+	}
+
+	/** @return value of column from last recorded frame or 0 if no frames were recorded */
+	public long getLatest (int column) {
+		synchronized (data) {
+			long frame = frameCount - 1;
+			if (frame < 0) return 0;
+
+			return data[(int) (frame % capacity) * columnCount + column];
+		}
+	}
+
+	/** @return average value of column from last frames */
+	public float getAverage (int column, int frames) {
+		synchronized (data) {
+			long last = frameCount;
+			long first = Math.max(last - Math.min(frames, capacity), 0);
+			if (first == last) return 0;
+
+			long sum = 0;
+			for (long frame = first; frame < last; frame++)
+				sum += data[(int) (frame % capacity) * columnCount + column];
+
+			return sum / (float) (last - first);
+		}
+	}
+
+	/** Writes all frames stored in buffer as CSV, first column is frame index, time columns are in nanoseconds */
+	public void writeCsv (Writer writer) throws IOException {
+		writer.write("frame");
+		for (String name : columnNames) {
+			writer.write(',');
+			writer.write(name);
+		}
+		writer.write('\n');
+
+		long[] row = new long[columnCount];
+		StringBuilder builder = new StringBuilder();
+
+		for (long frame = getOldestFrame(), last = frameCount; frame < last; frame++) {
+			if (read(frame, row) == false) continue;
+
+			builder.setLength(0);
+			builder.append(frame);
+			for (long value : row)
+				builder.append(',').append(value);
+			builder.append('\n');
+
+			writer.write(builder.toString());
+		}
+	}
+
+	/** Writes all frames stored in buffer as CSV file, see {@link #writeCsv(Writer)} */
+	public void writeCsv (FileHandle file) {
+		Writer writer = null;
+		try {
+			writer = file.writer(false, "UTF-8");
+			writeCsv(writer);
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Error writing metrics: " + file, e);
+		} finally {
+			StreamUtils.closeQuietly(writer);
+		}
+	}
+
+	/** Same as default Artemis strategy, additionally measures time of every system */
+	private class MetricsInvocationStrategy extends SystemInvocationStrategy {
+		@Override
+		protected void process (Bag<BaseSystem> systems) {
+			long[] current = EngineMetrics.this.current;
+			Arrays.fill(current, 0);
+			long frameStart = TimeUtils.nanoTime();
+
+			Object[] systemsData = systems.getData();
+			for (int i = 0, s = systems.size(); i < s; i++) {
+				updateEntityStates();
+
+				BaseSystem system = (BaseSystem) systemsData[i];
+				if (system.isPassive()) continue;
+
+				long start = TimeUtils.nanoTime();
+				system.process();
+				int column = i < systemColumns.length ? systemColumns[i] : -1;
+				if (column != -1) current[column] = TimeUtils.nanoTime() - start;
+			}
+
+			endFrame(TimeUtils.nanoTime() - frameStart);
+		}
+	}
+}
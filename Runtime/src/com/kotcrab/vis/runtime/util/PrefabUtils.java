@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.util;
+
+import com.artemis.Component;
+import com.artemis.utils.EntityBuilder;
+import com.badlogic.gdx.utils.Array;
+import com.kotcrab.vis.runtime.component.*;
+
+/**
+ * Utilities for creating entities from prefabs stored in scene data. Prefab contains components shared by many entities, entity
+ * that is prefab instance stores only it's position and components that are different from prefab.
+ * <p>
+ * Asset and proto components without position are immutable during inflating so single instance is shared by all entities
+ * created from prefab. Proto components with position are copied with instance position. Other supported components are copied
+ * because they can be modified at runtime.
+ * @author Kotcrab
+ */
+public class PrefabUtils {
+	/** @return true if component of this class can be stored in prefab */
+	public static boolean isSupported (Class<? extends Component> type) {
+		return type == AssetComponent.class || type == LayerComponent.class || type == RenderableComponent.class
+				|| type == GroupComponent.class || type == InvisibleComponent.class
+				|| type == SpriteProtoComponent.class || type == TextProtoComponent.class || type == ParticleProtoComponent.class
+				|| type == MusicProtoComponent.class || type == SoundProtoComponent.class || type == ShaderProtoComponent.class;
+	}
+
+	/** @return true if component of this class stores entity position that is replaced by position of prefab instance */
+	public static boolean isPositioned (Class<? extends Component> type) {
+		return type == SpriteProtoComponent.class || type == TextProtoComponent.class || type == ParticleProtoComponent.class;
+	}
+
+	/** @return x position stored in positioned component, see {@link #isPositioned(Class)} */
+	public static float getX (Component component) {
+		if (component instanceof SpriteProtoComponent) return ((SpriteProtoComponent) component).x;
+		if (component instanceof TextProtoComponent) return ((TextProtoComponent) component).x;
+		if (component instanceof ParticleProtoComponent) return ((ParticleProtoComponent) component).x;
+		throw new IllegalArgumentException("Component does not store position: " + component.getClass());
+	}
+
+	/** @return y position stored in positioned component, see {@link #isPositioned(Class)} */
+	public static float getY (Component component) {
+		if (component instanceof SpriteProtoComponent) return ((SpriteProtoComponent) component).y;
+		if (component instanceof TextProtoComponent) return ((TextProtoComponent) component).y;
+		if (component instanceof ParticleProtoComponent) return ((ParticleProtoComponent) component).y;
+		throw new IllegalArgumentException("Component does not store position: " + component.getClass());
+	}
+
+	/**
+	 * Creates component for new prefab instance.
+	 * @param component prefab component
+	 * @param x x position of instance, used only by positioned components
+	 * @param y y position of instance, used only by positioned components
+	 * @return component that can be added to new entity, may be the same as prefab component if it's immutable
+	 */
+	public static Component instantiate (Component component, float x, float y) {
+		if (component instanceof AssetComponent || component instanceof MusicProtoComponent
+				|| component instanceof SoundProtoComponent || component instanceof ShaderProtoComponent) return component;
+
+		if (component instanceof LayerComponent) return new LayerComponent(((LayerComponent) component).layerId);
+		if (component instanceof RenderableComponent) return new RenderableComponent(((RenderableComponent) component).zIndex);
+		if (component instanceof InvisibleComponent) return new InvisibleComponent();
+
+		if (component instanceof GroupComponent) {
+			GroupComponent group = new GroupComponent();
+			group.groupIds.addAll(((GroupComponent) component).groupIds);
+			return group;
+		}
+
+		if (component instanceof SpriteProtoComponent) {
+			SpriteProtoComponent prefab = (SpriteProtoComponent) component;
+			SpriteProtoComponent proto = new SpriteProtoComponent();
+			proto.x = x;
+			proto.y = y;
+			proto.width = prefab.width;
+			proto.height = prefab.height;
+			proto.originX = prefab.originX;
+			proto.originY = prefab.originY;
+			proto.rotation = prefab.rotation;
+			proto.scaleX = prefab.scaleX;
+			proto.scaleY = prefab.scaleY;
+			proto.tint = prefab.tint; //color is copied by inflater
+			proto.flipX = prefab.flipX;
+			proto.flipY = prefab.flipY;
+			return proto;
+		}
+
+		if (component instanceof TextProtoComponent) {
+			TextProtoComponent prefab = (TextProtoComponent) component;
+			TextProtoComponent proto = new TextProtoComponent();
+			proto.x = x;
+			proto.y = y;
+			proto.originX = prefab.originX;
+			proto.originY = prefab.originY;
+			proto.rotation = prefab.rotation;
+			proto.scaleX = prefab.scaleX;
+			proto.scaleY = prefab.scaleY;
+			proto.tint = prefab.tint; //color is copied by inflater
+			proto.text = prefab.text;
+			proto.autoSetOriginToCenter = prefab.autoSetOriginToCenter;
+			proto.isUsesDistanceField = prefab.isUsesDistanceField;
+			return proto;
+		}
+
+		if (component instanceof ParticleProtoComponent) {
+			ParticleProtoComponent proto = new ParticleProtoComponent();
+			proto.x = x;
+			proto.y = y;
+			proto.active = ((ParticleProtoComponent) component).active;
+			return proto;
+		}
+
+		throw new IllegalArgumentException("Component can't be used in prefab: " + component.getClass());
+	}
+
+	/**
+	 * Adds components of new prefab instance to entity builder.
+	 * @param prefab components of prefab
+	 * @param overrides components of instance, prefab components of the same class are not added. May be null.
+	 * @param x x position of instance
+	 * @param y y position of instance
+	 */
+	public static void instantiate (EntityBuilder builder, Array<Component> prefab, Array<Component> overrides, float x, float y) {
+		if (overrides != null) {
+			for (int i = 0; i < overrides.size; i++)
+				builder.with(overrides.get(i));
+		}
+
+		for (int i = 0; i < prefab.size; i++) {
+			Component component = prefab.get(i);
+			if (isOverridden(overrides, component.getClass()) == false) builder.with(instantiate(component, x, y));
+		}
+	}
+
+	private static boolean isOverridden (Array<Component> overrides, Class<? extends Component> type) {
+		if (overrides == null) return false;
+
+		for (int i = 0; i < overrides.size; i++)
+			if (overrides.get(i).getClass() == type) return true;
+
+		return false;
+	}
+}
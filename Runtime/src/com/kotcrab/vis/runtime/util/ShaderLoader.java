@@ -16,7 +16,6 @@
 
 package com.kotcrab.vis.runtime.util;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
@@ -31,15 +30,28 @@ import com.kotcrab.vis.runtime.util.ShaderLoader.ShaderProgramParameter;
 /**
  * Shader loader for {@link AssetManager}. Expects that fragment shader file ends with .frag and vertex shader file name
  * ends with .vert
+ * <p>
+ * Shader sources are read on loader thread, programs are obtained from {@link ShaderRegistry} so shaders with identical
+ * source are compiled only once.
  * @author Kotcrab
  */
 public class ShaderLoader extends AsynchronousAssetLoader<ShaderProgram, ShaderProgramParameter> {
+	private final ShaderRegistry registry;
+
+	private String vertexSource;
+	private String fragmentSource;
+
 	public ShaderLoader () {
 		this(new InternalFileHandleResolver());
 	}
 
 	public ShaderLoader (FileHandleResolver resolver) {
+		this(resolver, new ShaderRegistry());
+	}
+
+	public ShaderLoader (FileHandleResolver resolver, ShaderRegistry registry) {
 		super(resolver);
+		this.registry = registry;
 		ShaderProgram.pedantic = false;
 	}
 
@@ -50,20 +62,22 @@ public class ShaderLoader extends AsynchronousAssetLoader<ShaderProgram, ShaderP
 
 	@Override
 	public void loadAsync (AssetManager manager, String fileName, FileHandle file, ShaderProgramParameter parameter) {
+		vertexSource = file.sibling(file.name() + ".vert").readString();
+		fragmentSource = file.sibling(file.name() + ".frag").readString();
 	}
 
 	@Override
 	public ShaderProgram loadSync (AssetManager manager, String fileName, FileHandle file, ShaderProgramParameter parameter) {
-		FileHandle vert = file.sibling(file.name() + ".vert");
-		FileHandle frag = file.sibling(file.name() + ".frag");
-
-		ShaderProgram shader = new ShaderProgram(vert, frag);
-		if (!shader.isCompiled())
-			Gdx.app.error("ShaderLoader", "Shader compilation failed:\n" + shader.getLog());
-
+		ShaderProgram shader = registry.obtain(fileName, vertexSource, fragmentSource);
+		vertexSource = null;
+		fragmentSource = null;
 		return shader;
 	}
 
+	public ShaderRegistry getRegistry () {
+		return registry;
+	}
+
 	static public class ShaderProgramParameter extends AssetLoaderParameters<ShaderProgram> {
 	}
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Stores shader programs loaded by {@link ShaderLoader}. Programs are identified by their vertex and fragment source, shader
+ * files with identical source share single program that is compiled only once.
+ * <p>
+ * Program returned by {@link #obtain(String, String, String)} is released by calling it's dispose method, which is done by
+ * AssetManager when shader asset is unloaded. Programs that are no longer used are kept compiled until
+ * {@link #disposeUnused()} is called, so switching between scenes using the same shaders does not recompile them.
+ * <p>
+ * Registry also records compile time and compilation log of every program, see {@link #getEntries()}.
+ * @author Kotcrab
+ */
+public class ShaderRegistry implements Disposable {
+	private final ObjectMap<String, ShaderEntry> entriesBySource = new ObjectMap<String, ShaderEntry>();
+	private final Array<ShaderEntry> entries = new Array<ShaderEntry>();
+	private final ImmutableArray<ShaderEntry> immutableEntries = new ImmutableArray<ShaderEntry>(entries);
+
+	private long totalCompileTime;
+
+	/**
+	 * Returns program for given source, program is compiled if it's not already in registry. Must be called from
+	 * rendering thread.
+	 * @param path path of shader file used for reporting, if program was already compiled from other file, path of that file
+	 * is reported
+	 * @return program that may not be compiled, see {@link ShaderProgram#isCompiled()}. Must be released by calling
+	 * {@link ShaderProgram#dispose()} once it's no longer needed.
+	 */
+	public ShaderProgram obtain (String path, String vertexSource, String fragmentSource) {
+		String source = vertexSource + '\0' + fragmentSource;
+		ShaderEntry entry = entriesBySource.get(source);
+
+		if (entry == null) {
+			entry = compile(path, vertexSource, fragmentSource);
+			entriesBySource.put(source, entry);
+			entries.add(entry);
+		}
+
+		entry.references++;
+		return entry.program;
+	}
+
+	private ShaderEntry compile (String path, String vertexSource, String fragmentSource) {
+		long start = TimeUtils.nanoTime();
+		RegistryShaderProgram program = new RegistryShaderProgram(vertexSource, fragmentSource);
+		long compileTime = TimeUtils.nanoTime() - start;
+		totalCompileTime += compileTime;
+
+		if (program.isCompiled() == false)
+			Gdx.app.error("ShaderRegistry", "Shader compilation failed: " + path + "\n" + program.getLog());
+
+		ShaderEntry entry = new ShaderEntry(path, program, compileTime);
+		program.entry = entry;
+		return entry;
+	}
+
+	private void release (ShaderEntry entry) {
+		if (entry.references > 0) entry.references--;
+	}
+
+	/** Disposes programs that are not used by any loaded asset. */
+	public void disposeUnused () {
+		for (int i = entries.size - 1; i >= 0; i--) {
+			ShaderEntry entry = entries.get(i);
+			if (entry.references > 0) continue;
+			remove(entry);
+			entries.removeIndex(i);
+		}
+	}
+
+	private void remove (ShaderEntry entry) {
+		entriesBySource.remove(entry.program.getVertexShaderSource() + '\0' + entry.program.getFragmentShaderSource());
+		entry.program.disposeProgram();
+	}
+
+	/** @return all programs stored in registry, including programs that failed to compile */
+	public ImmutableArray<ShaderEntry> getEntries () {
+		return immutableEntries;
+	}
+
+	/** @return count of programs that failed to compile */
+	public int getFailedCount () {
+		int count = 0;
+		for (ShaderEntry entry : entries)
+			if (entry.isCompiled() == false) count++;
+		return count;
+	}
+
+	/** @return total time spent compiling programs in nanoseconds, including programs that were already disposed */
+	public long getTotalCompileTime () {
+		return totalCompileTime;
+	}
+
+	/** Disposes all programs, including programs that are still used. */
+	@Override
+	public void dispose () {
+		for (ShaderEntry entry : entries)
+			entry.program.disposeProgram();
+		entries.clear();
+		entriesBySource.clear();
+	}
+
+	/** Program stored in {@link ShaderRegistry} with it's compilation results. */
+	public static class ShaderEntry {
+		private final String path;
+		private final RegistryShaderProgram program;
+		private final long compileTime;
+		private int references;
+
+		private ShaderEntry (String path, RegistryShaderProgram program, long compileTime) {
+			this.path = path;
+			this.program = program;
+			this.compileTime = compileTime;
+		}
+
+		/** @return path of shader file that program was compiled from */
+		public String getPath () {
+			return path;
+		}
+
+		public ShaderProgram getProgram () {
+			return program;
+		}
+
+		public boolean isCompiled () {
+			return program.isCompiled();
+		}
+
+		/** @return compilation log, contains errors if program failed to compile */
+		public String getLog () {
+			return program.getLog();
+		}
+
+		/** @return time spent compiling and linking program in nanoseconds */
+		public long getCompileTime () {
+			return compileTime;
+		}
+
+		/** @return count of loaded assets using this program */
+		public int getReferences () {
+			return references;
+		}
+	}
+
+	/** Program which dispose only releases reference to registry entry. */
+	private class RegistryShaderProgram extends ShaderProgram {
+		private ShaderEntry entry;
+
+		public RegistryShaderProgram (String vertexShader, String fragmentShader) {
+			super(vertexShader, fragmentShader);
+		}
+
+		@Override
+		public void dispose () {
+			release(entry);
+		}
+
+		void disposeProgram () {
+			super.dispose();
+		}
+	}
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.util;
+
+import com.kotcrab.vis.runtime.system.SimulationSystem;
+
+/**
+ * Implemented by systems that update simulation state (such as particles or skeleton animations) instead of rendering. If
+ * engine contains {@link SimulationSystem} such systems must be registered as passive, they are then processed by
+ * {@link SimulationSystem} using simulation delta. Otherwise they are processed as regular systems.
+ * @author Kotcrab
+ */
+public interface SimulatedSystem {
+}
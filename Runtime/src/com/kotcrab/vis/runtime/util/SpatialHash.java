@@ -0,0 +1,231 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.util;
+
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Uniform grid spatial hash storing axis aligned bounds of objects identified by non negative int ids (typically entity ids).
+ * Object is only moved between cells when range of cells that it covers has changed. Objects that would cover too many
+ * cells are stored in separate list and are always returned from queries.
+ * @author Kotcrab
+ */
+public class SpatialHash {
+	private static final int MAX_CELLS_PER_OBJECT = 256;
+
+	private final float cellSize;
+	private final float invCellSize;
+
+	private final LongMap<IntArray> cells = new LongMap<IntArray>();
+	private final IntArray oversized = new IntArray();
+
+	/** Cell range of each stored object, 4 ints per id: minX, minY, maxX, maxY */
+	private int[] ranges = new int[64 * 4];
+	private boolean[] stored = new boolean[64];
+	private boolean[] storedOversized = new boolean[64];
+
+	private int[] queryStamps = new int[64];
+	private int queryStamp;
+
+	private int size;
+
+	public SpatialHash (float cellSize) {
+		if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be greater than 0");
+		this.cellSize = cellSize;
+		this.invCellSize = 1f / cellSize;
+	}
+
+	/** Inserts object into hash or updates bounds of already stored object */
+	public void update (int id, float x, float y, float width, float height) {
+		ensureCapacity(id);
+
+		int minX = floor(x * invCellSize);
+		int minY = floor(y * invCellSize);
+		int maxX = floor((x + width) * invCellSize);
+		int maxY = floor((y + height) * invCellSize);
+		boolean isOversized = (long) (maxX - minX + 1) * (maxY - minY + 1) > MAX_CELLS_PER_OBJECT;
+
+		if (stored[id]) {
+			int base = id * 4;
+			if (storedOversized[id] == false && isOversized == false &&
+					ranges[base] == minX && ranges[base + 1] == minY && ranges[base + 2] == maxX && ranges[base + 3] == maxY)
+				return;
+
+			remove(id);
+		}
+
+		stored[id] = true;
+		size++;
+
+		if (isOversized) {
+			storedOversized[id] = true;
+			oversized.add(id);
+			return;
+		}
+
+		int base = id * 4;
+		ranges[base] = minX;
+		ranges[base + 1] = minY;
+		ranges[base + 2] = maxX;
+		ranges[base + 3] = maxY;
+
+		for (int cx = minX; cx <= maxX; cx++) {
+			for (int cy = minY; cy <= maxY; cy++) {
+				long key = key(cx, cy);
+				IntArray cell = cells.get(key);
+
+				if (cell == null) {
+					cell = new IntArray(false, 8);
+					cells.put(key, cell);
+				}
+
+				cell.add(id);
+			}
+		}
+	}
+
+	public void remove (int id) {
+		if (contains(id) == false) return;
+
+		stored[id] = false;
+		size--;
+
+		if (storedOversized[id]) {
+			storedOversized[id] = false;
+			oversized.removeValue(id);
+			return;
+		}
+
+		int base = id * 4;
+		for (int cx = ranges[base]; cx <= ranges[base + 2]; cx++) {
+			for (int cy = ranges[base + 1]; cy <= ranges[base + 3]; cy++) {
+				long key = key(cx, cy);
+				IntArray cell = cells.get(key);
+				cell.removeValue(id);
+				if (cell.size == 0) cells.remove(key);
+			}
+		}
+	}
+
+	/** Adds ids of all stored objects to result bag */
+	public void getIds (IntBag result) {
+		for (int id = 0; id < stored.length; id++)
+			if (stored[id]) result.add(id);
+	}
+
+	public boolean contains (int id) {
+		return id < stored.length && stored[id];
+	}
+
+	/**
+	 * Adds ids of all objects whose cells overlap given area to result bag. Every id is added only once. Returned objects
+	 * are not guaranteed to overlap given area, only cells that they cover do.
+	 */
+	public void query (float x, float y, float width, float height, IntBag result) {
+		if (++queryStamp == 0) {
+			for (int i = 0; i < queryStamps.length; i++) queryStamps[i] = 0;
+			queryStamp = 1;
+		}
+
+		int minX = floor(x * invCellSize);
+		int minY = floor(y * invCellSize);
+		int maxX = floor((x + width) * invCellSize);
+		int maxY = floor((y + height) * invCellSize);
+
+		if ((long) (maxX - minX + 1) * (maxY - minY + 1) > cells.size) {
+			//query area covers more cells than there are non empty cells, iterate stored cells instead
+			for (LongMap.Entry<IntArray> entry : cells.entries()) {
+				int cx = (int) (entry.key >> 32);
+				int cy = (int) entry.key;
+				if (cx >= minX && cx <= maxX && cy >= minY && cy <= maxY) addCell(entry.value, result);
+			}
+		} else {
+			for (int cx = minX; cx <= maxX; cx++) {
+				for (int cy = minY; cy <= maxY; cy++) {
+					IntArray cell = cells.get(key(cx, cy));
+					if (cell != null) addCell(cell, result);
+				}
+			}
+		}
+
+		addCell(oversized, result);
+	}
+
+	private void addCell (IntArray cell, IntBag result) {
+		int[] items = cell.items;
+		for (int i = 0; i < cell.size; i++) {
+			int id = items[i];
+			if (queryStamps[id] != queryStamp) {
+				queryStamps[id] = queryStamp;
+				result.add(id);
+			}
+		}
+	}
+
+	public void clear () {
+		cells.clear();
+		oversized.clear();
+
+		for (int i = 0; i < stored.length; i++) {
+			stored[i] = false;
+			storedOversized[i] = false;
+		}
+
+		size = 0;
+	}
+
+	/** @return count of stored objects */
+	public int size () {
+		return size;
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+	private void ensureCapacity (int id) {
+		if (id < stored.length) return;
+
+		int newCapacity = Math.max(id + 1, stored.length * 2);
+
+		int[] newRanges = new int[newCapacity * 4];
+		System.arraycopy(ranges, 0, newRanges, 0, ranges.length);
+		ranges = newRanges;
+
+		boolean[] newStored = new boolean[newCapacity];
+		System.arraycopy(stored, 0, newStored, 0, stored.length);
+		stored = newStored;
+
+		boolean[] newStoredOversized = new boolean[newCapacity];
+		System.arraycopy(storedOversized, 0, newStoredOversized, 0, storedOversized.length);
+		storedOversized = newStoredOversized;
+
+		int[] newQueryStamps = new int[newCapacity];
+		System.arraycopy(queryStamps, 0, newQueryStamps, 0, queryStamps.length);
+		queryStamps = newQueryStamps;
+	}
+
+	private static int floor (float value) {
+		return (int) Math.floor(value);
+	}
+
+	private static long key (int cx, int cy) {
+		return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+	}
+}
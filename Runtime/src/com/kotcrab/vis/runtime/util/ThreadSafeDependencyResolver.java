@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.util;
+
+import com.kotcrab.vis.runtime.font.FontProvider;
+import com.kotcrab.vis.runtime.plugin.EntitySupport;
+import com.kotcrab.vis.runtime.scene.SceneLoader;
+
+/**
+ * Marker interface for {@link EntitySupport} and {@link FontProvider} which {@link EntitySupport#resolveDependencies} and
+ * {@link FontProvider#load} can be safely called from multiple threads at once. {@link SceneLoader} reads entities and
+ * resolves their dependencies in parallel only if all registered supports and font providers implement this interface.
+ * @author Kotcrab
+ */
+public interface ThreadSafeDependencyResolver {
+}
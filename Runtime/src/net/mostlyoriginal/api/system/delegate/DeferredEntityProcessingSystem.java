@@ -68,6 +68,11 @@ public abstract class DeferredEntityProcessingSystem extends EntitySystem {
 	protected void processSystem () {
 	}
 
+	/** @return agent registered with principal for entities of this system */
+	public EntityProcessAgent getProcessingAgent () {
+		return localProcessingAgent;
+	}
+
 	/**
 	 * Simple processing agent that delegates to this system.
 	 * Workaround for naming collisions, so the all callers
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.scene;
+
+import com.artemis.Component;
+import com.artemis.Entity;
+import com.artemis.utils.Bag;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.BitmapFontLoader.BitmapFontParameter;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Json;
+import com.kotcrab.vis.runtime.RuntimeConfiguration;
+import com.kotcrab.vis.runtime.assets.*;
+import com.kotcrab.vis.runtime.component.*;
+import com.kotcrab.vis.runtime.data.EntityData;
+import com.kotcrab.vis.runtime.data.LayerData;
+import com.kotcrab.vis.runtime.data.SceneData;
+import com.kotcrab.vis.runtime.font.FreeTypeFontProvider;
+import com.kotcrab.vis.runtime.plugin.EntitySupport;
+import com.kotcrab.vis.runtime.util.EntityEngine;
+import com.kotcrab.vis.runtime.util.EntityEngineConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes scene using {@link BinarySceneWriter} and checks that {@link BinarySceneReader} and {@link SceneLoader} produce the same
+ * scene data, entities and dependencies as for JSON version of that scene.
+ * @author Kotcrab
+ */
+public class BinarySceneTest {
+	private Files gdxFiles;
+	private Array<File> tempFiles = new Array<File>();
+
+	@Before
+	public void setUp () {
+		//distance field shader dependency is resolved from classpath
+		gdxFiles = Gdx.files;
+		Gdx.files = (Files) Proxy.newProxyInstance(Files.class.getClassLoader(), new Class[]{Files.class}, new InvocationHandler() {
+			@Override
+			public Object invoke (Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("classpath")) return new FileHandle((String) args[0]);
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	@After
+	public void tearDown () {
+		Gdx.files = gdxFiles;
+		for (File file : tempFiles)
+			file.delete();
+	}
+
+	@Test
+	public void testSceneDataRoundTrip () throws Exception {
+		SceneData data = createScene();
+		BinarySceneReader reader = new BinarySceneReader(writeBinary(data), SceneLoader.getJson());
+		SceneData read = reader.getSceneData();
+
+		assertEquals(data.viewport, read.viewport);
+		assertEquals(data.width, read.width, 0);
+		assertEquals(data.height, read.height, 0);
+		assertEquals(data.pixelsPerUnit, read.pixelsPerUnit, 0);
+		assertEquals(data.chunkSize, read.chunkSize, 0);
+		assertArrayEquals(data.chunks, read.chunks);
+
+		assertEquals(data.layers.size, read.layers.size);
+		for (int i = 0; i < data.layers.size; i++) {
+			LayerData layer = data.layers.get(i);
+			LayerData readLayer = read.layers.get(i);
+			assertEquals(layer.cordsSystem, readLayer.cordsSystem);
+			assertEquals(layer.name, readLayer.name);
+			assertEquals(layer.id, readLayer.id);
+		}
+
+		assertEquals(data.groupIds.size, read.groupIds.size);
+		for (IntMap.Entry<String> entry : data.groupIds.entries())
+			assertEquals(entry.value, read.groupIds.get(entry.key));
+
+		assertEquals(data.entities.size, reader.getEntityCount());
+		assertEquals(0, read.entities.size);
+	}
+
+	@Test
+	public void testEntitiesRoundTrip () throws Exception {
+		SceneData data = createScene();
+
+		EntityEngine expectedEngine = createEngine();
+		for (EntityData entityData : data.entities)
+			entityData.build(expectedEngine, data.prefabs);
+		expectedEngine.process();
+
+		EntityEngine engine = createEngine();
+		new BinarySceneReader(writeBinary(data), SceneLoader.getJson()).build(engine);
+		engine.process();
+
+		Json json = SceneLoader.getJson();
+		for (int i = 0; i < data.entities.size; i++)
+			assertEquals("Entity " + i + " differs", describe(json, expectedEngine.getEntity(i)), describe(json, engine.getEntity(i)));
+	}
+
+	@Test
+	public void testDependencies () throws Exception {
+		SceneData data = createScene();
+
+		Array<String> jsonDependencies = getDependencies(writeJson(data));
+		Array<String> binaryDependencies = getDependencies(writeBinary(data));
+
+		assertEquals(jsonDependencies, binaryDependencies);
+		assertTrue(binaryDependencies.contains("com.badlogic.gdx.graphics.g2d.TextureAtlas:gfx/textures.atlas", false));
+		assertTrue(binaryDependencies.contains("com.badlogic.gdx.audio.Sound:sound/click.wav", false));
+		assertTrue(binaryDependencies.contains("java.lang.String:test/generic-asset", false));
+		assertTrue(binaryDependencies.contains("java.lang.String:test/generic-component", false));
+	}
+
+	private SceneData createScene () {
+		SceneData data = new SceneData();
+		data.viewport = SceneViewport.FIT;
+		data.width = 20;
+		data.height = 12.5f;
+		data.pixelsPerUnit = 100;
+		data.layers.add(new LayerData(LayerCordsSystem.WORLD, "Background", 0));
+		data.layers.add(new LayerData(LayerCordsSystem.SCREEN, "UI", 1));
+		data.groupIds = new IntMap<String>();
+		data.groupIds.put(3, "enemies");
+		data.chunks = new int[]{0, 0, 1, 0};
+		data.chunkSize = 50;
+
+		data.prefabs.add(new EntityData(Array.<Component>with(new AssetComponent(new AtlasRegionAsset("gfx/tiles.atlas", "grass")),
+				createSprite(0, 0, false), new LayerComponent(0), new RenderableComponent(1))));
+
+		data.entities.add(new EntityData(Array.<Component>with(new AssetComponent(new TextureRegionAsset("gfx/player.png")),
+				createSprite(4, 2, true), new LayerComponent(0), new RenderableComponent(5), new IDComponent("player"),
+				createGroup(3), new ShaderProtoComponent(new ShaderAsset("shader/outline.vert", "shader/outline.frag")))));
+		data.entities.add(new EntityData(0, 10, 20, new Array<Component>()));
+		data.entities.add(new EntityData(0, 30, 40, Array.<Component>with(new RenderableComponent(-3))));
+
+		BitmapFontParameter parameter = new BitmapFontParameter();
+		parameter.flip = true;
+		parameter.minFilter = TextureFilter.Linear;
+		parameter.atlasName = "fonts";
+		data.entities.add(new EntityData(Array.<Component>with(new AssetComponent(new BmpFontAsset("font/arial.fnt", parameter)),
+				createText("Score", true), new LayerComponent(1), new RenderableComponent(0))));
+		data.entities.add(new EntityData(Array.<Component>with(new AssetComponent(new TtfFontAsset("font/arial.ttf", 24)),
+				createText(null, false), new LayerComponent(1), new RenderableComponent(0), new InvisibleComponent())));
+
+		MusicProtoComponent music = new MusicProtoComponent();
+		music.looping = true;
+		music.volume = 0.5f;
+		data.entities.add(new EntityData(Array.<Component>with(new AssetComponent(new PathAsset("music/theme.ogg")), music)));
+		data.entities.add(new EntityData(Array.<Component>with(new AssetComponent(new PathAsset("sound/click.wav")), new SoundProtoComponent())));
+
+		ParticleProtoComponent particle = new ParticleProtoComponent();
+		particle.x = 3;
+		particle.y = -7;
+		particle.active = true;
+		data.entities.add(new EntityData(Array.<Component>with(new AssetComponent(new PathAsset("particle/fire.p")), particle,
+				new LayerComponent(0), new RenderableComponent(2))));
+
+		TestComponent component = new TestComponent();
+		component.name = "test/generic-component";
+		component.value = 42;
+		data.entities.add(new EntityData(Array.<Component>with(new AssetComponent(new TestAsset("test/generic-asset")), component)));
+
+		return data;
+	}
+
+	private SpriteProtoComponent createSprite (float x, float y, boolean flipX) {
+		SpriteProtoComponent sprite = new SpriteProtoComponent();
+		sprite.x = x;
+		sprite.y = y;
+		sprite.width = 2;
+		sprite.height = 3;
+		sprite.originX = 1;
+		sprite.originY = 1.5f;
+		sprite.rotation = 45;
+		sprite.scaleX = 2;
+		sprite.tint = new Color(Color.RED);
+		sprite.flipX = flipX;
+		return sprite;
+	}
+
+	private TextProtoComponent createText (String text, boolean distanceField) {
+		TextProtoComponent proto = new TextProtoComponent();
+		proto.x = 5;
+		proto.y = 6;
+		proto.rotation = 90;
+		proto.scaleY = 0.5f;
+		proto.tint = new Color(Color.BLUE);
+		proto.text = text;
+		proto.autoSetOriginToCenter = true;
+		proto.isUsesDistanceField = distanceField;
+		return proto;
+	}
+
+	private GroupComponent createGroup (int groupId) {
+		GroupComponent group = new GroupComponent();
+		group.groupIds.add(groupId);
+		return group;
+	}
+
+	private EntityEngine createEngine () {
+		return new EntityEngine(new EntityEngineConfiguration());
+	}
+
+	/** @return sorted JSON representations of all entity components */
+	private String describe (Json json, Entity entity) {
+		Bag<Component> components = entity.getComponents(new Bag<Component>());
+		Array<String> descriptions = new Array<String>();
+
+		for (int i = 0; i < components.size(); i++) {
+			Component component = components.get(i);
+			descriptions.add(component.getClass().getName() + json.toJson(component));
+		}
+
+		descriptions.sort();
+		return descriptions.toString();
+	}
+
+	/** @return sorted dependencies of scene resolved by {@link SceneLoader} */
+	private Array<String> getDependencies (FileHandle file) {
+		SceneLoader loader = new SceneLoader(new RuntimeConfiguration());
+		loader.setBatch((Batch) Proxy.newProxyInstance(Batch.class.getClassLoader(), new Class[]{Batch.class}, new InvocationHandler() {
+			@Override
+			public Object invoke (Object proxy, Method method, Object[] args) throws Throwable {
+				throw new UnsupportedOperationException(method.getName());
+			}
+		}));
+		loader.enableFreeType(null, new FreeTypeFontProvider() {
+			@Override
+			public void setLoaders (AssetManager assetManager) {
+			}
+		});
+		loader.registerSupport(null, new TestSupport());
+
+		Array<String> dependencies = new Array<String>();
+		for (AssetDescriptor descriptor : loader.getDependencies(file.path(), file, null))
+			dependencies.add(descriptor.type.getName() + ":" + descriptor.fileName);
+
+		loader.dispose();
+		dependencies.sort();
+		return dependencies;
+	}
+
+	private FileHandle writeJson (SceneData data) throws Exception {
+		FileHandle file = createTempFile();
+		SceneLoader.getJson().toJson(data, file);
+		return file;
+	}
+
+	private FileHandle writeBinary (SceneData data) throws Exception {
+		FileHandle file = createTempFile();
+		new BinarySceneWriter().write(data, file);
+		return file;
+	}
+
+	private FileHandle createTempFile () throws Exception {
+		File file = File.createTempFile("vis-scene", ".scene");
+		tempFiles.add(file);
+		return new FileHandle(file);
+	}
+
+	public static class TestComponent extends Component {
+		public String name;
+		public int value;
+	}
+
+	public static class TestAsset implements VisAssetDescriptor {
+		public String path;
+
+		public TestAsset () {
+		}
+
+		public TestAsset (String path) {
+			this.path = path;
+		}
+
+		@Override
+		public boolean compare (VisAssetDescriptor asset) {
+			return asset instanceof TestAsset && ((TestAsset) asset).path.equals(path);
+		}
+	}
+
+	/** Resolves dependencies of generic assets and components so they can be compared between scene formats */
+	private static class TestSupport implements EntitySupport {
+		@Override
+		public void setLoaders (AssetManager manager) {
+		}
+
+		@Override
+		public void resolveDependencies (Array<AssetDescriptor> dependencies, EntityData entityData, Component component) {
+			if (component instanceof AssetComponent && ((AssetComponent) component).asset instanceof TestAsset)
+				dependencies.add(new AssetDescriptor<String>(((TestAsset) ((AssetComponent) component).asset).path, String.class));
+
+			if (component instanceof TestComponent)
+				dependencies.add(new AssetDescriptor<String>(((TestComponent) component).name, String.class));
+		}
+
+		@Override
+		public void registerSystems (RuntimeConfiguration configuration, EntityEngineConfiguration engineConfig, AssetManager manager) {
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.Entity;
+import com.artemis.World;
+import com.artemis.WorldConfiguration;
+import com.kotcrab.vis.runtime.component.LayerComponent;
+import com.kotcrab.vis.runtime.component.RenderableComponent;
+import com.kotcrab.vis.runtime.system.RenderBatchingSystem.Job;
+import net.mostlyoriginal.api.system.delegate.EntityProcessAgent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares incremental render order updates of {@link RenderBatchingSystem} with full resort of all entities. Run using
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ * -Dexec.args=RenderBatchingSystemBenchmark}
+ * @author Kotcrab
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RenderBatchingSystemBenchmark {
+	@Param({"1000", "10000", "100000"})
+	public int entityCount;
+
+	/** Count of entities changed, removed or added before every render order update */
+	@Param({"10", "1000"})
+	public int changedCount;
+
+	private RenderBatchingSystem system;
+	private Entity[] entities;
+	private EntityProcessAgent agent = new EntityProcessAgent() {
+		@Override
+		public void begin () {
+		}
+
+		@Override
+		public void end () {
+		}
+
+		@Override
+		public void process (Entity e) {
+		}
+	};
+
+	private Random random = new Random(2015);
+
+	@Setup(Level.Trial)
+	public void setUp () {
+		system = new RenderBatchingSystem(null, true);
+		World world = new World(new WorldConfiguration().setSystem(system, true));
+
+		entities = new Entity[entityCount];
+		for (int i = 0; i < entityCount; i++) {
+			Entity entity = world.createEntity();
+			entity.edit().add(new LayerComponent(random.nextInt(4))).add(new RenderableComponent(random.nextInt(100)));
+			system.registerAgent(entity, agent);
+			entities[i] = entity;
+		}
+
+		system.updateRenderOrder();
+	}
+
+	@Benchmark
+	public Job[] markDirtyEntity () {
+		for (int i = 0; i < changedCount; i++) {
+			Entity entity = changeRandomEntity();
+			system.markDirty(entity);
+		}
+
+		system.updateRenderOrder();
+		return system.getSortedJobs();
+	}
+
+	@Benchmark
+	public Job[] markDirtyAll () {
+		for (int i = 0; i < changedCount; i++)
+			changeRandomEntity();
+
+		system.markDirty();
+		system.updateRenderOrder();
+		return system.getSortedJobs();
+	}
+
+	@Benchmark
+	public Job[] removeAndInsert () {
+		for (int i = 0; i < changedCount; i++) {
+			Entity entity = entities[random.nextInt(entityCount)];
+			system.unregisterAgent(entity, agent);
+			system.registerAgent(entity, agent);
+		}
+
+		system.updateRenderOrder();
+		return system.getSortedJobs();
+	}
+
+	private Entity changeRandomEntity () {
+		Entity entity = entities[random.nextInt(entityCount)];
+		entity.getComponent(RenderableComponent.class).zIndex = random.nextInt(100);
+		return entity;
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2014-2015 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kotcrab.vis.runtime.system;
+
+import com.artemis.Entity;
+import com.artemis.World;
+import com.artemis.WorldConfiguration;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.kotcrab.vis.runtime.component.LayerComponent;
+import com.kotcrab.vis.runtime.component.RenderableComponent;
+import com.kotcrab.vis.runtime.system.RenderBatchingSystem.Job;
+import net.mostlyoriginal.api.system.delegate.EntityProcessAgent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks incremental render order of {@link RenderBatchingSystem} against full sort of all registered jobs.
+ * @author Kotcrab
+ */
+public class RenderBatchingSystemTest {
+	private static final int Z_INDEX_MIN = -(1 << 23);
+	private static final int Z_INDEX_MAX = (1 << 23) - 1;
+	private static final int LAYER_MAX = 0x7FFF;
+
+	private World world;
+	private RenderBatchingSystem system;
+	private EntityProcessAgent firstAgent = new TestAgent();
+	private EntityProcessAgent secondAgent = new TestAgent();
+
+	private Random random = new Random(2015);
+	/** Reference list of registered jobs in registration order */
+	private Array<Registration> registrations = new Array<Registration>();
+	private int nextSeq;
+
+	@Before
+	public void setUp () {
+		system = new RenderBatchingSystem(null, true);
+		world = new World(new WorldConfiguration().setSystem(system, true));
+	}
+
+	@Test
+	public void testInsert () throws Exception {
+		for (int i = 0; i < 500; i++) {
+			register(createEntity(random.nextInt(4), random.nextInt(20) - 10), firstAgent);
+			if (i % 50 == 0) assertOrder();
+		}
+
+		assertOrder();
+	}
+
+	@Test
+	public void testRemove () throws Exception {
+		Array<Entity> entities = new Array<Entity>();
+		for (int i = 0; i < 300; i++) {
+			Entity entity = createEntity(random.nextInt(4), random.nextInt(20) - 10);
+			entities.add(entity);
+			register(entity, firstAgent);
+			register(entity, secondAgent);
+		}
+
+		//unregister part of jobs while they are still pending
+		for (int i = 0; i < 50; i++)
+			unregister(entities.get(random.nextInt(entities.size)), random.nextBoolean() ? firstAgent : secondAgent);
+		assertOrder();
+
+		//and part of jobs that are already sorted
+		for (int i = 0; i < 100; i++)
+			unregister(entities.get(random.nextInt(entities.size)), random.nextBoolean() ? firstAgent : secondAgent);
+		assertOrder();
+	}
+
+	@Test
+	public void testMarkDirtyReKeysEntity () throws Exception {
+		Array<Entity> entities = new Array<Entity>();
+		for (int i = 0; i < 300; i++) {
+			Entity entity = createEntity(random.nextInt(4), random.nextInt(20) - 10);
+			entities.add(entity);
+			register(entity, firstAgent);
+		}
+		assertOrder();
+
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 30; i++) {
+				Entity entity = entities.get(random.nextInt(entities.size));
+				entity.getComponent(RenderableComponent.class).zIndex = random.nextInt(20) - 10;
+				if (random.nextInt(4) == 0) entity.getComponent(LayerComponent.class).layerId = random.nextInt(4);
+				system.markDirty(entity);
+			}
+
+			assertOrder();
+		}
+	}
+
+	@Test
+	public void testMarkDirtyResortsAll () throws Exception {
+		Array<Entity> entities = new Array<Entity>();
+		for (int i = 0; i < 200; i++) {
+			Entity entity = createEntity(random.nextInt(4), random.nextInt(20) - 10);
+			entities.add(entity);
+			register(entity, firstAgent);
+		}
+		assertOrder();
+
+		for (Entity entity : entities)
+			entity.getComponent(RenderableComponent.class).zIndex = random.nextInt(20) - 10;
+
+		system.markDirty();
+		assertOrder();
+	}
+
+	@Test
+	public void testResequenceKeepsOrder () throws Exception {
+		for (int i = 0; i < 100; i++)
+			register(createEntity(random.nextInt(2), random.nextInt(3)), firstAgent);
+		assertOrder();
+
+		//force insertion counter overflow
+		Field field = RenderBatchingSystem.class.getDeclaredField("nextSeq");
+		field.setAccessible(true);
+		field.setInt(system, (1 << 24) - 10);
+
+		for (int i = 0; i < 100; i++) {
+			register(createEntity(random.nextInt(2), random.nextInt(3)), firstAgent);
+			if (i % 7 == 0) assertOrder();
+		}
+
+		assertOrder();
+	}
+
+	@Test
+	public void testKeyClamping () throws Exception {
+		register(createEntity(LAYER_MAX + 100, Integer.MAX_VALUE), firstAgent);
+		register(createEntity(LAYER_MAX, Z_INDEX_MAX), firstAgent);
+		register(createEntity(0, Integer.MIN_VALUE), firstAgent);
+		register(createEntity(0, Z_INDEX_MIN), firstAgent);
+		register(createEntity(-5, 0), firstAgent);
+		assertOrder();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testStateIdsOfRemovedJobsAreReleased () throws Exception {
+		system.setStateAwareOrdering(true);
+
+		Field field = RenderBatchingSystem.class.getDeclaredField("agentIds");
+		field.setAccessible(true);
+		ObjectIntMap<Object> agentIds = (ObjectIntMap<Object>) field.get(system);
+
+		Array<Entity> entities = new Array<Entity>();
+		Array<EntityProcessAgent> agents = new Array<EntityProcessAgent>();
+
+		for (int round = 0; round < 50; round++) {
+			for (int i = 0; i < 100; i++) {
+				Entity entity = createEntity(0, 0);
+				EntityProcessAgent agent = new TestAgent();
+				system.registerAgent(entity, agent);
+				entities.add(entity);
+				agents.add(agent);
+			}
+
+			system.updateRenderOrder();
+			assertTrue("State ids are not released: " + agentIds.size, agentIds.size <= 200 + 64);
+
+			//jobs with equal layer and zIndex must be grouped by agent
+			Job[] jobs = system.getSortedJobs();
+			for (int i = 1; i < system.getSortedJobsSize(); i++)
+				assertTrue(jobs[i].agent == jobs[i - 1].agent || agentIds.get(jobs[i].agent, -1) > agentIds.get(jobs[i - 1].agent, -1));
+
+			//keep last round registered
+			if (round % 2 == 0) continue;
+			for (int i = 0; i < entities.size; i++)
+				system.unregisterAgent(entities.get(i), agents.get(i));
+			entities.clear();
+			agents.clear();
+		}
+	}
+
+	@Test
+	public void testRandomOperations () throws Exception {
+		Array<Entity> entities = new Array<Entity>();
+
+		for (int i = 0; i < 5000; i++) {
+			int operation = random.nextInt(10);
+
+			if (operation < 4 || entities.size == 0) {
+				Entity entity = createEntity(random.nextInt(3), random.nextInt(10));
+				entities.add(entity);
+				register(entity, random.nextBoolean() ? firstAgent : secondAgent);
+			} else if (operation < 6) {
+				Registration registration = registrations.get(random.nextInt(registrations.size));
+				unregister(registration.entity, registration.agent);
+			} else if (operation < 9) {
+				Entity entity = entities.get(random.nextInt(entities.size));
+				entity.getComponent(RenderableComponent.class).zIndex = random.nextInt(10);
+				system.markDirty(entity);
+			} else
+				assertOrder();
+		}
+
+		assertOrder();
+	}
+
+	private Entity createEntity (int layerId, int zIndex) {
+		Entity entity = world.createEntity();
+		entity.edit().add(new LayerComponent(layerId)).add(new RenderableComponent(zIndex));
+		return entity;
+	}
+
+	private void register (Entity entity, EntityProcessAgent agent) {
+		system.registerAgent(entity, agent);
+		registrations.add(new Registration(entity, agent, nextSeq++));
+	}
+
+	private void unregister (Entity entity, EntityProcessAgent agent) {
+		system.unregisterAgent(entity, agent);
+
+		for (int i = 0; i < registrations.size; i++) {
+			Registration registration = registrations.get(i);
+			if (registration.entity == entity && registration.agent == agent) {
+				registrations.removeIndex(i);
+				return;
+			}
+		}
+	}
+
+	private void assertOrder () {
+		system.updateRenderOrder();
+
+		Array<Registration> expected = new Array<Registration>(registrations);
+		expected.sort();
+
+		Job[] jobs = system.getSortedJobs();
+		assertEquals(expected.size, system.getSortedJobsSize());
+
+		for (int i = 0; i < expected.size; i++) {
+			assertSame("Invalid entity at index " + i, expected.get(i).entity, jobs[i].entity);
+			assertSame("Invalid agent at index " + i, expected.get(i).agent, jobs[i].agent);
+		}
+	}
+
+	private static int clamp (int value, int min, int max) {
+		return Math.min(Math.max(value, min), max);
+	}
+
+	private static class Registration implements Comparable<Registration> {
+		final Entity entity;
+		final EntityProcessAgent agent;
+		final int seq;
+
+		Registration (Entity entity, EntityProcessAgent agent, int seq) {
+			this.entity = entity;
+			this.agent = agent;
+			this.seq = seq;
+		}
+
+		@Override
+		public int compareTo (Registration o) {
+			int layer = clamp(entity.getComponent(LayerComponent.class).layerId, 0, LAYER_MAX);
+			int otherLayer = clamp(o.entity.getComponent(LayerComponent.class).layerId, 0, LAYER_MAX);
+			if (layer != otherLayer) return layer < otherLayer ? -1 : 1;
+
+			int zIndex = clamp(entity.getComponent(RenderableComponent.class).zIndex, Z_INDEX_MIN, Z_INDEX_MAX);
+			int otherZIndex = clamp(o.entity.getComponent(RenderableComponent.class).zIndex, Z_INDEX_MIN, Z_INDEX_MAX);
+			if (zIndex != otherZIndex) return zIndex < otherZIndex ? -1 : 1;
+
+			return seq < o.seq ? -1 : (seq == o.seq ? 0 : 1);
+		}
+	}
+
+	private static class TestAgent implements EntityProcessAgent {
+		@Override
+		public void begin () {
+		}
+
+		@Override
+		public void end () {
+		}
+
+		@Override
+		public void process (Entity e) {
+		}
+	}
+}